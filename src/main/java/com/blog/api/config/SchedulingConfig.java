@@ -0,0 +1,28 @@
+package com.blog.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Planificateur des méthodes @Scheduled : plusieurs threads, pour qu'une tâche longue
+ * (réconciliation des compteurs, segment d'index) ne retarde pas les autres, comme le
+ * flush des vues toutes les 5 secondes.
+ */
+@Slf4j
+@Configuration
+public class SchedulingConfig {
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-job-");
+        // À l'arrêt, les tâches en cours terminent et libèrent leur bail
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        scheduler.setErrorHandler(e -> log.error("Échec d'une tâche planifiée", e));
+        return scheduler;
+    }
+}
@@ -2,6 +2,7 @@ package com.blog.api.controller;
 
 import com.blog.api.entity.Post;
 import com.blog.api.service.AdminPostService;
+import com.blog.api.service.ReindexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,12 +10,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/admin/posts")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminPostController {
     private final AdminPostService adminPostService;
+    private final ReindexService reindexService;
 
     @GetMapping
     public ResponseEntity<Page<Post>> getAllPosts(Pageable pageable) {
@@ -43,4 +47,16 @@ public class AdminPostController {
     public ResponseEntity<Post> setFeatured(@PathVariable Long id, @RequestParam boolean featured) {
         return ResponseEntity.ok(adminPostService.setFeatured(id, featured));
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/reindex")
+    public ResponseEntity<Map<String, Object>> reindex() {
+        return ResponseEntity.accepted().body(reindexService.start());
+    }
+
+    @GetMapping("/reindex")
+    public ResponseEntity<Map<String, Object>> getReindexStatus() {
+        return reindexService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
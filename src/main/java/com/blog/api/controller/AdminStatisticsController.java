@@ -14,7 +14,7 @@ import com.blog.api.dto.post.PostResponse;
 import com.blog.api.repository.PostRepository;
 import java.util.List;
 import java.util.HashMap;
-import com.blog.api.repository.ReactionRepository;
+import com.blog.api.service.PostCacheService;
 
 @RestController
 @RequestMapping("/admin/statistics")
@@ -23,57 +23,37 @@ import com.blog.api.repository.ReactionRepository;
 public class AdminStatisticsController {
     private final AdminStatisticsService adminStatisticsService;
     private final PostRepository postRepository;
-    private final ReactionRepository reactionRepository;
+    private final PostCacheService postCacheService;
 
     @GetMapping("/global")
     public ResponseEntity<Map<String, Object>> getGlobalStatistics() {
         return ResponseEntity.ok(adminStatisticsService.getGlobalStatistics());
     }
 
+    @GetMapping("/cache/posts")
+    public ResponseEntity<Map<String, Object>> getPostCacheStatistics() {
+        return ResponseEntity.ok(postCacheService.getStats());
+    }
+
     @GetMapping("/top-posts")
     public ResponseEntity<Map<String, List<PostResponse>>> getTopPosts() {
         Map<String, List<PostResponse>> result = new HashMap<>();
 
         List<Post> mostViewed = postRepository.findTop5ByOrderByViewCountDesc();
-        List<PostResponse> mostViewedResponses = mostViewed.stream()
-            .map(post -> PostResponse.fromPost(
-                post,
-                reactionRepository.countLikesByPost(post),
-                reactionRepository.countDislikesByPost(post)
-            ))
-            .toList();
-
-        List<Post> mostCommented = postRepository.findTop5MostCommented();
-        List<PostResponse> mostCommentedResponses = mostCommented.stream()
-            .map(post -> PostResponse.fromPost(
-                post,
-                reactionRepository.countLikesByPost(post),
-                reactionRepository.countDislikesByPost(post)
-            ))
-            .toList();
-
+        List<Post> mostCommented = postRepository.findTop5ByOrderByCommentCountDesc();
         List<Post> mostLiked = postRepository.findTop5ByOrderByLikeCountDesc();
-        List<PostResponse> mostLikedResponses = mostLiked.stream()
-            .map(post -> PostResponse.fromPost(
-                post,
-                reactionRepository.countLikesByPost(post),
-                reactionRepository.countDislikesByPost(post)
-            ))
-            .toList();
-
         List<Post> mostDisliked = postRepository.findTop5ByOrderByDislikeCountDesc();
-        List<PostResponse> mostDislikedResponses = mostDisliked.stream()
-            .map(post -> PostResponse.fromPost(
-                post,
-                reactionRepository.countLikesByPost(post),
-                reactionRepository.countDislikesByPost(post)
-            ))
-            .toList();
 
-        result.put("mostViewed", mostViewedResponses);
-        result.put("mostCommented", mostCommentedResponses);
-        result.put("mostLiked", mostLikedResponses);
-        result.put("mostDisliked", mostDislikedResponses);
+        result.put("mostViewed", toResponses(mostViewed));
+        result.put("mostCommented", toResponses(mostCommented));
+        result.put("mostLiked", toResponses(mostLiked));
+        result.put("mostDisliked", toResponses(mostDisliked));
         return ResponseEntity.ok(result);
     }
-} 
\ No newline at end of file
+
+    private List<PostResponse> toResponses(List<Post> posts) {
+        return posts.stream()
+            .map(PostResponse::fromPost)
+            .toList();
+    }
+}
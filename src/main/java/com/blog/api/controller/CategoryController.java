@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,18 +20,18 @@ public class CategoryController {
     private final CategoryService categoryService;
 
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest) {
+        return ConditionalResponses.respond(webRequest, categoryService.getCategoriesVersion(), categoryService::getAllCategories);
     }
 
     @GetMapping("/top-level")
-    public ResponseEntity<List<CategoryResponse>> getTopLevelCategories() {
-        return ResponseEntity.ok(categoryService.getTopLevelCategories());
+    public ResponseEntity<List<CategoryResponse>> getTopLevelCategories(WebRequest webRequest) {
+        return ConditionalResponses.respond(webRequest, categoryService.getCategoriesVersion(), categoryService::getTopLevelCategories);
     }
 
     @GetMapping("/{slug}")
-    public ResponseEntity<CategoryResponse> getCategoryBySlug(@PathVariable String slug) {
-        return ResponseEntity.ok(categoryService.getCategoryBySlug(slug));
+    public ResponseEntity<CategoryResponse> getCategoryBySlug(@PathVariable String slug, WebRequest webRequest) {
+        return ConditionalResponses.respond(webRequest, categoryService.getCategoriesVersion(), () -> categoryService.getCategoryBySlug(slug));
     }
 
     @PostMapping
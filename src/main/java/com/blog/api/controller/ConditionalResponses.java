@@ -0,0 +1,37 @@
+package com.blog.api.controller;
+
+import com.blog.api.dto.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET conditionnels : If-None-Match / If-Modified-Since sont évalués à partir des seuls
+ * validateurs, et le corps n'est construit que si la ressource a changé.
+ */
+final class ConditionalResponses {
+    // Le client garde sa copie mais doit la revalider à chaque utilisation
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
+    private ConditionalResponses() {
+    }
+
+    static boolean isNotModified(WebRequest webRequest, ResourceVersion version) {
+        // Positionne aussi les en-têtes ETag et Last-Modified de la réponse
+        return webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis());
+    }
+
+    static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest webRequest, ResourceVersion version, Supplier<T> body) {
+        if (isNotModified(webRequest, version)) {
+            return notModified();
+        }
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(body.get());
+    }
+}
@@ -1,10 +1,14 @@
 package com.blog.api.controller;
 
+import com.blog.api.dto.ResourceVersion;
+import com.blog.api.dto.post.CursorPage;
+import com.blog.api.dto.post.PostCardResponse;
 import com.blog.api.dto.post.PostCreateRequest;
 import com.blog.api.dto.post.PostResponse;
 import com.blog.api.entity.User;
 import com.blog.api.repository.UserRepository;
 import com.blog.api.service.PostService;
+import com.blog.api.service.PostStreamingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,6 +29,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -36,6 +42,7 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class PostController {
     private final PostService postService;
+    private final PostStreamingService postStreamingService;
     private final UserRepository userRepository;
 
     @Operation(summary = "Récupérer tous les articles",
@@ -45,24 +52,51 @@ public class PostController {
                 content = @Content(schema = @Schema(implementation = Page.class)))
     })
     @GetMapping
-    public ResponseEntity<Page<PostResponse>> getAllPosts(Pageable pageable) {
+    public ResponseEntity<Page<PostCardResponse>> getAllPosts(Pageable pageable) {
         return ResponseEntity.ok(postService.getAllPosts(pageable));
     }
 
+    @Operation(summary = "Fil d'articles paginé par curseur",
+            description = "Pagination par curseur (createdAt, id) pour le défilement infini : "
+                    + "passer cursor vide pour la première page puis la valeur nextCursor reçue. "
+                    + "Aucune requête COUNT n'est exécutée.")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<PostCardResponse>> getPostFeed(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPostFeed(cursor, size));
+    }
+
     @GetMapping("/theme/{themeId}")
-    public ResponseEntity<Page<PostResponse>> getPostsByTheme(
+    public ResponseEntity<Page<PostCardResponse>> getPostsByTheme(
             @PathVariable Long themeId,
             Pageable pageable) {
         return ResponseEntity.ok(postService.getPostsByTheme(themeId, pageable));
     }
 
+    @GetMapping(value = "/theme/{themeId}", params = "cursor")
+    public ResponseEntity<CursorPage<PostCardResponse>> getPostFeedByTheme(
+            @PathVariable Long themeId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPostFeedByTheme(themeId, cursor, size));
+    }
+
     @GetMapping("/author/{username}")
-    public ResponseEntity<Page<PostResponse>> getPostsByAuthor(
+    public ResponseEntity<Page<PostCardResponse>> getPostsByAuthor(
             @PathVariable String username,
             Pageable pageable) {
         return ResponseEntity.ok(postService.getPostsByAuthor(username, pageable));
     }
 
+    @GetMapping(value = "/author/{username}", params = "cursor")
+    public ResponseEntity<CursorPage<PostCardResponse>> getPostFeedByAuthor(
+            @PathVariable String username,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getPostFeedByAuthor(username, cursor, size));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<PostResponse>> searchPosts(
             @RequestParam String keyword,
@@ -71,17 +105,24 @@ public class PostController {
     }
 
     @Operation(summary = "Récupérer un article par son ID",
-            description = "Récupère les détails d'un article spécifique")
+            description = "Récupère les détails d'un article spécifique. Supporte If-None-Match et If-Modified-Since.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Article trouvé",
                 content = @Content(schema = @Schema(implementation = PostResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Article inchangé depuis la version du client"),
         @ApiResponse(responseCode = "404", description = "Article non trouvé")
     })
     @GetMapping("/{id}")
     public ResponseEntity<PostResponse> getPostById(
             @Parameter(description = "ID de l'article", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(postService.getPostById(id));
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        ResourceVersion version = postService.getPostVersion(id);
+        if (ConditionalResponses.isNotModified(webRequest, version)) {
+            postService.recordView(id);
+            return ConditionalResponses.notModified();
+        }
+        return ResponseEntity.ok().cacheControl(ConditionalResponses.CACHE_CONTROL).body(postService.getPostById(id));
     }
 
     @Operation(
@@ -217,4 +258,15 @@ public class PostController {
     public ResponseEntity<List<PostResponse>> getAllPostsAsList() {
         return ResponseEntity.ok(postService.getAllPostsAsList());
     }
+
+    @Operation(summary = "Exporter tous les articles en flux NDJSON",
+            description = "Variante en flux de /posts/all (Accept: application/x-ndjson) : "
+                    + "un article par ligne, écrit au fur et à mesure de la lecture. "
+                    + "Interrompu au-delà de spring.mvc.async.request-timeout (30 min par défaut).")
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPosts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(postStreamingService::streamAllPosts);
+    }
 } 
\ No newline at end of file
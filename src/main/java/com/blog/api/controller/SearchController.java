@@ -26,10 +26,18 @@ public class SearchController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
             @RequestParam(defaultValue = "relevance") String sortBy,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
         
         return ResponseEntity.ok(searchService.search(
-            query, author, tag, dateFrom, dateTo, sortBy, page, size));
+            query, author, tag, dateFrom, dateTo, sortBy, page, size, fuzzy));
+    }
+
+    @GetMapping("/tags/suggest")
+    public ResponseEntity<List<String>> suggestTags(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchService.suggestTags(prefix, limit));
     }
 
     @GetMapping("/tags/popular")
@@ -38,6 +46,14 @@ public class SearchController {
         return ResponseEntity.ok(searchService.getPopularTags(limit));
     }
 
+    @GetMapping("/tags/trending")
+    public ResponseEntity<Map<String, Long>> getTrendingTags(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchService.getTrendingTags(window, limit));
+    }
+
+    // limit est plafonné à 20 une fois l'index des similarités prêt ; totalElements reste le nombre total d'articles similaires
     @GetMapping("/posts/{postId}/similar")
     public ResponseEntity<Map<String, Object>> getSimilarPosts(
             @PathVariable Long postId,
@@ -17,6 +17,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -52,8 +53,8 @@ public class ThemeController {
                 content = @Content(schema = @Schema(implementation = Page.class)))
     })
     @GetMapping
-    public ResponseEntity<List<ThemeResponse>> getAllThemes() {
-        return ResponseEntity.ok(themeService.getAllThemes());
+    public ResponseEntity<List<ThemeResponse>> getAllThemes(WebRequest webRequest) {
+        return ConditionalResponses.respond(webRequest, themeService.getThemesVersion(), themeService::getAllThemes);
     }
 
     @Operation(summary = "Récupérer un thème par son ID",
@@ -61,13 +62,31 @@ public class ThemeController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Thème trouvé",
                 content = @Content(schema = @Schema(implementation = ThemeResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Thème inchangé depuis la version du client"),
         @ApiResponse(responseCode = "404", description = "Thème non trouvé")
     })
     @GetMapping("/{id}")
     public ResponseEntity<ThemeResponse> getThemeById(
             @Parameter(description = "ID du thème", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(themeService.getThemeById(id));
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        return ConditionalResponses.respond(webRequest, themeService.getThemeVersion(id), () -> themeService.getThemeById(id));
+    }
+
+    @Operation(summary = "Récupérer un thème par son slug",
+            description = "Récupère les détails d'un thème à partir de son slug")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Thème trouvé",
+                content = @Content(schema = @Schema(implementation = ThemeResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Thème inchangé depuis la version du client"),
+        @ApiResponse(responseCode = "404", description = "Thème non trouvé")
+    })
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<ThemeResponse> getThemeBySlug(
+            @Parameter(description = "Slug du thème", required = true)
+            @PathVariable String slug,
+            WebRequest webRequest) {
+        return ConditionalResponses.respond(webRequest, themeService.getThemeVersionBySlug(slug), () -> themeService.getThemeBySlug(slug));
     }
 
     @Operation(summary = "Mettre à jour un thème",
@@ -0,0 +1,65 @@
+package com.blog.api.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Validateurs HTTP (ETag faible + Last-Modified) d'une ressource, calculés à partir
+ * des colonnes qui déterminent sa représentation, sans construire le DTO complet.
+ */
+@Getter
+public class ResourceVersion {
+    private final String eTag;
+    private final LocalDateTime lastModified;
+
+    private ResourceVersion(String eTag, LocalDateTime lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * L'ETag est un condensé de toutes les valeurs des lignes ; Last-Modified est
+     * la date la plus récente trouvée parmi elles.
+     */
+    public static ResourceVersion fromRows(List<Object[]> rows) {
+        StringBuilder fingerprint = new StringBuilder();
+        LocalDateTime lastModified = null;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                fingerprint.append(value).append(',');
+                if (value instanceof LocalDateTime date && (lastModified == null || date.isAfter(lastModified))) {
+                    lastModified = date;
+                }
+            }
+            fingerprint.append('|');
+        }
+        return new ResourceVersion("W/\"" + hash(fingerprint.toString()) + "\"", lastModified);
+    }
+
+    /**
+     * Last-Modified en millisecondes (-1 si inconnu), tronqué à la seconde comme l'en-tête HTTP.
+     */
+    public long getLastModifiedMillis() {
+        if (lastModified == null) {
+            return -1;
+        }
+        return lastModified.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.blog.api.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page d'un fil paginé par curseur : pas de total ni de numéro de page,
+ * seulement le curseur opaque à renvoyer pour obtenir la suite.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,83 @@
+package com.blog.api.dto.post;
+
+import com.blog.api.entity.Post;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue allégée d'un article pour les listes : ni contenu, ni galerie, ni email de l'auteur.
+ * Construite directement par les requêtes JPQL de PostRepository (expression constructeur).
+ */
+@Data
+@NoArgsConstructor
+public class PostCardResponse {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private String slug;
+    private String featuredImage;
+    private AuthorSummary author;
+    private ThemeSummary theme;
+    private long viewCount;
+    private long likeCount;
+    private long dislikeCount;
+    private long commentCount;
+    private Integer readTime;
+    private Post.Status status;
+    private LocalDateTime publishedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    public static class AuthorSummary {
+        private Long id;
+        private String username;
+        private String avatar;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ThemeSummary {
+        private Long id;
+        private String name;
+        private String slug;
+    }
+
+    public PostCardResponse(Long id, String title, String excerpt, String slug, String featuredImage,
+                            Long authorId, String authorUsername, String authorAvatar,
+                            Long themeId, String themeName, String themeSlug,
+                            Integer viewCount, Integer likeCount, Integer dislikeCount, Integer commentCount,
+                            Integer readTime, Post.Status status,
+                            LocalDateTime publishedAt, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.slug = slug;
+        this.featuredImage = featuredImage;
+
+        this.author = new AuthorSummary();
+        this.author.setId(authorId);
+        this.author.setUsername(authorUsername);
+        this.author.setAvatar(authorAvatar);
+
+        if (themeId != null) {
+            this.theme = new ThemeSummary();
+            this.theme.setId(themeId);
+            this.theme.setName(themeName);
+            this.theme.setSlug(themeSlug);
+        }
+
+        this.viewCount = viewCount != null ? viewCount : 0;
+        this.likeCount = likeCount != null ? likeCount : 0;
+        this.dislikeCount = dislikeCount != null ? dislikeCount : 0;
+        this.commentCount = commentCount != null ? commentCount : 0;
+        this.readTime = readTime;
+        this.status = status;
+        this.publishedAt = publishedAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -51,7 +51,7 @@ public class PostResponse {
         private String thumbnail;
     }
 
-    public static PostResponse fromPost(Post post, long likesCount, long dislikesCount) {
+    public static PostResponse fromPost(Post post) {
         PostResponse response = new PostResponse();
         response.setId(post.getId());
         response.setTitle(post.getTitle());
@@ -66,8 +66,8 @@ public class PostResponse {
         response.setGalleryImages(post.getGalleryImages());
         response.setReadTime(post.getReadTime());
         response.setViewCount(post.getViewCount());
-        response.setLikeCount(likesCount);
-        response.setDislikeCount(dislikesCount);
+        response.setLikeCount(post.getLikeCount() != null ? post.getLikeCount() : 0);
+        response.setDislikeCount(post.getDislikeCount() != null ? post.getDislikeCount() : 0);
         response.setStatus(post.getStatus());
         response.setPublishedAt(post.getPublishedAt());
         response.setScheduledAt(post.getScheduledAt());
@@ -94,7 +94,7 @@ public class PostResponse {
             .map(tag -> tag.getName())
             .collect(Collectors.toList()));
 
-        response.setCommentCount(post.getComments() != null ? post.getComments().size() : 0);
+        response.setCommentCount(post.getCommentCount() != null ? post.getCommentCount() : 0);
         return response;
     }
 } 
\ No newline at end of file
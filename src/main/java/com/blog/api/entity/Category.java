@@ -5,9 +5,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.Formula;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,7 +17,13 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+    // Sous-arbre d'une catégorie : balayage de l'index sur le préfixe de son chemin
+    @Index(name = "idx_categories_path", columnList = "path"),
+    // Catégories populaires : lecture de l'index, sans compter les articles
+    @Index(name = "idx_categories_post_count", columnList = "post_count")
+})
+@EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Category {
     @Id
@@ -37,14 +43,26 @@ public class Category {
     @JoinColumn(name = "parent_id")
     private Category parent;
 
+    /**
+     * Chemin matérialisé : identifiants des ancêtres puis de la catégorie, entourés de
+     * "/" (par exemple /3/12/). Tenu à jour par CategoryCatalog.
+     */
+    @Column(length = 255)
+    private String path;
+
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
     private List<Category> children = new ArrayList<>();
 
     @OneToMany(mappedBy = "category")
     private List<Post> posts = new ArrayList<>();
 
-    @Formula("(SELECT COUNT(p.id) FROM posts p WHERE p.category_id = id)")
-    private Integer postCount;
+    /**
+     * Nombre d'articles de la catégorie, tenu à jour par CategoryPostCountService et
+     * réconcilié par CounterReconciliationService. Jamais réécrit lors de la sauvegarde de
+     * l'entité, pour ne pas écraser un incrément concurrent avec la valeur chargée.
+     */
+    @Column(name = "post_count", updatable = false)
+    private Integer postCount = 0;
 
     @Column(name = "display_order")
     private Integer displayOrder = 0;
@@ -65,39 +83,34 @@ public class Category {
 
     @PrePersist
     @PreUpdate
-    private void ensureSlug() {
+    private void ensureDefaults() {
         if (slug == null || slug.isEmpty()) {
             slug = name.toLowerCase()
                     .replaceAll("[^a-z0-9\\s-]", "")
                     .replaceAll("\\s+", "-");
         }
-    }
-
-    public String getFullPath() {
-        if (parent == null) {
-            return "/" + slug;
+        if (postCount == null) {
+            postCount = 0;
         }
-        return parent.getFullPath() + "/" + slug;
     }
 
-    public List<Category> getAncestors() {
-        List<Category> ancestors = new ArrayList<>();
-        Category current = parent;
-        while (current != null) {
-            ancestors.add(0, current);
-            current = current.getParent();
+    /**
+     * Identifiants des ancêtres, de la racine au parent direct, lus dans le chemin.
+     */
+    public List<Long> getAncestorIds() {
+        List<Long> ancestors = new ArrayList<>();
+        if (path == null) {
+            return ancestors;
+        }
+        String[] ids = path.substring(1).split("/");
+        for (int i = 0; i < ids.length - 1; i++) {
+            ancestors.add(Long.valueOf(ids[i]));
         }
         return ancestors;
     }
 
     public boolean isDescendantOf(Category ancestor) {
-        Category current = parent;
-        while (current != null) {
-            if (current.equals(ancestor)) {
-                return true;
-            }
-            current = current.getParent();
-        }
-        return false;
+        return path != null && ancestor.getPath() != null
+                && !path.equals(ancestor.getPath()) && path.startsWith(ancestor.getPath());
     }
-} 
\ No newline at end of file
+}
@@ -108,6 +108,13 @@ public class Comment {
         }
     }
 
+    /**
+     * Un commentaire compte dans Post.commentCount tant qu'il n'est ni rejeté ni marqué comme spam.
+     */
+    public boolean isCounted() {
+        return status != ModerationStatus.REJECTED && status != ModerationStatus.SPAM;
+    }
+
     public void moderate(User moderator, ModerationStatus status, String reason) {
         this.moderator = moderator;
         this.status = status;
@@ -18,7 +18,14 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_posts_theme_created_at_id", columnList = "theme_id, created_at, id"),
+    @Index(name = "idx_posts_author_created_at_id", columnList = "author_id, created_at, id"),
+    @Index(name = "idx_posts_comment_count", columnList = "comment_count"),
+    @Index(name = "idx_posts_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_posts_status_scheduled_at", columnList = "status, scheduled_at")
+})
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Post {
@@ -79,15 +86,22 @@ public class Post {
     @ElementCollection
     private List<String> galleryImages;
 
-    @Column(name = "view_count")
+    // Écrit uniquement par les UPDATE relatifs de ViewCounterService, comme les compteurs ci-dessous
+    @Column(name = "view_count", updatable = false)
     private Integer viewCount = 0;
 
-    @Column(name = "like_count")
+    // Compteurs de réactions maintenus par ReactionService avec des UPDATE relatifs, comme commentCount
+    @Column(name = "like_count", updatable = false)
     private Integer likeCount = 0;
 
-    @Column(name = "dislike_count")
+    @Column(name = "dislike_count", updatable = false)
     private Integer dislikeCount = 0;
 
+    // Commentaires visibles (hors rejetés et spam), maintenu uniquement par des UPDATE relatifs :
+    // jamais réécrit lors de la sauvegarde de l'entité, pour ne pas écraser un incrément concurrent
+    @Column(name = "comment_count", updatable = false)
+    private Integer commentCount = 0;
+
     @Column(name = "read_time")
     private Integer readTime;
 
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tags")
+@Table(name = "tags", indexes = {
+    // Nuages de tags : lecture des plus utilisés par l'index, sans tri ni agrégation
+    @Index(name = "idx_tags_usage_count", columnList = "usage_count")
+})
 public class Tag {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,7 +21,9 @@ public class Tag {
     @Column(nullable = false, unique = true)
     private String name;
 
-    @Column(name = "usage_count")
+    // Maintenu par TagUsageService et CounterReconciliationService avec des UPDATE relatifs :
+    // jamais réécrit lors de la sauvegarde de l'entité, pour ne pas écraser un incrément concurrent
+    @Column(name = "usage_count", updatable = false)
     private Integer usageCount = 0;
 
     @PrePersist
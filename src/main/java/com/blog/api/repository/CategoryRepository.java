@@ -4,9 +4,13 @@ import com.blog.api.entity.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +36,56 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     @Query("SELECT c FROM Category c WHERE c.postCount > 0 ORDER BY c.postCount DESC")
     List<Category> findPopularCategories(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Category c SET c.postCount = COALESCE(c.postCount, 0) + :delta WHERE c.id = :id")
+    int adjustPostCount(@Param("delta") int delta, @Param("id") Long id);
+
+    @Query("SELECT MAX(c.id) FROM Category c")
+    Long findMaxId();
+
+    // Catégories de la tranche ]afterId, upToId] dont le nombre d'articles a dérivé
+    @Query("""
+        SELECT c.id FROM Category c
+        WHERE c.id > :afterId AND c.id <= :upToId
+        AND (c.postCount IS NULL OR c.postCount <> (SELECT COUNT(p) FROM Post p WHERE p.category = c))
+        """)
+    List<Long> findPostCountDrift(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // Catégories de la tranche ]afterId, upToId] dont le compteur n'a jamais été calculé
+    @Query("""
+        SELECT c.id FROM Category c
+        WHERE c.id > :afterId AND c.id <= :upToId AND c.postCount IS NULL
+        """)
+    List<Long> findUninitializedPostCounts(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Category c SET c.postCount = (SELECT COUNT(p) FROM Post p WHERE p.category = c)
+        WHERE c.id IN :ids
+        """)
+    int recountPosts(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.path FROM Category c WHERE c.id = :id")
+    Optional<String> findPathById(@Param("id") Long id);
+
+    // Une ligne (id, id du parent, chemin) par catégorie, pour recalculer les chemins
+    @Query("SELECT c.id, parent.id, c.path FROM Category c LEFT JOIN c.parent parent")
+    List<Object[]> findPathRows();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Category c SET c.path = :path WHERE c.id = :id")
+    int updatePath(@Param("id") Long id, @Param("path") String path);
+
+    // Déplacement d'un sous-arbre : la catégorie et ses descendants changent de préfixe
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Category c SET c.path = CONCAT(:newPrefix, SUBSTRING(c.path, LENGTH(:oldPrefix) + 1))
+        WHERE c.path LIKE CONCAT(:oldPrefix, '%')
+        """)
+    int movePaths(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
 } 
\ No newline at end of file
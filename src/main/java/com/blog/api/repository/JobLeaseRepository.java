@@ -0,0 +1,44 @@
+package com.blog.api.repository;
+
+import com.blog.api.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    // Reprend un bail expiré : une seule transaction concurrente peut modifier la ligne
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE JobLease l SET l.lockUntil = :until, l.lockedAt = :now, l.lockedBy = :node
+        WHERE l.name = :name AND l.lockUntil <= :now
+        """)
+    int acquireExpired(@Param("name") String name, @Param("node") String node,
+                       @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Première exécution de la tâche. INSERT simple : si la ligne existe déjà, la violation de
+    // clé primaire est levée quel que soit le mode de comptage des lignes du pilote (useAffectedRows)
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO job_leases (name, lock_until, locked_at, locked_by) VALUES (:name, :until, :now, :node)
+        """, nativeQuery = true)
+    int insertLease(@Param("name") String name, @Param("node") String node,
+                       @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Ne touche pas un bail expiré puis repris par un autre nœud entre-temps
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE JobLease l SET l.lockUntil = :until
+        WHERE l.name = :name AND l.lockedBy = :node AND l.lockedAt = :lockedAt
+        """)
+    int release(@Param("name") String name, @Param("node") String node,
+                @Param("lockedAt") LocalDateTime lockedAt, @Param("until") LocalDateTime until);
+}
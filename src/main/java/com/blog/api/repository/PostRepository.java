@@ -1,35 +1,77 @@
 package com.blog.api.repository;
 
+import com.blog.api.dto.post.PostCardResponse;
 import com.blog.api.entity.Post;
 import com.blog.api.entity.Tag;
 import com.blog.api.entity.Theme;
 import com.blog.api.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // Projection "carte" des listes : une seule requête, sans charger contenu, galerie ni commentaires
+    String CARD_SELECT = """
+        SELECT new com.blog.api.dto.post.PostCardResponse(
+            p.id, p.title, p.excerpt, p.slug, p.featuredImage,
+            a.id, a.username, a.avatar,
+            th.id, th.name, th.slug,
+            p.viewCount, p.likeCount, p.dislikeCount, p.commentCount,
+            p.readTime, p.status, p.publishedAt, p.createdAt, p.updatedAt)
+        FROM Post p
+        JOIN p.author a
+        LEFT JOIN p.theme th
+        """;
+
+    // Pagination par curseur : recherche directe après (createdAt, id), sans OFFSET ni COUNT
+    String CURSOR_SEEK = """
+        (:createdAt IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+        """;
+    String CURSOR_ORDER = " ORDER BY p.createdAt DESC, p.id DESC";
+
     @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
     Page<Post> findAllOrderByCreatedAtDesc(Pageable pageable);
     
     Page<Post> findByTheme(Theme theme, Pageable pageable);
     Page<Post> findByAuthor(User author, Pageable pageable);
     
-    @Query("SELECT p FROM Post p WHERE p.title LIKE %:keyword% OR p.content LIKE %:keyword%")
-    Page<Post> searchByKeyword(String keyword, Pageable pageable);
-    
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author = :author")
     long countByAuthor(User author);
 
-    List<Post> findByStatusAndPublishedAtBefore(Post.Status status, LocalDateTime publishedAt);
+    // Publications programmées : une ligne (id, scheduledAt) par article
+    @Query("SELECT p.id, p.scheduledAt FROM Post p WHERE p.status = :status AND p.scheduledAt IS NOT NULL")
+    List<Object[]> findSchedules(@Param("status") Post.Status status);
+
+    @Query("SELECT p.status, p.scheduledAt FROM Post p WHERE p.id = :id")
+    List<Object[]> findScheduleById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status AND p.scheduledAt <= :now")
+    List<Long> findDueScheduledIds(@Param("status") Post.Status status, @Param("now") LocalDateTime now);
+
+    // updatedAt est posé explicitement : l'audit JPA ne voit pas les UPDATE en masse
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Post p SET p.status = :published, p.publishedAt = :now, p.updatedAt = :now
+        WHERE p.id IN :ids AND p.status = :scheduled AND p.scheduledAt <= :now
+        """)
+    int publishScheduled(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+                         @Param("scheduled") Post.Status scheduled, @Param("published") Post.Status published);
 
     @Query("SELECT p FROM Post p WHERE p.status = 'PUBLISHED' ORDER BY p.publishedAt DESC")
     Page<Post> findPublishedPosts(Pageable pageable);
@@ -65,8 +107,57 @@ public interface PostRepository extends JpaRepository<Post, Long> {
         Pageable pageable
     );
 
-    @Query("SELECT DISTINCT t.name FROM Post p JOIN p.tags t WHERE t.name LIKE CONCAT(:prefix, '%')")
-    List<String> findTagsByPrefix(@Param("prefix") String prefix);
+    // Lecture par lots ordonnés par id pour la construction de l'index de recherche
+    List<Post> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Rattrapage de l'index restauré depuis un segment : articles modifiés depuis la marque d'eau
+    List<Post> findByUpdatedAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime updatedAt, Long id, Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p")
+    List<Long> findAllIds();
+
+    @Query("SELECT t.id FROM Post p JOIN p.tags t WHERE p.id = :id")
+    List<Long> findTagIdsByPostId(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM Post p JOIN p.category c WHERE p.id = :id")
+    Optional<Long> findCategoryIdByPostId(@Param("id") Long id);
+
+    @Query("SELECT p.id, t.name FROM Post p JOIN p.tags t WHERE p.id IN :ids")
+    List<Object[]> findTagNamesByPostIds(@Param("ids") Collection<Long> ids);
+
+    Page<Post> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT p.id, t.name FROM Post p JOIN p.tags t WHERE p.id > :afterId AND p.id <= :upToId")
+    List<Object[]> findTagNamesByPostIdRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // Tags des articles publiés de la tranche, seuls proposés à l'autocomplétion
+    @Query("SELECT p.id, t.name FROM Post p JOIN p.tags t WHERE p.status = 'PUBLISHED' AND p.id > :afterId AND p.id <= :upToId")
+    List<Object[]> findPublishedTagNamesByPostIdRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // Vide si l'article n'existe plus ou n'est pas publié
+    @Query("SELECT t.name FROM Post p JOIN p.tags t WHERE p.status = 'PUBLISHED' AND p.id = :id")
+    List<String> findPublishedTagNamesByPostId(@Param("id") Long id);
+
+    // Caractéristiques de similarité : une ligne (id, thème, tag) par tag, tag null pour un article sans tag
+    @Query("""
+        SELECT p.id, th.id, t.id FROM Post p
+        LEFT JOIN p.theme th
+        LEFT JOIN p.tags t
+        WHERE p.status = 'PUBLISHED' AND p.id > :afterId AND p.id <= :upToId
+        """)
+    List<Object[]> findPublishedSimilarityRows(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Query("SELECT p.id, p.status, th.id, t.id FROM Post p LEFT JOIN p.theme th LEFT JOIN p.tags t WHERE p.id = :id")
+    List<Object[]> findSimilarityRowsByPostId(@Param("id") Long id);
+
+    // Même classement que TagSuggestService (usage puis nom) ; les accents suivent la collation de la colonne
+    @Query("""
+        SELECT t.name FROM Post p JOIN p.tags t
+        WHERE p.status = 'PUBLISHED' AND LOWER(t.name) LIKE CONCAT(LOWER(:prefix), '%')
+        GROUP BY t.name
+        ORDER BY COUNT(p) DESC, t.name
+        """)
+    List<String> findPublishedTagsByPrefix(@Param("prefix") String prefix, Pageable pageable);
 
     @Query("""
         SELECT DISTINCT p FROM Post p
@@ -138,9 +229,169 @@ public interface PostRepository extends JpaRepository<Post, Long> {
         Pageable pageable);
 
     List<Post> findAllByOrderByCreatedAtDesc();
+
+    // Lecture en flux pour l'export NDJSON, par lots de 500 lignes grâce au curseur côté serveur
+    // (useCursorFetch=true, posé dans application.properties). Pas de mode streaming
+    // (fetch size Integer.MIN_VALUE) : il interdirait le chargement par lots des associations
+    // sur la même connexion tant que le flux est ouvert
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
+    Stream<Post> streamAllByOrderByCreatedAtDesc();
+
+    // Tranche d'identifiants lue en flux par la réindexation complète, une requête par partition
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Post p WHERE p.id > :afterId AND p.id <= :upToId")
+    Stream<Post> streamByIdRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
     List<Post> findTop5ByOrderByViewCountDesc();
-    @Query(value = "SELECT p.* FROM posts p LEFT JOIN comments c ON c.post_id = p.id GROUP BY p.id ORDER BY COUNT(c.id) DESC LIMIT 5", nativeQuery = true)
-    List<Post> findTop5MostCommented();
+    List<Post> findTop5ByOrderByCommentCountDesc();
     List<Post> findTop5ByOrderByLikeCountDesc();
     List<Post> findTop5ByOrderByDislikeCountDesc();
-} 
\ No newline at end of file
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.viewCount = p.viewCount + :delta WHERE p.id IN :ids")
+    int incrementViewCounts(@Param("delta") int delta, @Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = COALESCE(p.commentCount, 0) + :delta WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT MAX(p.id) FROM Post p")
+    Long findMaxId();
+
+    // Articles de la tranche ]afterId, upToId] dont le compteur de commentaires a dérivé
+    @Query("""
+        SELECT p.id FROM Post p
+        WHERE p.id > :afterId AND p.id <= :upToId
+        AND (p.commentCount IS NULL OR p.commentCount <> (
+            SELECT COUNT(c) FROM Comment c
+            WHERE c.post = p AND (c.status IS NULL OR c.status NOT IN ('REJECTED', 'SPAM'))))
+        """)
+    List<Long> findCommentCountDrift(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Post p SET p.commentCount = (
+            SELECT COUNT(c) FROM Comment c
+            WHERE c.post = p AND (c.status IS NULL OR c.status NOT IN ('REJECTED', 'SPAM')))
+        WHERE p.id IN :ids
+        """)
+    int recountComments(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Post p SET
+            p.likeCount = COALESCE(p.likeCount, 0) + :likeDelta,
+            p.dislikeCount = COALESCE(p.dislikeCount, 0) + :dislikeDelta
+        WHERE p.id = :id
+        """)
+    int adjustReactionCounts(@Param("id") Long id, @Param("likeDelta") int likeDelta, @Param("dislikeDelta") int dislikeDelta);
+
+    @Query("""
+        SELECT p.id FROM Post p
+        WHERE p.id > :afterId AND p.id <= :upToId
+        AND (p.likeCount IS NULL OR p.dislikeCount IS NULL
+            OR p.likeCount <> (SELECT COUNT(r) FROM Reaction r WHERE r.post = p AND r.type = 'LIKE')
+            OR p.dislikeCount <> (SELECT COUNT(r) FROM Reaction r WHERE r.post = p AND r.type = 'DISLIKE'))
+        """)
+    List<Long> findReactionCountDrift(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Post p SET
+            p.likeCount = (SELECT COUNT(r) FROM Reaction r WHERE r.post = p AND r.type = 'LIKE'),
+            p.dislikeCount = (SELECT COUNT(r) FROM Reaction r WHERE r.post = p AND r.type = 'DISLIKE')
+        WHERE p.id IN :ids
+        """)
+    int recountReactions(@Param("ids") Collection<Long> ids);
+
+    // Colonnes dont dépend la représentation détaillée d'un article, pour les requêtes conditionnelles
+    @Query("""
+        SELECT p.updatedAt, a.updatedAt, th.updatedAt, p.likeCount, p.dislikeCount, p.commentCount
+        FROM Post p
+        JOIN p.author a
+        LEFT JOIN p.theme th
+        WHERE p.id = :id
+        """)
+    List<Object[]> findVersionRowById(@Param("id") Long id);
+
+    // Collections rendues par PostResponse : les modifier ne réécrit pas la ligne posts (pas de @Version)
+    @Query("SELECT t.id, t.name FROM Post p JOIN p.tags t WHERE p.id = :id ORDER BY t.id")
+    List<Object[]> findVersionTagRowsById(@Param("id") Long id);
+
+    @Query("SELECT g FROM Post p JOIN p.galleryImages g WHERE p.id = :id ORDER BY g")
+    List<String> findGalleryImagesById(@Param("id") Long id);
+
+    @Query(value = CARD_SELECT + "ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostCardResponse> findCardsOrderByCreatedAtDesc(Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.theme = :theme ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.theme = :theme")
+    Page<PostCardResponse> findCardsByTheme(@Param("theme") Theme theme, Pageable pageable);
+
+    @Query(value = CARD_SELECT + "WHERE p.author = :author ORDER BY p.createdAt DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author = :author")
+    Page<PostCardResponse> findCardsByAuthor(@Param("author") User author, Pageable pageable);
+
+    @Query(value = CARD_SELECT + """
+        WHERE (:query IS NULL OR
+              LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR
+              LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')))
+        AND (:author IS NULL OR p.author = :author)
+        AND (:tag IS NULL OR :tag IN (SELECT t.name FROM p.tags t))
+        AND (:dateFrom IS NULL OR p.createdAt >= :dateFrom)
+        AND (:dateTo IS NULL OR p.createdAt < :dateTo)
+        AND p.status = 'PUBLISHED'
+        """,
+           countQuery = """
+        SELECT COUNT(p) FROM Post p
+        WHERE (:query IS NULL OR
+              LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR
+              LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')))
+        AND (:author IS NULL OR p.author = :author)
+        AND (:tag IS NULL OR :tag IN (SELECT t.name FROM p.tags t))
+        AND (:dateFrom IS NULL OR p.createdAt >= :dateFrom)
+        AND (:dateTo IS NULL OR p.createdAt < :dateTo)
+        AND p.status = 'PUBLISHED'
+        """)
+    Page<PostCardResponse> findCardsBySearchCriteria(
+        @Param("query") String query,
+        @Param("author") User author,
+        @Param("tag") String tag,
+        @Param("dateFrom") LocalDateTime dateFrom,
+        @Param("dateTo") LocalDateTime dateTo,
+        Pageable pageable);
+
+    // Cartes des résultats de l'index de recherche ; l'appelant rétablit l'ordre de pertinence
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<PostCardResponse> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = CARD_SELECT + "WHERE p.id IN :ids",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.id IN :ids")
+    Page<PostCardResponse> findCardsByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE " + CURSOR_SEEK + CURSOR_ORDER)
+    List<PostCardResponse> findCardsAfterCursor(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.theme.id = :themeId AND " + CURSOR_SEEK + CURSOR_ORDER)
+    List<PostCardResponse> findCardsByThemeAfterCursor(
+        @Param("themeId") Long themeId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.author = :author AND " + CURSOR_SEEK + CURSOR_ORDER)
+    List<PostCardResponse> findCardsByAuthorAfterCursor(
+        @Param("author") User author,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable);
+}
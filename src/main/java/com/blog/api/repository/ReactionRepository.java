@@ -4,9 +4,13 @@ import com.blog.api.entity.Post;
 import com.blog.api.entity.Reaction;
 import com.blog.api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -20,6 +24,21 @@ public interface ReactionRepository extends JpaRepository<Reaction, Long> {
     long countDislikesByPost(Post post);
     
     void deleteByUserAndPost(User user, Post post);
+
+    // Changement de type conditionnel : 0 si une requête concurrente l'a déjà modifié
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reaction r SET r.type = :newType, r.updatedAt = :now WHERE r.id = :id AND r.type = :oldType")
+    int switchType(@Param("id") Long id,
+                   @Param("oldType") Reaction.ReactionType oldType,
+                   @Param("newType") Reaction.ReactionType newType,
+                   @Param("now") LocalDateTime now);
+
+    // 0 si la réaction a déjà été supprimée par une requête concurrente
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Reaction r WHERE r.id = :id")
+    int removeById(@Param("id") Long id);
     
     long countByPostAndType(Post post, Reaction.ReactionType type);
     
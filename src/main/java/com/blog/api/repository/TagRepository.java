@@ -1,12 +1,18 @@
 package com.blog.api.repository;
 
 import com.blog.api.entity.Tag;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,16 +21,44 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
     
     List<Tag> findByNameIn(List<String> names);
+
+    // Lecture verrouillante : voit les tags commités par une transaction concurrente après le début de la nôtre
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t FROM Tag t WHERE t.name IN :names")
+    List<Tag> findByNameInForShare(@Param("names") Collection<String> names);
     
     @Query("SELECT t FROM Tag t ORDER BY t.usageCount DESC")
     Page<Tag> findMostUsedTags(Pageable pageable);
     
-    @Query("SELECT t FROM Tag t WHERE LOWER(t.name) LIKE LOWER(CONCAT(:prefix, '%'))")
-    List<Tag> findByNameStartingWithIgnoreCase(String prefix);
-    
     @Query("SELECT t FROM Tag t WHERE t.usageCount > 0 ORDER BY t.usageCount DESC")
     List<Tag> findActiveTags();
     
     @Query("SELECT COUNT(t) FROM Tag t WHERE t.usageCount > 0")
     long countActiveTags();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Tag t SET t.usageCount = COALESCE(t.usageCount, 0) + :delta WHERE t.id IN :ids")
+    int adjustUsageCounts(@Param("delta") int delta, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MAX(t.id) FROM Tag t")
+    Long findMaxId();
+
+    // Tags de la tranche ]afterId, upToId] dont le nombre d'articles a dérivé
+    @Query("""
+        SELECT t.id FROM Tag t
+        WHERE t.id > :afterId AND t.id <= :upToId
+        AND (t.usageCount IS NULL OR t.usageCount <> (
+            SELECT COUNT(DISTINCT p.id) FROM Post p JOIN p.tags pt WHERE pt.id = t.id))
+        """)
+    List<Long> findUsageCountDrift(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE Tag t SET t.usageCount = (
+            SELECT COUNT(DISTINCT p.id) FROM Post p JOIN p.tags pt WHERE pt.id = t.id)
+        WHERE t.id IN :ids
+        """)
+    int recountUsage(@Param("ids") Collection<Long> ids);
 } 
\ No newline at end of file
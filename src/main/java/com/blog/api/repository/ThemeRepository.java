@@ -27,4 +27,8 @@ public interface ThemeRepository extends JpaRepository<Theme, Long> {
     long countPostsByTheme(Theme theme);
     
     boolean existsBySlug(String slug);
+
+    // Une ligne (id, updatedAt, nombre d'articles) par thème, pour les requêtes conditionnelles
+    @Query("SELECT t.id, t.updatedAt, COUNT(p) FROM Theme t LEFT JOIN t.posts p GROUP BY t.id, t.updatedAt ORDER BY t.id")
+    List<Object[]> findVersionRows();
 } 
\ No newline at end of file
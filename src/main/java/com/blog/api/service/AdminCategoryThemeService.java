@@ -15,6 +15,8 @@ import java.util.Optional;
 public class AdminCategoryThemeService {
     private final CategoryRepository categoryRepository;
     private final ThemeRepository themeRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final ThemeCatalog themeCatalog;
 
     // Catégories
     public Iterable<Category> getAllCategories() {
@@ -27,7 +29,12 @@ public class AdminCategoryThemeService {
 
     @Transactional
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        // Chemin et compteur sont tenus par l'application, jamais repris de la requête
+        category.setPath(null);
+        category.setPostCount(0);
+        Category savedCategory = categoryRepository.save(category);
+        categoryCatalog.updatePath(savedCategory);
+        return savedCategory;
     }
 
     @Transactional
@@ -39,7 +46,9 @@ public class AdminCategoryThemeService {
         category.setDescription(updatedCategory.getDescription());
         category.setDisplayOrder(updatedCategory.getDisplayOrder());
         category.setParent(updatedCategory.getParent());
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        categoryCatalog.updatePath(savedCategory);
+        return savedCategory;
     }
 
     @Transactional
@@ -48,6 +57,7 @@ public class AdminCategoryThemeService {
             throw new RuntimeException("Category not found");
         }
         categoryRepository.deleteById(id);
+        categoryCatalog.invalidate();
     }
 
     // Thèmes
@@ -61,7 +71,9 @@ public class AdminCategoryThemeService {
 
     @Transactional
     public Theme createTheme(Theme theme) {
-        return themeRepository.save(theme);
+        Theme savedTheme = themeRepository.save(theme);
+        themeCatalog.invalidate();
+        return savedTheme;
     }
 
     @Transactional
@@ -73,7 +85,9 @@ public class AdminCategoryThemeService {
         theme.setDescription(updatedTheme.getDescription());
         theme.setThumbnail(updatedTheme.getThumbnail());
         theme.setActive(updatedTheme.isActive());
-        return themeRepository.save(theme);
+        Theme savedTheme = themeRepository.save(theme);
+        themeCatalog.invalidate();
+        return savedTheme;
     }
 
     @Transactional
@@ -82,5 +96,6 @@ public class AdminCategoryThemeService {
             throw new RuntimeException("Theme not found");
         }
         themeRepository.deleteById(id);
+        themeCatalog.invalidate();
     }
 } 
\ No newline at end of file
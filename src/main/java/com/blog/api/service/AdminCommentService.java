@@ -14,6 +14,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AdminCommentService {
     private final CommentRepository commentRepository;
+    private final CommentService commentService;
 
     public Page<Comment> getAllComments(Pageable pageable) {
         return commentRepository.findAll(pageable);
@@ -31,15 +32,16 @@ public class AdminCommentService {
     public Comment approveComment(Long id) {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
+        boolean wasCounted = comment.isCounted();
         comment.setStatus(Comment.ModerationStatus.APPROVED);
+        commentService.updatePostCommentCount(comment, wasCounted);
         return commentRepository.save(comment);
     }
 
     @Transactional
     public void deleteComment(Long id) {
-        if (!commentRepository.existsById(id)) {
-            throw new RuntimeException("Comment not found");
-        }
-        commentRepository.deleteById(id);
+        Comment comment = commentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        commentService.removeComment(comment);
     }
 } 
\ No newline at end of file
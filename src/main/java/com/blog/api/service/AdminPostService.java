@@ -3,6 +3,7 @@ package com.blog.api.service;
 import com.blog.api.entity.Post;
 import com.blog.api.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
@@ -10,12 +11,17 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AdminPostService {
     private final PostRepository postRepository;
+    private final PostCacheService postCacheService;
+    private final TagUsageService tagUsageService;
+    private final CategoryPostCountService categoryPostCountService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Page<Post> getAllPosts(Pageable pageable) {
         Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
@@ -36,7 +42,10 @@ public class AdminPostService {
         post.setFeaturedImage(updatedPost.getFeaturedImage());
         post.setStatus(updatedPost.getStatus());
         // Ajoute d'autres champs à mettre à jour si besoin
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        postCacheService.invalidate(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
+        return saved;
     }
 
     @Transactional
@@ -44,7 +53,11 @@ public class AdminPostService {
         if (!postRepository.existsById(id)) {
             throw new RuntimeException("Post not found");
         }
+        tagUsageService.applyChange(postRepository.findTagIdsByPostId(id), List.of());
+        categoryPostCountService.applyChange(postRepository.findCategoryIdByPostId(id).orElse(null), null);
         postRepository.deleteById(id);
+        postCacheService.invalidate(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
     }
 
     @Transactional
@@ -52,6 +65,8 @@ public class AdminPostService {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
         post.setFeatured(featured);
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        postCacheService.invalidate(id);
+        return saved;
     }
 } 
\ No newline at end of file
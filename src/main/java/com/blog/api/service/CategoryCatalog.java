@@ -0,0 +1,174 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Category;
+import com.blog.api.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arborescence des catégories servie depuis un CategorySnapshot en mémoire, chargé en une
+ * requête au lieu de parcourir les collections paresseuses niveau par niveau. Le snapshot
+ * est reconstruit après le commit de chaque écriture de catégorie, à la lecture suivante
+ * quand un article change (nombre d'articles par catégorie), et au plus tard après maxAge
+ * pour suivre les écritures des autres nœuds.
+ *
+ * Tient aussi à jour les chemins matérialisés (Category.path) : c'est sur eux que
+ * reposent les tests d'ascendance, par simple comparaison de préfixes.
+ */
+@Slf4j
+@Service
+public class CategoryCatalog {
+    private final CategoryRepository categoryRepository;
+    private final long maxAgeMillis;
+
+    // Incrémentée à chaque invalidation : un snapshot d'une génération antérieure est périmé
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CategorySnapshot snapshot;
+    private volatile long builtAt;
+
+    public CategoryCatalog(CategoryRepository categoryRepository,
+                           @Value("${app.cache.categories.max-age:60s}") Duration maxAge) {
+        this.categoryRepository = categoryRepository;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    public CategorySnapshot current() {
+        CategorySnapshot current = snapshot;
+        if (current == null || current.getGeneration() != generation.get()
+                || System.currentTimeMillis() - builtAt > maxAgeMillis) {
+            return rebuild();
+        }
+        return current;
+    }
+
+    /**
+     * À appeler dans la transaction d'écriture, après save : pose le chemin de la catégorie
+     * d'après celui de son parent et, si elle a changé de parent, déplace tout son
+     * sous-arbre. Refuse de la placer sous l'un de ses propres descendants.
+     */
+    public void updatePath(Category category) {
+        String parentPath = "/";
+        if (category.getParent() != null) {
+            // Relu en base : le parent reçu peut n'être qu'une référence sans chemin
+            parentPath = categoryRepository.findPathById(category.getParent().getId())
+                    .orElseThrow(() -> new RuntimeException("Parent category not found"));
+        }
+        String oldPath = category.getPath();
+        String newPath = parentPath + category.getId() + "/";
+        if (oldPath != null && parentPath.startsWith(oldPath)) {
+            throw new RuntimeException("Circular hierarchy detected");
+        }
+
+        if (oldPath != null && !oldPath.equals(newPath)) {
+            categoryRepository.movePaths(oldPath, newPath);
+        }
+        category.setPath(newPath);
+        invalidate();
+    }
+
+    /**
+     * À appeler dans la transaction qui écrit une catégorie : le snapshot est reconstruit
+     * après son commit, pour ne jamais publier une écriture annulée.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Invalide de nouveau : une lecture pendant la transaction a pu reconstruire l'état d'avant
+                generation.incrementAndGet();
+                refresh();
+            }
+        });
+    }
+
+    // fallbackExecution : les écritures faites hors transaction sont prises en compte immédiatement
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Recalcule les chemins à partir des liens de parenté : remplit ceux des catégories
+     * créées avant leur introduction et corrige ceux qui auraient dérivé.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcilePaths() {
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> stored = new HashMap<>();
+        for (Object[] row : categoryRepository.findPathRows()) {
+            parents.put((Long) row[0], (Long) row[1]);
+            stored.put((Long) row[0], (String) row[2]);
+        }
+
+        Map<Long, String> computed = new HashMap<>();
+        int fixed = 0;
+        for (Long id : parents.keySet()) {
+            String path = computePath(id, parents, computed, parents.size());
+            if (path != null && !path.equals(stored.get(id))) {
+                categoryRepository.updatePath(id, path);
+                fixed++;
+            }
+        }
+        if (fixed > 0) {
+            log.info("Chemins de catégories recalculés : {} corrigés", fixed);
+            invalidate();
+        }
+    }
+
+    // null si la chaîne des parents boucle ou mène à une catégorie absente
+    private static String computePath(Long id, Map<Long, Long> parents, Map<Long, String> computed, int maxDepth) {
+        String known = computed.get(id);
+        if (known != null || maxDepth < 0 || !parents.containsKey(id)) {
+            return known;
+        }
+        Long parentId = parents.get(id);
+        String parentPath = parentId == null ? "/" : computePath(parentId, parents, computed, maxDepth - 1);
+        if (parentPath == null) {
+            return null;
+        }
+        String path = parentPath + id + "/";
+        computed.put(id, path);
+        return path;
+    }
+
+    private void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Le snapshot reste périmé : la prochaine lecture le reconstruira
+            log.warn("Échec de la reconstruction de l'arborescence des catégories", e);
+        }
+    }
+
+    private synchronized CategorySnapshot rebuild() {
+        long target = generation.get();
+        CategorySnapshot current = snapshot;
+        // Un autre thread vient de reconstruire pendant que celui-ci attendait le verrou
+        if (current != null && current.getGeneration() == target
+                && System.currentTimeMillis() - builtAt <= maxAgeMillis) {
+            return current;
+        }
+        List<Category> categories = categoryRepository.findAll();
+        CategorySnapshot rebuilt = new CategorySnapshot(categories, target);
+        builtAt = System.currentTimeMillis();
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+}
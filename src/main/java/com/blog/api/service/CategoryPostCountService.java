@@ -0,0 +1,35 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+/**
+ * Tient à jour Category.postCount quand un article entre dans une catégorie, en sort ou
+ * change de catégorie, par UPDATE relatifs. Les dérives éventuelles sont corrigées par
+ * CounterReconciliationService.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryPostCountService {
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * À appeler dans la transaction qui modifie l'article ; before et after sont les
+     * identifiants de sa catégorie avant et après (null pour une création, une suppression
+     * ou un article sans catégorie).
+     */
+    public void applyChange(Long before, Long after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            categoryRepository.adjustPostCount(-1, before);
+        }
+        if (after != null) {
+            categoryRepository.adjustPostCount(1, after);
+        }
+    }
+}
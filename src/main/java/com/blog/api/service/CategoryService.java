@@ -1,41 +1,50 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.ResourceVersion;
 import com.blog.api.dto.category.CategoryRequest;
 import com.blog.api.dto.category.CategoryResponse;
 import com.blog.api.entity.Category;
 import com.blog.api.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
+    private static final int TOP_LEVEL_LIMIT = 10;
+
     private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
 
     public List<CategoryResponse> getAllCategories() {
-        return categoryRepository.findByParentIsNull()
-                .stream()
-                .map(CategoryResponse::fromCategory)
-                .collect(Collectors.toList());
+        return categoryCatalog.current().getRoots().stream()
+                .map(CategoryService::toResponse)
+                .toList();
     }
 
     public List<CategoryResponse> getTopLevelCategories() {
-        return categoryRepository.findRootCategories(PageRequest.of(0, 10))
-                .stream()
-                .map(CategoryResponse::fromCategory)
-                .collect(Collectors.toList());
+        return categoryCatalog.current().getRoots().stream()
+                .limit(TOP_LEVEL_LIMIT)
+                .map(CategoryService::toResponse)
+                .toList();
     }
 
     public CategoryResponse getCategoryBySlug(String slug) {
-        Category category = categoryRepository.findBySlug(slug)
+        return categoryCatalog.current().findBySlug(slug)
+                .map(CategoryService::toResponse)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
-        return CategoryResponse.fromCategory(category);
+    }
+
+    /**
+     * Validateurs communs à toutes les lectures de catégories : chaque réponse embarque
+     * l'arborescence des enfants, donc toute modification de la table peut la changer.
+     */
+    public ResourceVersion getCategoriesVersion() {
+        return categoryCatalog.current().getVersion();
     }
 
     @Transactional
@@ -46,6 +55,7 @@ public class CategoryService {
         updateCategoryFromRequest(category, request);
 
         Category savedCategory = categoryRepository.save(category);
+        categoryCatalog.updatePath(savedCategory);
         return CategoryResponse.fromCategory(savedCategory);
     }
 
@@ -60,6 +70,7 @@ public class CategoryService {
         updateCategoryFromRequest(category, request);
 
         Category updatedCategory = categoryRepository.save(category);
+        categoryCatalog.updatePath(updatedCategory);
         return CategoryResponse.fromCategory(updatedCategory);
     }
 
@@ -73,6 +84,7 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        categoryCatalog.invalidate();
     }
 
     private void validateCategoryRequest(CategoryRequest request) {
@@ -119,4 +131,26 @@ public class CategoryService {
             category.setParent(null);
         }
     }
-} 
\ No newline at end of file
+
+    // Réponses neuves à chaque appel : les nœuds du snapshot sont partagés
+    private static CategoryResponse toResponse(CategorySnapshot.Node node) {
+        CategoryResponse response = new CategoryResponse();
+        response.setId(node.id());
+        response.setName(node.name());
+        response.setSlug(node.slug());
+        response.setDescription(node.description());
+        response.setIcon(node.icon());
+        response.setColor(node.color());
+        response.setDisplayOrder(node.displayOrder());
+        response.setPostCount(node.postCount());
+        response.setParentId(node.parentId());
+        response.setCreatedAt(node.createdAt());
+        response.setUpdatedAt(node.updatedAt());
+        if (!node.children().isEmpty()) {
+            response.setChildren(node.children().stream()
+                    .map(CategoryService::toResponse)
+                    .toList());
+        }
+        return response;
+    }
+}
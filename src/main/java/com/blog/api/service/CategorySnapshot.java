@@ -0,0 +1,95 @@
+package com.blog.api.service;
+
+import com.blog.api.dto.ResourceVersion;
+import com.blog.api.entity.Category;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Arborescence figée de toutes les catégories, assemblée en mémoire à partir d'une seule
+ * lecture de la table : chaque nœud référence directement ses enfants, triés par ordre
+ * d'affichage. Jamais modifiée après construction, elle est remplacée en bloc par
+ * CategoryCatalog.
+ */
+public final class CategorySnapshot {
+    private static final Comparator<Node> DISPLAY_ORDER = Comparator
+            .comparing(Node::displayOrder, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Node::id);
+
+    public record Node(Long id, String name, String slug, String description, String icon, String color,
+                       Integer displayOrder, Integer postCount, Long parentId, String path,
+                       LocalDateTime createdAt, LocalDateTime updatedAt, List<Node> children) {
+    }
+
+    private final List<Node> roots;
+    private final Map<Long, Node> byId;
+    private final Map<String, Node> bySlug;
+    private final ResourceVersion version;
+    private final long generation;
+
+    CategorySnapshot(List<Category> categories, long generation) {
+        Map<Long, List<Category>> childrenByParent = new HashMap<>();
+        List<Object[]> versionRows = new ArrayList<>(categories.size());
+        categories.stream()
+                .sorted(Comparator.comparing(Category::getId))
+                .forEach(category -> {
+                    // Identifiant lu sur le proxy : le parent n'est pas chargé
+                    Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+                    childrenByParent.computeIfAbsent(parentId, id -> new ArrayList<>()).add(category);
+                    versionRows.add(new Object[]{category.getId(), category.getUpdatedAt(), parentId, category.getPostCount()});
+                });
+
+        Map<Long, Node> byId = new HashMap<>();
+        Map<String, Node> bySlug = new HashMap<>();
+        this.roots = assemble(childrenByParent.getOrDefault(null, List.of()), childrenByParent, byId, bySlug);
+        this.byId = Collections.unmodifiableMap(byId);
+        this.bySlug = Collections.unmodifiableMap(bySlug);
+        // Une ligne (id, updatedAt, parent, nombre d'articles) par catégorie : toute réponse embarque des sous-arbres
+        this.version = ResourceVersion.fromRows(versionRows);
+        this.generation = generation;
+    }
+
+    private static List<Node> assemble(List<Category> categories, Map<Long, List<Category>> childrenByParent,
+                                       Map<Long, Node> byId, Map<String, Node> bySlug) {
+        List<Node> nodes = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+            Node node = new Node(category.getId(), category.getName(), category.getSlug(), category.getDescription(),
+                    category.getIcon(), category.getColor(), category.getDisplayOrder(), category.getPostCount(),
+                    parentId, category.getPath(), category.getCreatedAt(), category.getUpdatedAt(),
+                    assemble(childrenByParent.getOrDefault(category.getId(), List.of()), childrenByParent, byId, bySlug));
+            nodes.add(node);
+            byId.put(node.id(), node);
+            bySlug.put(node.slug(), node);
+        }
+        nodes.sort(DISPLAY_ORDER);
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public List<Node> getRoots() {
+        return roots;
+    }
+
+    public Optional<Node> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<Node> findBySlug(String slug) {
+        return Optional.ofNullable(bySlug.get(slug));
+    }
+
+    public ResourceVersion getVersion() {
+        return version;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+}
@@ -22,6 +22,7 @@ public class CommentModerationService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final CommentService commentService;
 
     public Page<Comment> getPendingComments(Pageable pageable) {
         return commentRepository.findByStatus(Comment.ModerationStatus.PENDING, pageable);
@@ -34,7 +35,9 @@ public class CommentModerationService {
     @Transactional
     public Comment approveComment(Long commentId, String moderatorUsername) {
         Comment comment = getCommentAndModerator(commentId, moderatorUsername);
+        boolean wasCounted = comment.isCounted();
         comment.moderate(comment.getModerator(), Comment.ModerationStatus.APPROVED, null);
+        commentService.updatePostCommentCount(comment, wasCounted);
         
         notificationService.createNotification(
             comment.getAuthor(),
@@ -50,7 +53,9 @@ public class CommentModerationService {
     @Transactional
     public Comment rejectComment(Long commentId, String moderatorUsername, String reason) {
         Comment comment = getCommentAndModerator(commentId, moderatorUsername);
+        boolean wasCounted = comment.isCounted();
         comment.moderate(comment.getModerator(), Comment.ModerationStatus.REJECTED, reason);
+        commentService.updatePostCommentCount(comment, wasCounted);
         
         notificationService.createNotification(
             comment.getAuthor(),
@@ -67,7 +72,9 @@ public class CommentModerationService {
     @Transactional
     public Comment markAsSpam(Long commentId, String moderatorUsername) {
         Comment comment = getCommentAndModerator(commentId, moderatorUsername);
+        boolean wasCounted = comment.isCounted();
         comment.moderate(comment.getModerator(), Comment.ModerationStatus.SPAM, "Spam détecté");
+        commentService.updatePostCommentCount(comment, wasCounted);
         
         // Vous pouvez ajouter ici une logique pour bloquer l'utilisateur si nécessaire
         return commentRepository.save(comment);
@@ -28,6 +28,7 @@ public class CommentService {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final GlobalStatisticsService globalStatisticsService;
+    private final PostCacheService postCacheService;
 
     public Page<CommentResponse> getCommentsByPost(Long postId, Pageable pageable) {
         Post post = postRepository.findById(postId)
@@ -66,6 +67,10 @@ public class CommentService {
 
         Comment savedComment = commentRepository.save(comment);
         globalStatisticsService.incrementComments();
+        if (savedComment.isCounted()) {
+            postRepository.adjustCommentCount(postId, 1);
+        }
+        postCacheService.invalidate(postId);
 
         // Notifier l'auteur du post
         if (!post.getAuthor().equals(author)) {
@@ -124,8 +129,34 @@ public class CommentService {
             throw new AccessDeniedException("You are not authorized to delete this comment");
         }
 
+        removeComment(comment);
+    }
+
+    /**
+     * Suppression sans contrôle d'autorisation, partagée avec l'administration.
+     */
+    @Transactional
+    public void removeComment(Comment comment) {
         commentRepository.delete(comment);
         globalStatisticsService.decrementComments();
+        if (comment.isCounted()) {
+            postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        }
+        postCacheService.invalidate(comment.getPost().getId());
+    }
+
+    /**
+     * Répercute un changement de statut de modération sur Post.commentCount,
+     * uniquement si le commentaire entre ou sort du décompte.
+     */
+    @Transactional
+    public void updatePostCommentCount(Comment comment, boolean wasCounted) {
+        if (wasCounted == comment.isCounted()) {
+            return;
+        }
+        Long postId = comment.getPost().getId();
+        postRepository.adjustCommentCount(postId, comment.isCounted() ? 1 : -1);
+        postCacheService.invalidate(postId);
     }
 
     @Transactional
@@ -0,0 +1,75 @@
+package com.blog.api.service;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch : estimation en mémoire fixe de la fréquence de clés arbitraires.
+ * Chaque clé incrémente une case par ligne ; l'estimation est le minimum de ses cases, qui
+ * ne sous-estime jamais et surestime d'au plus e / largeur du total avec une probabilité
+ * 1 - e^-profondeur. Les incréments sont conservatifs (seules les cases au minimum
+ * montent), ce qui réduit la surestimation sans changer ces garanties.
+ * Non synchronisé : le propriétaire sérialise les accès.
+ */
+final class CountMinSketch {
+    private final int width;
+    private final long[][] counts;
+    private final long[] seeds;
+
+    CountMinSketch(int depth, int width) {
+        this.width = width;
+        this.counts = new long[depth][width];
+        this.seeds = new long[depth];
+        long state = 0x9e3779b97f4a7c15L;
+        for (int row = 0; row < depth; row++) {
+            state += 0x9e3779b97f4a7c15L;
+            seeds[row] = mix(state);
+        }
+    }
+
+    /**
+     * Ajoute weight à la clé et retourne sa nouvelle estimation.
+     */
+    long add(String key, long weight) {
+        int[] cells = cells(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < cells.length; row++) {
+            estimate = Math.min(estimate, counts[row][cells[row]]);
+        }
+        long updated = estimate + weight;
+        for (int row = 0; row < cells.length; row++) {
+            counts[row][cells[row]] = Math.max(counts[row][cells[row]], updated);
+        }
+        return updated;
+    }
+
+    long estimate(String key) {
+        int[] cells = cells(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < cells.length; row++) {
+            estimate = Math.min(estimate, counts[row][cells[row]]);
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private int[] cells(String key) {
+        int[] cells = new int[counts.length];
+        long hash = key.hashCode();
+        for (int row = 0; row < counts.length; row++) {
+            cells[row] = (int) Math.floorMod(mix(hash ^ seeds[row]), (long) width);
+        }
+        return cells;
+    }
+
+    // Finaliseur de SplitMix64 : une fonction de hachage indépendante par graine
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,141 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.CategoryRepository;
+import com.blog.api.repository.PostRepository;
+import com.blog.api.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Recalcule périodiquement les compteurs dénormalisés des articles, des tags et des
+ * catégories à partir des tables sources, par tranches d'identifiants pour ne jamais
+ * verrouiller toute la table.
+ * Seules les lignes dont le compteur a dérivé sont réécrites. La passe planifiée ne tourne
+ * que sur un nœud par intervalle (bail JobLeaseService).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CounterReconciliationService {
+    static final int CHUNK_SIZE = 1000;
+    static final String RECONCILIATION_JOB = "counter-reconciliation";
+    // Durée au-delà de laquelle le nœud qui réconcilie est présumé mort
+    static final Duration LOCK_AT_MOST = Duration.ofMinutes(30);
+
+    private final PostRepository postRepository;
+    private final PostCacheService postCacheService;
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.counters.reconcile-interval:3600000}")
+    private long reconcileIntervalMillis;
+
+    @Scheduled(fixedDelayString = "${app.counters.reconcile-interval:3600000}",
+               initialDelayString = "${app.counters.reconcile-initial-delay:60000}")
+    public void reconcile() {
+        jobLeaseService.runExclusively(RECONCILIATION_JOB, LOCK_AT_MOST, Duration.ofMillis(reconcileIntervalMillis),
+                this::reconcileAll);
+    }
+
+    private void reconcileAll() {
+        int comments = reconcileCommentCounts();
+        int reactions = reconcileReactionCounts();
+        int tags = reconcileTagUsageCounts();
+        int categories = reconcileCategoryPostCounts();
+        if (comments > 0 || reactions > 0 || tags > 0 || categories > 0) {
+            // Une dérive signale une écriture qui a contourné les UPDATE relatifs
+            log.warn("Réconciliation des compteurs : {} compteurs de commentaires, {} compteurs de réactions, {} compteurs de tags et {} compteurs de catégories corrigés",
+                    comments, reactions, tags, categories);
+        }
+    }
+
+    public int reconcileCommentCounts() {
+        return reconcile(postRepository::findMaxId, postRepository::findCommentCountDrift,
+                postRepository::recountComments, postCacheService::invalidate);
+    }
+
+    public int reconcileReactionCounts() {
+        return reconcile(postRepository::findMaxId, postRepository::findReactionCountDrift,
+                postRepository::recountReactions, postCacheService::invalidate);
+    }
+
+    public int reconcileTagUsageCounts() {
+        return reconcile(tagRepository::findMaxId, tagRepository::findUsageCountDrift,
+                tagRepository::recountUsage, tagId -> { });
+    }
+
+    public int reconcileCategoryPostCounts() {
+        int fixed = reconcile(categoryRepository::findMaxId, categoryRepository::findPostCountDrift,
+                categoryRepository::recountPosts, categoryId -> { });
+        if (fixed > 0) {
+            // Une seule reconstruction de l'arborescence pour toutes les catégories corrigées
+            categoryCatalog.invalidate();
+        }
+        return fixed;
+    }
+
+    /**
+     * Calcule au démarrage les compteurs de catégories encore NULL (lignes antérieures à la
+     * colonne post_count), sans attendre la première réconciliation planifiée. Sans bail :
+     * le recomptage est idempotent et ne touche aucune ligne une fois la colonne remplie.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCategoryPostCounts() {
+        int initialized = reconcile(categoryRepository::findMaxId, categoryRepository::findUninitializedPostCounts,
+                categoryRepository::recountPosts, categoryId -> { });
+        if (initialized > 0) {
+            log.info("Compteurs d'articles initialisés pour {} catégories", initialized);
+            categoryCatalog.invalidate();
+        }
+    }
+
+    /**
+     * Compteurs de commentaires et de réactions des articles de la tranche ]afterId, upToId] ;
+     * retourne le nombre de compteurs corrigés.
+     */
+    public int reconcileRange(long afterId, long upToId) {
+        return reconcileChunk(postRepository::findCommentCountDrift, postRepository::recountComments,
+                postCacheService::invalidate, afterId, upToId)
+                + reconcileChunk(postRepository::findReactionCountDrift, postRepository::recountReactions,
+                postCacheService::invalidate, afterId, upToId);
+    }
+
+    private int reconcile(Supplier<Long> findMaxId, BiFunction<Long, Long, List<Long>> findDrift,
+            Function<List<Long>, Integer> recount, Consumer<Long> invalidate) {
+        Long maxId = findMaxId.get();
+        if (maxId == null) {
+            return 0;
+        }
+
+        int fixed = 0;
+        for (long afterId = 0; afterId < maxId; afterId += CHUNK_SIZE) {
+            fixed += reconcileChunk(findDrift, recount, invalidate, afterId, afterId + CHUNK_SIZE);
+        }
+        return fixed;
+    }
+
+    private int reconcileChunk(BiFunction<Long, Long, List<Long>> findDrift, Function<List<Long>, Integer> recount,
+            Consumer<Long> invalidate, long afterId, long upToId) {
+        List<Long> drifted = findDrift.apply(afterId, upToId);
+        if (drifted.isEmpty()) {
+            return 0;
+        }
+        recount.apply(drifted);
+        drifted.forEach(invalidate);
+        return drifted.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Métadonnées d'un article conservées dans l'index pour filtrer et trier les résultats
+ * sans retourner en base. Les tags sont stockés sous leur forme normalisée.
+ */
+record IndexedPost(Long id, Long themeId, Long authorId, Post.Status status,
+                   LocalDateTime publishedAt, LocalDateTime createdAt, Set<String> tags) {
+}
@@ -0,0 +1,445 @@
+package com.blog.api.service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire : pour chaque terme, les articles qui le contiennent avec une
+ * fréquence pondérée par champ et les positions du terme (pour les expressions).
+ * Le classement suit BM25 ; les écritures sont rares et prennent un verrou exclusif,
+ * les recherches se partagent le verrou en lecture.
+ * Chaque article reçoit aussi un ordinal, et chaque valeur de facette (thème, auteur, tag,
+ * mois, statut) le bitmap des ordinaux qui la portent : filtres et comptages par facette
+ * deviennent des intersections de bitmaps.
+ * Les termes des titres et des tags alimentent enfin un vocabulaire par trigrammes, qui sert
+ * à la recherche approchée et aux suggestions de correction.
+ */
+final class InvertedIndex {
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    // Écart de positions entre deux champs : une expression ne peut pas commencer dans le titre et finir dans le contenu
+    private static final int FIELD_GAP = 100;
+    // Variantes approchées retenues par terme de la requête, et poids d'une variante par modification
+    static final int MAX_EXPANSIONS = 5;
+    static final double FUZZY_BOOST = 0.5;
+
+    enum Field {
+        TITLE(3.0f),
+        TAGS(2.0f),
+        EXCERPT(1.0f),
+        CONTENT(1.0f);
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    enum Facet {
+        THEME,
+        AUTHOR,
+        TAG,
+        MONTH,
+        STATUS;
+
+        private Collection<?> valuesOf(IndexedPost post) {
+            return switch (this) {
+                case THEME -> single(post.themeId());
+                case AUTHOR -> single(post.authorId());
+                case TAG -> post.tags();
+                case MONTH -> single(post.createdAt() != null ? YearMonth.from(post.createdAt()) : null);
+                case STATUS -> single(post.status());
+            };
+        }
+
+        private static Collection<?> single(Object value) {
+            return value != null ? List.of(value) : List.of();
+        }
+    }
+
+    /**
+     * corrections : pour chaque terme de la requête absent de l'index, le terme connu le plus proche.
+     */
+    record Result(List<SearchHit> hits, Map<Facet, Map<Object, Integer>> facetCounts, Map<String, String> corrections) {
+    }
+
+    record Posting(float frequency, int[] positions) {
+    }
+
+    /**
+     * Article analysé : tout ce qu'il faut pour l'indexer sans relire son texte
+     * (vocabulary : termes du titre et des tags).
+     */
+    record Document(IndexedPost post, float length, Map<String, Posting> postings, Set<String> vocabulary) {
+    }
+
+    private record Entry(IndexedPost post, int ordinal, float length, Set<String> terms, Set<String> vocabulary) {
+    }
+
+    // Un terme de la requête tel qu'il est cherché : lui-même ou une variante approchée, de poids moindre
+    private record Variant(Map<Long, Posting> postings, double idf, double boost) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Facet, Map<Object, PostBitmap>> facets = new EnumMap<>(Facet.class);
+    private final TrigramIndex vocabulary = new TrigramIndex();
+    private double totalLength;
+    private int nextOrdinal;
+
+    InvertedIndex() {
+        for (Facet facet : Facet.values()) {
+            facets.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Indexe l'article, en remplaçant sa version précédente s'il était déjà présent.
+     */
+    void add(IndexedPost post, String title, String excerpt, String content) {
+        add(analyze(post, title, excerpt, content));
+    }
+
+    static Document analyze(IndexedPost post, String title, String excerpt, String content) {
+        String[] texts = {title, String.join(" ", post.tags()), excerpt, content};
+        Map<String, Float> frequencies = new HashMap<>();
+        Map<String, List<Integer>> positions = new HashMap<>();
+        Set<String> vocabularyTerms = new HashSet<>();
+        float length = 0;
+        int offset = 0;
+
+        for (Field field : Field.values()) {
+            List<TextAnalyzer.Token> tokens = TextAnalyzer.analyze(texts[field.ordinal()]);
+            for (TextAnalyzer.Token token : tokens) {
+                frequencies.merge(token.term(), field.weight, Float::sum);
+                positions.computeIfAbsent(token.term(), term -> new ArrayList<>()).add(offset + token.position());
+                if (field == Field.TITLE || field == Field.TAGS) {
+                    vocabularyTerms.add(token.term());
+                }
+            }
+            length += field.weight * tokens.size();
+            if (!tokens.isEmpty()) {
+                offset += tokens.get(tokens.size() - 1).position() + 1 + FIELD_GAP;
+            }
+        }
+
+        Map<String, Posting> documentPostings = new HashMap<>();
+        positions.forEach((term, termPositions) -> documentPostings.put(term, new Posting(frequencies.get(term),
+                termPositions.stream().mapToInt(Integer::intValue).toArray())));
+        return new Document(post, length, documentPostings, vocabularyTerms);
+    }
+
+    void add(Document document) {
+        IndexedPost post = document.post();
+        lock.writeLock().lock();
+        try {
+            Entry previous = removeLocked(post.id());
+            int ordinal = previous != null ? previous.ordinal() : nextOrdinal++;
+            document.postings().forEach((term, posting) -> postings
+                    .computeIfAbsent(term, t -> new HashMap<>())
+                    .put(post.id(), posting));
+            entries.put(post.id(), new Entry(post, ordinal, document.length(), document.postings().keySet(),
+                    document.vocabulary()));
+            totalLength += document.length();
+            document.vocabulary().forEach(vocabulary::add);
+            facets.forEach((facet, bitmaps) -> facet.valuesOf(post)
+                    .forEach(value -> bitmaps.computeIfAbsent(value, v -> new PostBitmap()).add(ordinal)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Set<Long> ids() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(entries.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Instantané des articles indexés, dans la forme attendue par add(Document).
+     */
+    List<Document> documents() {
+        lock.readLock().lock();
+        try {
+            List<Document> documents = new ArrayList<>(entries.size());
+            entries.forEach((postId, entry) -> {
+                Map<String, Posting> documentPostings = new HashMap<>();
+                entry.terms().forEach(term -> documentPostings.put(term, postings.get(term).get(postId)));
+                documents.add(new Document(entry.post(), entry.length(), documentPostings, entry.vocabulary()));
+            });
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Articles contenant tous les termes et toutes les expressions de la requête, du plus
+     * pertinent au moins pertinent, avec sur demande le nombre de résultats par valeur de facette.
+     * En mode approché, chaque terme est aussi satisfait par les termes des titres et tags à
+     * une ou deux fautes près, avec un score réduit ; les expressions restent exactes.
+     */
+    Result search(SearchQuery query, SearchFilter filter, boolean withFacets, boolean fuzzy) {
+        if (query.isEmpty()) {
+            return new Result(List.of(), Map.of(), Map.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, String> corrections = corrections(query);
+            Result empty = new Result(List.of(), Map.of(), corrections);
+            int documentCount = entries.size();
+            List<List<Variant>> slots = new ArrayList<>();
+            for (String term : query.terms()) {
+                List<Variant> variants = variants(term, fuzzy, documentCount);
+                if (variants.isEmpty()) {
+                    return empty;
+                }
+                slots.add(variants);
+            }
+
+            PostBitmap allowed = allowed(filter);
+            if (allowed != null && allowed.isEmpty()) {
+                return empty;
+            }
+
+            // On parcourt les articles du terme le plus rare et on vérifie la présence des autres
+            List<Variant> rarest = slots.stream()
+                    .min(Comparator.comparingInt(InvertedIndex::postingCount))
+                    .orElseThrow();
+            Set<Long> candidates = rarest.size() == 1 ? rarest.get(0).postings().keySet() : new HashSet<>();
+            if (rarest.size() > 1) {
+                rarest.forEach(variant -> candidates.addAll(variant.postings().keySet()));
+            }
+
+            double averageLength = totalLength / documentCount;
+            List<SearchHit> hits = new ArrayList<>();
+            int[] ordinals = new int[candidates.size()];
+            for (Long postId : candidates) {
+                Entry entry = entries.get(postId);
+                if ((allowed != null && !allowed.contains(entry.ordinal())) || !filter.matchesDates(entry.post())
+                        || !containsPhrases(query.phrases(), postId)) {
+                    continue;
+                }
+
+                double score = score(slots, postId, 1 - B + B * entry.length() / averageLength);
+                if (score >= 0) {
+                    ordinals[hits.size()] = entry.ordinal();
+                    hits.add(new SearchHit(postId, score, entry.post().createdAt()));
+                }
+            }
+
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparing(SearchHit::postId, Comparator.reverseOrder()));
+            return new Result(hits, withFacets ? countFacets(ordinals, hits.size()) : Map.of(), corrections);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Variant> variants(String term, boolean fuzzy, int documentCount) {
+        List<Variant> variants = new ArrayList<>();
+        Map<Long, Posting> exact = postings.get(term);
+        if (exact != null) {
+            variants.add(variant(exact, 1.0, documentCount));
+        }
+        if (fuzzy) {
+            for (TrigramIndex.Correction correction : vocabulary.corrections(
+                    term, TrigramIndex.maxDistance(term), MAX_EXPANSIONS)) {
+                // Le vocabulaire ne contient que des termes indexés
+                variants.add(variant(postings.get(correction.term()), Math.pow(FUZZY_BOOST, correction.distance()),
+                        documentCount));
+            }
+        }
+        return variants;
+    }
+
+    private static Variant variant(Map<Long, Posting> termPosting, double boost, int documentCount) {
+        int df = termPosting.size();
+        return new Variant(termPosting, Math.log(1 + (documentCount - df + 0.5) / (df + 0.5)), boost);
+    }
+
+    private static int postingCount(List<Variant> variants) {
+        return variants.stream().mapToInt(variant -> variant.postings().size()).sum();
+    }
+
+    /**
+     * Somme BM25 sur les termes de la requête, chacun compté pour sa meilleure variante présente
+     * dans l'article ; -1 si l'un d'eux n'y figure sous aucune forme.
+     */
+    private static double score(List<List<Variant>> slots, Long postId, double lengthNorm) {
+        double score = 0;
+        for (List<Variant> variants : slots) {
+            double best = -1;
+            for (Variant variant : variants) {
+                Posting posting = variant.postings().get(postId);
+                if (posting != null) {
+                    float frequency = posting.frequency();
+                    best = Math.max(best, variant.boost() * variant.idf() * frequency * (K1 + 1)
+                            / (frequency + K1 * lengthNorm));
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    // Terme inconnu de l'index -> terme connu le plus proche, dans l'ordre de la requête
+    private Map<String, String> corrections(SearchQuery query) {
+        Map<String, String> corrections = new LinkedHashMap<>();
+        for (String term : query.terms()) {
+            if (!postings.containsKey(term)) {
+                vocabulary.corrections(term, TrigramIndex.maxDistance(term), 1)
+                        .forEach(correction -> corrections.put(term, correction.term()));
+            }
+        }
+        return corrections;
+    }
+
+    /**
+     * Intersection des bitmaps des critères discrets du filtre ; null si aucun n'est posé.
+     * Les dates restent vérifiées article par article.
+     */
+    private PostBitmap allowed(SearchFilter filter) {
+        PostBitmap allowed = null;
+        allowed = restrict(allowed, Facet.THEME, filter.getThemeIds());
+        allowed = restrict(allowed, Facet.AUTHOR, filter.getAuthorId() != null ? List.of(filter.getAuthorId()) : null);
+        allowed = restrict(allowed, Facet.TAG, filter.getTags() != null
+                ? filter.getTags().stream().map(TextAnalyzer::fold).toList() : null);
+        allowed = restrict(allowed, Facet.STATUS, filter.getStatus() != null ? List.of(filter.getStatus()) : null);
+        return allowed;
+    }
+
+    private PostBitmap restrict(PostBitmap allowed, Facet facet, Collection<?> values) {
+        if (values == null) {
+            return allowed;
+        }
+        PostBitmap union = new PostBitmap();
+        for (Object value : values) {
+            PostBitmap bitmap = facets.get(facet).get(value);
+            if (bitmap != null) {
+                union = union.or(bitmap);
+            }
+        }
+        return allowed == null ? union : allowed.and(union);
+    }
+
+    private Map<Facet, Map<Object, Integer>> countFacets(int[] ordinals, int count) {
+        int[] sorted = Arrays.copyOf(ordinals, count);
+        Arrays.sort(sorted);
+        PostBitmap results = new PostBitmap();
+        for (int ordinal : sorted) {
+            results.add(ordinal);
+        }
+
+        Map<Facet, Map<Object, Integer>> counts = new EnumMap<>(Facet.class);
+        facets.forEach((facet, bitmaps) -> {
+            Map<Object, Integer> facetCounts = new HashMap<>();
+            bitmaps.forEach((value, bitmap) -> {
+                int matches = results.andCardinality(bitmap);
+                if (matches > 0) {
+                    facetCounts.put(value, matches);
+                }
+            });
+            counts.put(facet, facetCounts);
+        });
+        return counts;
+    }
+
+    private boolean containsPhrases(List<List<TextAnalyzer.Token>> phrases, Long postId) {
+        for (List<TextAnalyzer.Token> phrase : phrases) {
+            if (!containsPhrase(phrase, postId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean containsPhrase(List<TextAnalyzer.Token> phrase, Long postId) {
+        // En mode approché, l'article peut ne contenir qu'une variante d'un mot de l'expression
+        List<int[]> positions = new ArrayList<>();
+        for (TextAnalyzer.Token token : phrase) {
+            Map<Long, Posting> termPosting = postings.get(token.term());
+            Posting posting = termPosting != null ? termPosting.get(postId) : null;
+            if (posting == null) {
+                return false;
+            }
+            positions.add(posting.positions());
+        }
+
+        TextAnalyzer.Token first = phrase.get(0);
+        for (int start : positions.get(0)) {
+            boolean matched = true;
+            for (int i = 1; i < phrase.size() && matched; i++) {
+                TextAnalyzer.Token token = phrase.get(i);
+                matched = Arrays.binarySearch(positions.get(i), start + token.position() - first.position()) >= 0;
+            }
+            if (matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Entry removeLocked(Long postId) {
+        Entry previous = entries.remove(postId);
+        if (previous == null) {
+            return null;
+        }
+        totalLength -= previous.length();
+        previous.vocabulary().forEach(vocabulary::remove);
+        facets.forEach((facet, bitmaps) -> facet.valuesOf(previous.post()).forEach(value -> {
+            PostBitmap bitmap = bitmaps.get(value);
+            bitmap.remove(previous.ordinal());
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }));
+        for (String term : previous.terms()) {
+            Map<Long, Posting> termPosting = postings.get(term);
+            termPosting.remove(postId);
+            if (termPosting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,83 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Exclusion mutuelle des tâches planifiées entre les nœuds, par un bail en base (table
+ * job_leases, une ligne par tâche). Un nœud n'exécute la tâche que s'il obtient le bail :
+ * UPDATE conditionnel d'une ligne expirée, ou création de la ligne à la première exécution.
+ *
+ * Le bail est posé pour lockAtMostFor : si le nœud meurt en cours d'exécution, la tâche
+ * redevient disponible à son expiration. En fin d'exécution il est ramené à
+ * lockedAt + lockAtLeastFor, ce qui empêche un autre nœud de relancer la tâche dans le
+ * même intervalle. Les dates viennent de l'horloge de chaque nœud, qui doivent être
+ * synchronisées.
+ */
+@Slf4j
+@Service
+public class JobLeaseService {
+    private final JobLeaseRepository jobLeaseRepository;
+    private final String nodeId;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository,
+                           @Value("${app.node-id:}") String nodeId) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        // Par défaut pid@hôte, unique parmi les nœuds
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Exécute task si ce nœud obtient le bail de la tâche job ; retourne false sans
+     * l'exécuter si un autre nœud le détient.
+     */
+    public boolean runExclusively(String job, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task) {
+        // Précision de la colonne DATETIME : lockedAt doit se relire à l'identique pour la libération
+        LocalDateTime lockedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (!acquire(job, lockedAt, lockedAt.plus(lockAtMostFor))) {
+            log.debug("Tâche {} ignorée : bail détenu par un autre nœud", job);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(job, lockedAt, lockAtLeastFor);
+        }
+    }
+
+    private boolean acquire(String job, LocalDateTime now, LocalDateTime until) {
+        if (jobLeaseRepository.acquireExpired(job, nodeId, now, until) == 1) {
+            return true;
+        }
+        try {
+            return jobLeaseRepository.insertLease(job, nodeId, now, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // La ligne existe : bail détenu par un autre nœud, ou créé par lui à l'instant
+            return false;
+        }
+    }
+
+    private void release(String job, LocalDateTime lockedAt, Duration lockAtLeastFor) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = lockedAt.plus(lockAtLeastFor);
+        try {
+            jobLeaseRepository.release(job, nodeId, lockedAt, until.isAfter(now) ? until : now);
+        } catch (RuntimeException e) {
+            // Le bail expirera de lui-même à lockAtMostFor
+            log.warn("Échec de la libération du bail de la tâche {}", job, e);
+        }
+    }
+}
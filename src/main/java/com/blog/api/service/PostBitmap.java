@@ -0,0 +1,334 @@
+package com.blog.api.service;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble compressé d'ordinaux d'articles, sur le modèle des bitmaps Roaring : les ordinaux
+ * sont répartis par tranches de 65 536 (16 bits de poids fort), chaque tranche étant stockée
+ * en tableau trié tant qu'elle compte au plus 4 096 valeurs, en bitmap de 8 Ko au-delà.
+ * Non synchronisé : l'index qui le possède sérialise les écritures.
+ */
+final class PostBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+
+    private Container[] containers = new Container[0];
+
+    void add(int ordinal) {
+        int key = ordinal >>> 16;
+        if (key >= containers.length) {
+            containers = Arrays.copyOf(containers, key + 1);
+        }
+        Container container = containers[key] != null ? containers[key] : new ArrayContainer();
+        containers[key] = container.add((char) ordinal);
+    }
+
+    void remove(int ordinal) {
+        int key = ordinal >>> 16;
+        if (key < containers.length && containers[key] != null) {
+            Container container = containers[key].remove((char) ordinal);
+            containers[key] = container.cardinality() > 0 ? container : null;
+        }
+    }
+
+    boolean contains(int ordinal) {
+        int key = ordinal >>> 16;
+        return key < containers.length && containers[key] != null && containers[key].contains((char) ordinal);
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (Container container : containers) {
+            if (container != null) {
+                cardinality += container.cardinality();
+            }
+        }
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality() == 0;
+    }
+
+    /**
+     * Taille de l'intersection, sans la construire.
+     */
+    int andCardinality(PostBitmap other) {
+        int cardinality = 0;
+        for (int key = 0; key < Math.min(containers.length, other.containers.length); key++) {
+            if (containers[key] != null && other.containers[key] != null) {
+                cardinality += containers[key].andCardinality(other.containers[key]);
+            }
+        }
+        return cardinality;
+    }
+
+    PostBitmap and(PostBitmap other) {
+        PostBitmap result = new PostBitmap();
+        result.containers = new Container[Math.min(containers.length, other.containers.length)];
+        for (int key = 0; key < result.containers.length; key++) {
+            if (containers[key] != null && other.containers[key] != null) {
+                Container container = containers[key].and(other.containers[key]);
+                result.containers[key] = container.cardinality() > 0 ? container : null;
+            }
+        }
+        return result;
+    }
+
+    PostBitmap or(PostBitmap other) {
+        PostBitmap result = new PostBitmap();
+        result.containers = new Container[Math.max(containers.length, other.containers.length)];
+        for (int key = 0; key < result.containers.length; key++) {
+            Container left = key < containers.length ? containers[key] : null;
+            Container right = key < other.containers.length ? other.containers[key] : null;
+            if (left != null && right != null) {
+                result.containers[key] = left.or(right);
+            } else if (left != null || right != null) {
+                result.containers[key] = (left != null ? left : right).copy();
+            }
+        }
+        return result;
+    }
+
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract BitmapContainer toBitmap();
+
+        int andCardinality(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.countIn(other);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.countIn(this);
+            }
+            return ((BitmapContainer) this).andCardinality((BitmapContainer) other);
+        }
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) {
+                return array.filter(other);
+            }
+            if (other instanceof ArrayContainer array) {
+                return array.filter(this);
+            }
+            return ((BitmapContainer) this).and((BitmapContainer) other);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer left && other instanceof ArrayContainer right
+                    && left.size + right.size <= ARRAY_LIMIT) {
+                return left.merge(right);
+            }
+            BitmapContainer result = toBitmap();
+            if (result == this) {
+                result = (BitmapContainer) copy();
+            }
+            return result.addAll(other);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        Container add(char value) {
+            // Ajout en fin de tableau sans recherche quand les ordinaux arrivent dans l'ordre
+            int index = size > 0 && values[size - 1] < value ? -(size + 1) : Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_LIMIT));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.values = Arrays.copyOf(values, Math.max(size, 4));
+            copy.size = size;
+            return copy;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+        int countIn(Container other) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        ArrayContainer filter(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size, 4)];
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    result.values[result.size++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        ArrayContainer merge(ArrayContainer other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size + other.size, 4)];
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                char next;
+                if (j == other.size || (i < size && values[i] < other.values[j])) {
+                    next = values[i++];
+                } else if (i == size || other.values[j] < values[i]) {
+                    next = other.values[j++];
+                } else {
+                    next = values[i++];
+                    j++;
+                }
+                result.values[result.size++] = next;
+            }
+            return result;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        BitmapContainer add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_LIMIT / 2 ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        int andCardinality(BitmapContainer other) {
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                count += Long.bitCount(words[i] & other.words[i]);
+            }
+            return count;
+        }
+
+        Container and(BitmapContainer other) {
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & other.words[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= ARRAY_LIMIT ? result.toArray() : result;
+        }
+
+        BitmapContainer addAll(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                cardinality = 0;
+                for (int i = 0; i < words.length; i++) {
+                    words[i] |= bitmap.words[i];
+                    cardinality += Long.bitCount(words[i]);
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.size; i++) {
+                    add(array.values[i]);
+                }
+            }
+            return this;
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[Math.max(cardinality, 4)];
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array.values[array.size++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
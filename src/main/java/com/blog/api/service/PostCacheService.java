@@ -0,0 +1,130 @@
+package com.blog.api.service;
+
+import com.blog.api.dto.post.PostResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache borné (en poids, éviction W-TinyLFU de Caffeine) des PostResponse assemblés.
+ *
+ * Les entrées sont indexées par (id, version) : invalider un article incrémente sa version,
+ * si bien qu'un chargement concurrent commencé avant l'invalidation ne peut plus être servi.
+ * Le nombre de vues n'est pas figé dans l'entrée, il est recalculé à partir du compteur
+ * en mémoire de ViewCounterService à chaque lecture.
+ */
+@Service
+public class PostCacheService {
+    // Coût fixe estimé d'une entrée (objets, auteur, thème, dates) en octets
+    private static final int ENTRY_OVERHEAD = 1024;
+
+    private final ViewCounterService viewCounterService;
+    private final Cache<CacheKey, CachedPost> cache;
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public PostCacheService(
+            ViewCounterService viewCounterService,
+            @Value("${app.cache.posts.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${app.cache.posts.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.viewCounterService = viewCounterService;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((CacheKey key, CachedPost value) -> value.weight())
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public PostResponse get(Long postId, Function<Long, PostResponse> loader) {
+        CacheKey key = new CacheKey(postId, currentVersion(postId));
+        CachedPost cached = cache.get(key, k -> {
+            long recordedViews = viewCounterService.getRecordedViews(postId);
+            return new CachedPost(loader.apply(postId), recordedViews);
+        });
+
+        // Copie : l'entrée partagée n'est jamais modifiée par l'appelant
+        PostResponse response = new PostResponse();
+        BeanUtils.copyProperties(cached.response(), response);
+        // Total expiré et reparti de zéro entre-temps : les vues récentes sont ignorées plutôt que retranchées
+        long viewsSinceLoad = Math.max(0, viewCounterService.getRecordedViews(postId) - cached.recordedViews());
+        response.setViewCount(cached.response().getViewCount() + viewsSinceLoad);
+        return response;
+    }
+
+    /**
+     * Invalide l'article immédiatement puis de nouveau après le commit de la transaction
+     * en cours, pour qu'une lecture concurrente de l'état non commité ne reste pas en cache.
+     */
+    public void invalidate(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        bumpVersion(postId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersion(postId);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("estimatedSize", cache.estimatedSize());
+        result.put("weightedSizeBytes", cache.policy().eviction()
+                .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+                .orElse(0L));
+        return result;
+    }
+
+    private long currentVersion(Long postId) {
+        AtomicLong version = versions.get(postId);
+        return version != null ? version.get() : 0;
+    }
+
+    private void bumpVersion(Long postId) {
+        long previous = versions.computeIfAbsent(postId, id -> new AtomicLong()).getAndIncrement();
+        cache.invalidate(new CacheKey(postId, previous));
+    }
+
+    private record CacheKey(Long postId, long version) {
+    }
+
+    private record CachedPost(PostResponse response, long recordedViews) {
+        int weight() {
+            long chars = length(response.getContent()) + length(response.getExcerpt())
+                    + length(response.getTitle()) + length(response.getMetaDescription());
+            if (response.getGalleryImages() != null) {
+                chars += response.getGalleryImages().stream().mapToLong(CachedPost::length).sum();
+            }
+            if (response.getTags() != null) {
+                chars += response.getTags().stream().mapToLong(CachedPost::length).sum();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + chars * 2);
+        }
+
+        private static long length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+}
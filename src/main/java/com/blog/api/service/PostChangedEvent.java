@@ -0,0 +1,8 @@
+package com.blog.api.service;
+
+/**
+ * Publié à chaque création, modification ou suppression d'un article. Les écouteurs relisent
+ * l'article en base : l'événement ne transporte que l'identifiant.
+ */
+public record PostChangedEvent(Long postId) {
+}
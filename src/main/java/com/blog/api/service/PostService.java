@@ -1,95 +1,147 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.ResourceVersion;
+import com.blog.api.dto.post.CursorPage;
+import com.blog.api.dto.post.PostCardResponse;
 import com.blog.api.dto.post.PostCreateRequest;
+import com.blog.api.dto.post.PostCursor;
 import com.blog.api.dto.post.PostResponse;
 import com.blog.api.entity.Post;
 import com.blog.api.entity.Tag;
 import com.blog.api.entity.Theme;
 import com.blog.api.entity.User;
 import com.blog.api.repository.PostRepository;
-import com.blog.api.repository.ReactionRepository;
-import com.blog.api.repository.TagRepository;
 import com.blog.api.repository.ThemeRepository;
 import com.blog.api.repository.UserRepository;
 import com.blog.api.security.UserRole;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostService {
+    private static final int MAX_FEED_SIZE = 100;
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final ThemeRepository themeRepository;
-    private final ReactionRepository reactionRepository;
-    private final TagRepository tagRepository;
+    private final TagDictionary tagDictionary;
     private final GlobalStatisticsService globalStatisticsService;
+    private final ViewCounterService viewCounterService;
+    private final PostCacheService postCacheService;
+    private final SearchService searchService;
+    private final TrendingTagService trendingTagService;
+    private final TagUsageService tagUsageService;
+    private final CategoryPostCountService categoryPostCountService;
+    private final ThemeCatalog themeCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Page<PostCardResponse> getAllPosts(Pageable pageable) {
+        return postRepository.findCardsOrderByCreatedAtDesc(pageable);
+    }
 
-    public Page<PostResponse> getAllPosts(Pageable pageable) {
-        return postRepository.findAllOrderByCreatedAtDesc(pageable)
-                .map(post -> PostResponse.fromPost(
-                        post,
-                        reactionRepository.countLikesByPost(post),
-                        reactionRepository.countDislikesByPost(post)
-                ));
+    public Page<PostCardResponse> getPostsByTheme(Long themeId, Pageable pageable) {
+        if (themeCatalog.current().findById(themeId).isEmpty()) {
+            throw new RuntimeException("Theme not found");
+        }
+
+        // Existence vérifiée dans le snapshot : une référence suffit à la requête
+        return postRepository.findCardsByTheme(themeRepository.getReferenceById(themeId), pageable);
     }
 
-    public Page<PostResponse> getPostsByTheme(Long themeId, Pageable pageable) {
-        Theme theme = themeRepository.findById(themeId)
-                .orElseThrow(() -> new RuntimeException("Theme not found"));
+    public Page<PostCardResponse> getPostsByAuthor(String username, Pageable pageable) {
+        User author = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return postRepository.findCardsByAuthor(author, pageable);
+    }
+
+    public CursorPage<PostCardResponse> getPostFeed(String cursor, int size) {
+        PostCursor position = decodeCursor(cursor);
+        return toCursorPage(postRepository.findCardsAfterCursor(
+                position.getCreatedAt(), position.getId(), cursorPageable(size)), size);
+    }
+
+    public CursorPage<PostCardResponse> getPostFeedByTheme(Long themeId, String cursor, int size) {
+        if (themeCatalog.current().findById(themeId).isEmpty()) {
+            throw new RuntimeException("Theme not found");
+        }
 
-        return postRepository.findByTheme(theme, pageable)
-                .map(post -> PostResponse.fromPost(
-                        post,
-                        reactionRepository.countLikesByPost(post),
-                        reactionRepository.countDislikesByPost(post)
-                ));
+        PostCursor position = decodeCursor(cursor);
+        return toCursorPage(postRepository.findCardsByThemeAfterCursor(
+                themeId, position.getCreatedAt(), position.getId(), cursorPageable(size)), size);
     }
 
-    public Page<PostResponse> getPostsByAuthor(String username, Pageable pageable) {
+    public CursorPage<PostCardResponse> getPostFeedByAuthor(String username, String cursor, int size) {
         User author = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return postRepository.findByAuthor(author, pageable)
-                .map(post -> PostResponse.fromPost(
-                        post,
-                        reactionRepository.countLikesByPost(post),
-                        reactionRepository.countDislikesByPost(post)
-                ));
+        PostCursor position = decodeCursor(cursor);
+        return toCursorPage(postRepository.findCardsByAuthorAfterCursor(
+                author, position.getCreatedAt(), position.getId(), cursorPageable(size)), size);
     }
 
     public Page<PostResponse> searchPosts(String keyword, Pageable pageable) {
-        return postRepository.searchByKeyword(keyword, pageable)
-                .map(post -> PostResponse.fromPost(
-                        post,
-                        reactionRepository.countLikesByPost(post),
-                        reactionRepository.countDislikesByPost(post)
-                ));
+        return searchService.searchPosts(keyword, null, null, null, null, null, null, pageable);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public PostResponse getPostById(Long id) {
+        // Le nombre de vues de la réponse en cache est recalculé à partir du compteur en mémoire
+        PostResponse response = postCacheService.get(id, this::loadPostResponse);
+
+        // La vue est accumulée en mémoire puis écrite en lot par ViewCounterService
+        viewCounterService.recordView(id);
+        response.setViewCount(response.getViewCount() + 1);
+        return response;
+    }
+
+    /**
+     * Validateurs de l'article pour les GET conditionnels : la ligne de l'article, puis ses
+     * tags et sa galerie, dont la modification seule ne change pas updatedAt. Requêtes
+     * indexées par l'identifiant de l'article. Le nombre de vues n'y entre pas, d'où un
+     * ETag faible.
+     */
+    public ResourceVersion getPostVersion(Long id) {
+        List<Object[]> rows = postRepository.findVersionRowById(id);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Post not found");
+        }
+        List<Object[]> version = new ArrayList<>(rows);
+        version.addAll(postRepository.findVersionTagRowsById(id));
+        version.add(postRepository.findGalleryImagesById(id).toArray());
+        return ResourceVersion.fromRows(version);
+    }
+
+    // Vue servie par une réponse 304 : comptée sans charger l'article
+    public void recordView(Long id) {
+        viewCounterService.recordView(id);
+    }
+
+    private PostResponse loadPostResponse(Long id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        // Incrémenter le compteur de vues
-        post.setViewCount(post.getViewCount() + 1);
-        postRepository.save(post); // Sauvegarder la modification
-
-        return PostResponse.fromPost(
-                post,
-                reactionRepository.countLikesByPost(post),
-                reactionRepository.countDislikesByPost(post)
-        );
+        PostResponse response = PostResponse.fromPost(post);
+        response.setViewCount(response.getViewCount() + viewCounterService.getPendingViews(id));
+        return response;
     }
 
     @Transactional
@@ -112,9 +164,10 @@ public class PostService {
 
             Post savedPost = postRepository.save(post);
             globalStatisticsService.incrementPosts();
+            eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId()));
             log.info("Article créé avec succès, ID: {}", savedPost.getId());
             
-            return PostResponse.fromPost(savedPost, 0, 0);
+            return PostResponse.fromPost(savedPost);
         } catch (Exception e) {
             log.error("Erreur lors de la création de l'article", e);
             throw e;
@@ -140,13 +193,14 @@ public class PostService {
         post.setContent(request.getContent());
         post.setTheme(theme);
         post.setFeaturedImage(request.getFeaturedImage());
+        if (request.getTags() != null) {
+            replaceTags(post, request.getTags());
+        }
 
         Post updatedPost = postRepository.save(post);
-        return PostResponse.fromPost(
-                updatedPost,
-                reactionRepository.countLikesByPost(updatedPost),
-                reactionRepository.countDislikesByPost(updatedPost)
-        );
+        postCacheService.invalidate(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
+        return PostResponse.fromPost(updatedPost);
     }
 
     @Transactional
@@ -161,7 +215,11 @@ public class PostService {
             throw new AccessDeniedException("You are not authorized to delete this post");
         }
 
+        tagUsageService.applyChange(tagIds(post), List.of());
+        categoryPostCountService.applyChange(post.getCategory() != null ? post.getCategory().getId() : null, null);
         postRepository.delete(post);
+        postCacheService.invalidate(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id));
         globalStatisticsService.decrementPosts();
     }
 
@@ -186,22 +244,39 @@ public class PostService {
 
         // Mise à jour des tags
         if (request.getTags() != null) {
-            post.getTags().clear();
-            request.getTags().forEach(tagName -> {
-                Tag tag = tagRepository.findByName(tagName)
-                        .orElseGet(() -> {
-                            Tag newTag = new Tag();
-                            newTag.setName(tagName);
-                            return tagRepository.save(newTag);
-                        });
-                post.getTags().add(tag);
-            });
+            replaceTags(post, request.getTags());
         }
 
         // Calcul du temps de lecture
         post.setReadTime(calculateReadTime(post.getContent()));
     }
 
+    /**
+     * Remplace les tags de l'article : compteurs d'usage ajustés de la différence, et seuls
+     * les tags qui n'y étaient pas comptent comme attachés pour les tendances.
+     */
+    private void replaceTags(Post post, List<String> names) {
+        List<Long> previous = tagIds(post);
+        // Noms comparés sans casse, comme dans TagDictionary ; sert aussi à dédoublonner
+        Set<String> seen = post.getTags().stream()
+                .map(tag -> tag.getName().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(HashSet::new));
+        List<String> attached = names.stream()
+                .filter(name -> seen.add(name.toLowerCase(Locale.ROOT)))
+                .toList();
+
+        post.getTags().clear();
+        post.getTags().addAll(tagDictionary.resolve(names));
+        // Seule la table de jointure change : la ligne de l'article est réécrite pour que Last-Modified suive
+        post.setUpdatedAt(LocalDateTime.now());
+        tagUsageService.applyChange(previous, tagIds(post));
+        trendingTagService.recordAttachments(attached);
+    }
+
+    private static List<Long> tagIds(Post post) {
+        return post.getTags().stream().map(Tag::getId).toList();
+    }
+
     private Integer calculateReadTime(String content) {
         if (content == null || content.isEmpty()) {
             return 0;
@@ -213,13 +288,31 @@ public class PostService {
     }
 
     public List<PostResponse> getAllPostsAsList() {
-        return postRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .map(post -> PostResponse.fromPost(
-                        post,
-                        reactionRepository.countLikesByPost(post),
-                        reactionRepository.countDislikesByPost(post)
-                ))
+        List<Post> posts = postRepository.findAllByOrderByCreatedAtDesc();
+        return posts.stream()
+                .map(PostResponse::fromPost)
                 .toList();
     }
+
+    private PostCursor decodeCursor(String cursor) {
+        // Curseur vide : première page du fil
+        return cursor == null || cursor.isBlank() ? new PostCursor(null, null) : PostCursor.decode(cursor);
+    }
+
+    private Pageable cursorPageable(int size) {
+        // Un élément de plus pour savoir s'il existe une page suivante, sans COUNT
+        return PageRequest.of(0, clampFeedSize(size) + 1);
+    }
+
+    private CursorPage<PostCardResponse> toCursorPage(List<PostCardResponse> cards, int size) {
+        int pageSize = clampFeedSize(size);
+        boolean hasNext = cards.size() > pageSize;
+        List<PostCardResponse> content = hasNext ? cards.subList(0, pageSize) : cards;
+        String nextCursor = hasNext ? PostCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    private int clampFeedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_FEED_SIZE));
+    }
 } 
\ No newline at end of file
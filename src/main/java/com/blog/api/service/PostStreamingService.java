@@ -0,0 +1,63 @@
+package com.blog.api.service;
+
+import com.blog.api.dto.post.PostResponse;
+import com.blog.api.entity.Post;
+import com.blog.api.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Export de tous les articles en NDJSON (un PostResponse par ligne), écrit au fil de la
+ * lecture : la mémoire utilisée ne dépend que de la taille d'un lot, pas de l'archive.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostStreamingService {
+    static final int CHUNK_SIZE = 100;
+    private static final byte NEW_LINE = '\n';
+
+    private final PostRepository postRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void streamAllPosts(OutputStream out) throws IOException {
+        try (Stream<Post> posts = postRepository.streamAllByOrderByCreatedAtDesc()) {
+            List<Post> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<Post> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, out);
+                }
+            }
+            writeChunk(chunk, out);
+        }
+    }
+
+    private void writeChunk(List<Post> chunk, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        for (Post post : chunk) {
+            out.write(objectMapper.writeValueAsBytes(PostResponse.fromPost(post)));
+            out.write(NEW_LINE);
+        }
+        out.flush();
+
+        // Libère le lot du contexte de persistance pour garder une mémoire constante
+        chunk.clear();
+        entityManager.clear();
+    }
+}
@@ -13,6 +13,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class ReactionService {
@@ -20,6 +23,7 @@ public class ReactionService {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final GlobalStatisticsService globalStatisticsService;
+    private final PostCacheService postCacheService;
 
     @Transactional
     public ReactionResponse addReaction(Long postId, ReactionRequest request, String username) {
@@ -28,20 +32,31 @@ public class ReactionService {
         Post post = postRepository.findById(postId)
             .orElseThrow(() -> new RuntimeException("Article non trouvé"));
 
-        Reaction reaction = reactionRepository.findByUserAndPost(user, post)
-            .orElse(new Reaction());
-        
-        reaction.setType(request.getType());
+        Reaction.ReactionType type = request.getType();
+        Optional<Reaction> existing = reactionRepository.findByUserAndPost(user, post);
+        if (existing.isPresent()) {
+            Reaction reaction = existing.get();
+            if (reaction.getType() == type) {
+                // Réaction identique déjà enregistrée : aucun compteur à modifier
+                return mapToResponse(reaction);
+            }
+            Reaction.ReactionType previous = reaction.getType();
+            if (reactionRepository.switchType(reaction.getId(), previous, type, LocalDateTime.now()) == 1) {
+                applyDelta(postId, previous, -1);
+                applyDelta(postId, type, 1);
+            }
+            ReactionResponse response = mapToResponse(reaction);
+            response.setType(type);
+            return response;
+        }
+
+        Reaction reaction = new Reaction();
+        reaction.setType(type);
         reaction.setUser(user);
         reaction.setPost(post);
-        
+        // La contrainte unique (user_id, post_id) fait échouer une insertion concurrente en double
         reaction = reactionRepository.save(reaction);
-        if (request.getType() == Reaction.ReactionType.LIKE) {
-            globalStatisticsService.incrementLikes();
-        } else if (request.getType() == Reaction.ReactionType.DISLIKE) {
-            globalStatisticsService.incrementDislikes();
-        }
-        
+        applyDelta(postId, type, 1);
         return mapToResponse(reaction);
     }
 
@@ -51,24 +66,41 @@ public class ReactionService {
             .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
         Post post = postRepository.findById(postId)
             .orElseThrow(() -> new RuntimeException("Article non trouvé"));
-        java.util.Optional<Reaction> reactionOpt = reactionRepository.findByUserAndPost(user, post);
-        if (reactionOpt.isPresent()) {
-            Reaction reaction = reactionOpt.get();
-            if (reaction.getType() == Reaction.ReactionType.LIKE) {
+        reactionRepository.findByUserAndPost(user, post).ifPresent(reaction -> {
+            if (reactionRepository.removeById(reaction.getId()) == 1) {
+                applyDelta(postId, reaction.getType(), -1);
+            }
+        });
+    }
+
+    /**
+     * Applique un delta au compteur dénormalisé de l'article (UPDATE relatif)
+     * et aux statistiques globales correspondant au type de réaction.
+     */
+    private void applyDelta(Long postId, Reaction.ReactionType type, int delta) {
+        boolean like = type == Reaction.ReactionType.LIKE;
+        postRepository.adjustReactionCounts(postId, like ? delta : 0, like ? 0 : delta);
+        postCacheService.invalidate(postId);
+
+        if (like) {
+            if (delta > 0) {
+                globalStatisticsService.incrementLikes();
+            } else {
                 globalStatisticsService.decrementLikes();
-            } else if (reaction.getType() == Reaction.ReactionType.DISLIKE) {
-                globalStatisticsService.decrementDislikes();
             }
+        } else if (delta > 0) {
+            globalStatisticsService.incrementDislikes();
+        } else {
+            globalStatisticsService.decrementDislikes();
         }
-        reactionRepository.deleteByUserAndPost(user, post);
     }
 
     public ReactionStatsResponse getReactionStats(Long postId) {
         Post post = postRepository.findById(postId)
             .orElseThrow(() -> new RuntimeException("Article non trouvé"));
 
-        long likesCount = reactionRepository.countByPostAndType(post, Reaction.ReactionType.LIKE);
-        long dislikesCount = reactionRepository.countByPostAndType(post, Reaction.ReactionType.DISLIKE);
+        long likesCount = post.getLikeCount() != null ? post.getLikeCount() : 0;
+        long dislikesCount = post.getDislikeCount() != null ? post.getDislikeCount() : 0;
         double likeRatio = (likesCount + dislikesCount) > 0 
             ? (double) likesCount / (likesCount + dislikesCount) 
             : 0.0;
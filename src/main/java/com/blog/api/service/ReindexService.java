@@ -0,0 +1,238 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Réindexation complète déclenchée par un administrateur : index de recherche, articles
+ * similaires et compteurs dénormalisés. La table des articles est découpée en partitions
+ * d'identifiants traitées en parallèle sur un ForkJoinPool borné ; chaque partition est lue
+ * en flux dans sa propre transaction en lecture seule et ses articles sont analysés sur le
+ * thread qui les lit. Les nouveaux index ne remplacent les anciens qu'une fois toutes les
+ * partitions traitées : la recherche reste servie pendant toute la réindexation.
+ */
+@Slf4j
+@Service
+public class ReindexService {
+    static final int PARTITION_SIZE = 2000;
+    // Articles lus entre deux vidages du contexte de persistance
+    static final int CLEAR_INTERVAL = 200;
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    private final PostRepository postRepository;
+    private final SearchIndexService searchIndexService;
+    private final SimilarPostsService similarPostsService;
+    private final CounterReconciliationService counterReconciliationService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int parallelism;
+
+    private volatile Job current;
+
+    // features : caractéristiques de similarité des articles publiés des partitions fusionnées
+    private record PartitionResult(Map<Long, Set<Long>> features, int countersFixed) {
+        PartitionResult merge(PartitionResult other) {
+            Map<Long, Set<Long>> merged = new HashMap<>(features);
+            merged.putAll(other.features);
+            return new PartitionResult(merged, countersFixed + other.countersFixed);
+        }
+    }
+
+    private static final class Job {
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        final int partitions;
+        final AtomicInteger completedPartitions = new AtomicInteger();
+        final AtomicLong postsProcessed = new AtomicLong();
+        final AtomicInteger countersFixed = new AtomicInteger();
+        volatile State state = State.RUNNING;
+        volatile LocalDateTime finishedAt;
+        volatile long finishedNanos;
+        volatile String error;
+
+        Job(int partitions) {
+            this.partitions = partitions;
+        }
+
+        void finish(State state, String error) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            this.error = error;
+            this.state = state;
+        }
+    }
+
+    public ReindexService(PostRepository postRepository,
+                          SearchIndexService searchIndexService,
+                          SimilarPostsService similarPostsService,
+                          CounterReconciliationService counterReconciliationService,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.reindex.parallelism:4}") int parallelism) {
+        this.postRepository = postRepository;
+        this.searchIndexService = searchIndexService;
+        this.similarPostsService = similarPostsService;
+        this.counterReconciliationService = counterReconciliationService;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Lance une réindexation en arrière-plan et retourne son état ; si une réindexation est
+     * déjà en cours, retourne l'état de celle-ci sans en lancer une autre.
+     */
+    public synchronized Map<String, Object> start() {
+        Job running = current;
+        if (running != null && running.state == State.RUNNING) {
+            return status(running);
+        }
+
+        Long maxId = postRepository.findMaxId();
+        int partitions = maxId == null ? 0 : (int) ((maxId + PARTITION_SIZE - 1) / PARTITION_SIZE);
+        Job job = new Job(partitions);
+        current = job;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        pool.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                pool.shutdown();
+            }
+        });
+        return status(job);
+    }
+
+    /**
+     * État de la dernière réindexation lancée ; vide si aucune ne l'a été depuis le démarrage.
+     */
+    public Optional<Map<String, Object>> getStatus() {
+        return Optional.ofNullable(current).map(this::status);
+    }
+
+    // Exécuté sur un thread du pool : les partitions sont découpées dans ce même pool
+    private void run(Job job) {
+        LocalDateTime watermark = LocalDateTime.now();
+        InvertedIndex rebuilt = new InvertedIndex();
+        searchIndexService.beginRebuild();
+        similarPostsService.beginRebuild();
+        try {
+            PartitionResult result = new PartitionTask(job, rebuilt, 0, job.partitions).invoke();
+            searchIndexService.install(rebuilt, watermark);
+            similarPostsService.replaceAll(result.features());
+            job.finish(State.COMPLETED, null);
+            log.info("Réindexation terminée : {} articles, {} partitions, {} compteurs corrigés en {} ms",
+                    job.postsProcessed.get(), job.partitions, result.countersFixed(),
+                    Duration.ofNanos(job.finishedNanos - job.startNanos).toMillis());
+        } catch (RuntimeException e) {
+            // Les index en service restent en place
+            searchIndexService.abortRebuild();
+            similarPostsService.abortRebuild();
+            job.finish(State.FAILED, e.getMessage());
+            log.error("Échec de la réindexation", e);
+        }
+    }
+
+    private PartitionResult reindexPartition(Job job, InvertedIndex target, int partition) {
+        long afterId = (long) partition * PARTITION_SIZE;
+        long upToId = afterId + PARTITION_SIZE;
+
+        Map<Long, Set<Long>> features = readOnlyTransaction.execute(status -> {
+            Map<Long, Set<String>> tags = new HashMap<>();
+            postRepository.findTagNamesByPostIdRange(afterId, upToId)
+                    .forEach(row -> tags.computeIfAbsent((Long) row[0], id -> new HashSet<>())
+                            .add(TextAnalyzer.fold((String) row[1])));
+
+            try (Stream<Post> posts = postRepository.streamByIdRange(afterId, upToId)) {
+                Iterator<Post> iterator = posts.iterator();
+                int read = 0;
+                while (iterator.hasNext()) {
+                    Post post = iterator.next();
+                    // Analyse hors verrou ; seule l'insertion dans l'index est sérialisée
+                    target.add(SearchIndexService.analyze(post, tags.getOrDefault(post.getId(), Set.of())));
+                    job.postsProcessed.incrementAndGet();
+                    if (++read % CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return similarPostsService.loadFeatures(afterId, upToId);
+        });
+
+        // Hors de la transaction en lecture seule : les recomptages écrivent
+        int fixed = counterReconciliationService.reconcileRange(afterId, upToId);
+        job.countersFixed.addAndGet(fixed);
+        job.completedPartitions.incrementAndGet();
+        return new PartitionResult(features, fixed);
+    }
+
+    private Map<String, Object> status(Job job) {
+        long end = job.state == State.RUNNING ? System.nanoTime() : job.finishedNanos;
+        double seconds = (end - job.startNanos) / 1e9;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", job.state);
+        status.put("startedAt", job.startedAt);
+        status.put("finishedAt", job.finishedAt);
+        status.put("partitions", job.partitions);
+        status.put("completedPartitions", job.completedPartitions.get());
+        status.put("postsProcessed", job.postsProcessed.get());
+        status.put("postsPerSecond", seconds > 0 ? Math.round(job.postsProcessed.get() / seconds) : 0);
+        status.put("countersFixed", job.countersFixed.get());
+        status.put("error", job.error);
+        return status;
+    }
+
+    // Partitions [from, to[ : coupées en deux jusqu'à n'en contenir qu'une
+    private final class PartitionTask extends RecursiveTask<PartitionResult> {
+        private final Job job;
+        private final InvertedIndex target;
+        private final int from;
+        private final int to;
+
+        PartitionTask(Job job, InvertedIndex target, int from, int to) {
+            this.job = job;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PartitionResult compute() {
+            if (to - from <= 0) {
+                return new PartitionResult(Map.of(), 0);
+            }
+            if (to - from == 1) {
+                return reindexPartition(job, target, from);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(job, target, from, middle);
+            left.fork();
+            PartitionResult right = new PartitionTask(job, target, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
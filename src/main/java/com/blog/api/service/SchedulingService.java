@@ -2,33 +2,184 @@ package com.blog.api.service;
 
 import com.blog.api.entity.Post;
 import com.blog.api.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Publication des articles programmés (statut SCHEDULED, date dans scheduledAt). Les
+ * échéances sont chargées au démarrage puis tenues à jour à chaque modification d'article,
+ * dans une DelayQueue consommée par un thread dédié : il dort jusqu'à la prochaine échéance
+ * et publie tous les articles échus en un seul UPDATE.
+ *
+ * Un balayage peu fréquent publie en base les échéances que la file n'aurait pas vues
+ * (programmées depuis un autre nœud, ou dont la publication a échoué).
+ *
+ * Publication et balayage passent par un bail (JobLeaseService) : un seul nœud à la fois
+ * publie, un seul balaie par intervalle.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SchedulingService {
+    static final String PUBLICATION_JOB = "scheduled-publication";
+    static final String SWEEP_JOB = "scheduled-publication-sweep";
+    // Durée au-delà de laquelle le nœud qui publie est présumé mort
+    static final Duration LOCK_AT_MOST = Duration.ofMinutes(10);
+    // Délai avant de retenter une publication pendant qu'un autre nœud publie
+    static final long RETRY_DELAY_MILLIS = 1000;
 
     private final PostRepository postRepository;
+    private final PostCacheService postCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobLeaseService jobLeaseService;
 
-    @Scheduled(fixedRate = 60000) // Vérifie toutes les minutes
-    @Transactional
+    @Value("${app.scheduling.sweep-interval:300000}")
+    private long sweepIntervalMillis;
+
+    private final DelayQueue<Publication> queue = new DelayQueue<>();
+    // Échéance en vigueur par article : une entrée de la file qui n'y correspond plus est ignorée
+    private final Map<Long, Long> dueByPost = new ConcurrentHashMap<>();
+    private volatile Thread publisher;
+
+    record Publication(Long postId, long dueAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((Publication) other).dueAt);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (publisher != null) {
+            return;
+        }
+        postRepository.findSchedules(Post.Status.SCHEDULED)
+                .forEach(row -> schedule((Long) row[0], (LocalDateTime) row[1]));
+        log.info("Publications programmées chargées : {} articles", dueByPost.size());
+
+        publisher = new Thread(this::runPublisher, "scheduled-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (publisher != null) {
+            publisher.interrupt();
+            publisher = null;
+        }
+    }
+
+    public int getPendingCount() {
+        return dueByPost.size();
+    }
+
+    // fallbackExecution : les écritures faites hors transaction sont prises en compte immédiatement
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        try {
+            List<Object[]> rows = postRepository.findScheduleById(event.postId());
+            if (!rows.isEmpty() && rows.get(0)[0] == Post.Status.SCHEDULED && rows.get(0)[1] != null) {
+                schedule(event.postId(), (LocalDateTime) rows.get(0)[1]);
+            } else {
+                dueByPost.remove(event.postId());
+            }
+        } catch (RuntimeException e) {
+            // Le balayage publiera l'article s'il reste programmé
+            log.warn("Échec de la mise à jour de la programmation de l'article {}", event.postId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduling.sweep-interval:300000}")
     public void publishScheduledPosts() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Post> scheduledPosts = postRepository.findByStatusAndPublishedAtBefore(
-            Post.Status.SCHEDULED, now);
+        jobLeaseService.runExclusively(SWEEP_JOB, LOCK_AT_MOST, Duration.ofMillis(sweepIntervalMillis),
+                () -> publish(postRepository.findDueScheduledIds(Post.Status.SCHEDULED, LocalDateTime.now())));
+    }
+
+    void schedule(Long postId, LocalDateTime scheduledAt) {
+        long dueAt = dueAt(scheduledAt);
+        Long previous = dueByPost.put(postId, dueAt);
+        if (previous == null || previous != dueAt) {
+            queue.put(new Publication(postId, dueAt));
+        }
+    }
+
+    /**
+     * Échéance en millisecondes, arrondie à la milliseconde supérieure : déclenchée plus tôt,
+     * la publication ne trouverait pas l'article échu (scheduledAt <= now, comparé en pleine
+     * précision) et l'article attendrait le balayage.
+     */
+    static long dueAt(LocalDateTime scheduledAt) {
+        Instant instant = scheduledAt.atZone(ZoneId.systemDefault()).toInstant();
+        long millis = instant.toEpochMilli();
+        return instant.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+    }
+
+    private void runPublisher() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Publication> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due);
+                List<Long> postIds = due.stream()
+                        .filter(publication -> dueByPost.remove(publication.postId(), publication.dueAt()))
+                        .map(Publication::postId)
+                        .distinct()
+                        .toList();
+                if (!postIds.isEmpty()
+                        && !jobLeaseService.runExclusively(PUBLICATION_JOB, LOCK_AT_MOST, Duration.ZERO, () -> publish(postIds))) {
+                    // Un autre nœud publie, sans doute les mêmes articles : l'UPDATE conditionnel rendra la reprise inoffensive
+                    long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                    postIds.forEach(postId -> dueByPost.computeIfAbsent(postId, id -> {
+                        queue.put(new Publication(id, retryAt));
+                        return retryAt;
+                    }));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Échec de la publication d'articles programmés, reprise au prochain balayage", e);
+            }
+        }
+    }
+
+    private void publish(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
 
-        for (Post post : scheduledPosts) {
-            log.info("Publication programmée de l'article: {}", post.getTitle());
-            post.setStatus(Post.Status.PUBLISHED);
-            postRepository.save(post);
+        // Ne publie que les articles encore programmés et échus : une déprogrammation concurrente l'emporte
+        int published = postRepository.publishScheduled(postIds, LocalDateTime.now(),
+                Post.Status.SCHEDULED, Post.Status.PUBLISHED);
+        for (Long postId : postIds) {
+            postCacheService.invalidate(postId);
+            eventPublisher.publishEvent(new PostChangedEvent(postId));
         }
+        log.info("Publication programmée : {} articles publiés", published);
     }
-} 
\ No newline at end of file
+}
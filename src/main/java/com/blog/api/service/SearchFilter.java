@@ -0,0 +1,42 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Filtres appliqués aux résultats de l'index. Un critère null n'est pas appliqué ;
+ * les bornes de publication sont inclusives, celles de création excluent la borne haute.
+ */
+@Getter
+@Builder
+public class SearchFilter {
+    private final Collection<Long> themeIds;
+    private final Long authorId;
+    private final Collection<String> tags;
+    private final Post.Status status;
+    private final LocalDateTime publishedFrom;
+    private final LocalDateTime publishedTo;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdBefore;
+
+    /**
+     * Bornes de dates ; les critères discrets (thème, auteur, tags, statut) sont résolus par
+     * intersection des bitmaps de facettes de l'index.
+     */
+    boolean matchesDates(IndexedPost post) {
+        if (publishedFrom != null && (post.publishedAt() == null || post.publishedAt().isBefore(publishedFrom))) {
+            return false;
+        }
+        if (publishedTo != null && (post.publishedAt() == null || post.publishedAt().isAfter(publishedTo))) {
+            return false;
+        }
+        if (createdFrom != null && (post.createdAt() == null || post.createdAt().isBefore(createdFrom))) {
+            return false;
+        }
+        return createdBefore == null || (post.createdAt() != null && post.createdAt().isBefore(createdBefore));
+    }
+}
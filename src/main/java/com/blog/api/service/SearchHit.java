@@ -0,0 +1,9 @@
+package com.blog.api.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Article trouvé par l'index, avec son score BM25 et sa date de création pour le tri par date.
+ */
+record SearchHit(Long postId, double score, LocalDateTime createdAt) {
+}
@@ -0,0 +1,298 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche plein texte sur les articles (titre, extrait, contenu et tags) à partir d'un
+ * index inversé en mémoire. L'index est construit au démarrage puis tenu à jour article
+ * par article après chaque commit ; tant qu'il n'est pas prêt, les appelants se rabattent
+ * sur les requêtes SQL.
+ *
+ * L'index est aussi écrit périodiquement dans un segment sur disque : au redémarrage, il est
+ * rechargé depuis le dernier segment puis rattrapé sur les articles modifiés ou supprimés
+ * depuis, au lieu d'être reconstruit en relisant tous les articles.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+    static final int BOOTSTRAP_BATCH_SIZE = 500;
+    static final int FACET_LIMIT = 20;
+    // Marge du rattrapage : couvre les transactions encore ouvertes au moment de l'écriture du segment
+    static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+    // Le statut sert au filtrage mais n'est pas proposé comme facette
+    private static final List<InvertedIndex.Facet> EXPOSED_FACETS = List.of(
+            InvertedIndex.Facet.THEME, InvertedIndex.Facet.TAG, InvertedIndex.Facet.AUTHOR, InvertedIndex.Facet.MONTH);
+
+    // didYouMean : la requête avec ses termes inconnus remplacés par le terme indexé le plus proche, ou null
+    public record FacetedHits(List<SearchHit> hits, Map<String, Map<String, Integer>> facets, String didYouMean) {
+    }
+
+    private final PostRepository postRepository;
+    private final SearchSegmentStore segmentStore;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    private volatile boolean building;
+    // Articles modifiés pendant la construction, relus une fois le nouvel index en place
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+    // Avance après chaque modification visible de l'index ; fait partie des clés du cache de résultats
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long persistedGeneration = -1;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getIndexedCount() {
+        return index.size();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!restore()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime watermark = LocalDateTime.now();
+        beginRebuild();
+        InvertedIndex rebuilt = new InvertedIndex();
+        try {
+            long afterId = 0;
+            List<Post> batch;
+            do {
+                batch = postRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+                indexAll(rebuilt, batch);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+
+        install(rebuilt, watermark);
+        log.info("Index de recherche construit : {} articles en {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Début d'une reconstruction : les modifications reçues d'ici à install ou abortRebuild
+     * sont appliquées à l'index en service et notées pour être rejouées sur le nouveau.
+     */
+    void beginRebuild() {
+        building = true;
+    }
+
+    /**
+     * Met en service un index reconstruit (watermark : instant du début de sa construction),
+     * rejoue les modifications reçues entre-temps puis l'écrit dans un segment.
+     */
+    void install(InvertedIndex rebuilt, LocalDateTime watermark) {
+        swap(rebuilt);
+        persist(rebuilt, watermark);
+    }
+
+    void abortRebuild() {
+        building = false;
+        changedWhileBuilding.clear();
+    }
+
+    /**
+     * Article sous la forme analysée attendue par l'index ; tags : noms des tags de l'article
+     * déjà passés par TextAnalyzer.fold. Sans état : peut être appelé depuis plusieurs threads.
+     */
+    static InvertedIndex.Document analyze(Post post, Set<String> tags) {
+        IndexedPost document = new IndexedPost(
+                post.getId(),
+                post.getTheme() != null ? post.getTheme().getId() : null,
+                post.getAuthor() != null ? post.getAuthor().getId() : null,
+                post.getStatus(),
+                post.getPublishedAt(),
+                post.getCreatedAt(),
+                tags);
+        return InvertedIndex.analyze(document, post.getTitle(), post.getExcerpt(), post.getContent());
+    }
+
+    /**
+     * Écrit un nouveau segment si l'index a changé depuis le dernier. Sans bail : chaque
+     * nœud tient son propre index et son propre répertoire de segments.
+     */
+    @Scheduled(fixedDelayString = "${app.search.segment-interval:600000}",
+               initialDelayString = "${app.search.segment-interval:600000}")
+    public void persistSegment() {
+        if (ready && generation.get() != persistedGeneration) {
+            persist(index, LocalDateTime.now());
+        }
+    }
+
+    // fallbackExecution : les écritures faites hors transaction sont indexées immédiatement
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (building) {
+            changedWhileBuilding.add(event.postId());
+        }
+        try {
+            refresh(event.postId());
+        } catch (RuntimeException e) {
+            // L'article reste dans son ancien état indexé jusqu'à la prochaine reconstruction
+            log.warn("Échec de l'indexation de l'article {}", event.postId(), e);
+        }
+    }
+
+    public List<SearchHit> search(String query, SearchFilter filter) {
+        return index.search(SearchQuery.parse(query), filter, false, false).hits();
+    }
+
+    /**
+     * Résultats accompagnés, pour chaque facette exposée, des valeurs les plus fréquentes
+     * parmi eux et de leur nombre d'articles, calculés dans le même passage sur l'index.
+     * En mode approché, les termes tolèrent des fautes de frappe (voir InvertedIndex).
+     */
+    public FacetedHits searchWithFacets(String query, SearchFilter filter, boolean fuzzy) {
+        SearchQuery parsed = SearchQuery.parse(query);
+        InvertedIndex.Result result = index.search(parsed, filter, true, fuzzy);
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (InvertedIndex.Facet facet : EXPOSED_FACETS) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            result.facetCounts().getOrDefault(facet, Map.of()).entrySet().stream()
+                    .sorted(Map.Entry.<Object, Integer>comparingByValue().reversed()
+                            .thenComparing(entry -> entry.getKey().toString()))
+                    .limit(FACET_LIMIT)
+                    .forEach(entry -> counts.put(entry.getKey().toString(), entry.getValue()));
+            facets.put(facet.name().toLowerCase(Locale.ROOT), counts);
+        }
+
+        String didYouMean = null;
+        if (!result.corrections().isEmpty()) {
+            didYouMean = parsed.terms().stream()
+                    .map(term -> result.corrections().getOrDefault(term, term))
+                    .collect(Collectors.joining(" "));
+        }
+        return new FacetedHits(result.hits(), facets, didYouMean);
+    }
+
+    // Dernier segment sur disque, puis articles modifiés depuis sa marque d'eau et articles supprimés
+    private boolean restore() {
+        long start = System.currentTimeMillis();
+        Optional<SearchSegmentStore.LoadedSegment> segment = segmentStore.loadLatest();
+        if (segment.isEmpty()) {
+            return false;
+        }
+
+        beginRebuild();
+        InvertedIndex restored = new InvertedIndex();
+        int caughtUp = 0;
+        try {
+            segment.get().documents().forEach(restored::add);
+
+            Set<Long> existing = new HashSet<>(postRepository.findAllIds());
+            restored.ids().stream().filter(id -> !existing.contains(id)).forEach(restored::remove);
+
+            LocalDateTime since = segment.get().watermark().minus(CATCH_UP_OVERLAP);
+            long afterId = 0;
+            List<Post> batch;
+            do {
+                batch = postRepository.findByUpdatedAtAfterAndIdGreaterThanOrderByIdAsc(
+                        since, afterId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+                indexAll(restored, batch);
+                caughtUp += batch.size();
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            abortRebuild();
+            throw e;
+        }
+
+        swap(restored);
+        log.info("Index de recherche restauré depuis le segment du {} : {} articles dont {} rattrapés en {} ms",
+                segment.get().watermark(), restored.size(), caughtUp, System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private void swap(InvertedIndex replacement) {
+        try {
+            index = replacement;
+            ready = true;
+            generation.incrementAndGet();
+        } finally {
+            building = false;
+        }
+
+        List<Long> changed = new ArrayList<>(changedWhileBuilding);
+        changedWhileBuilding.removeAll(changed);
+        changed.forEach(this::refresh);
+    }
+
+    private void persist(InvertedIndex source, LocalDateTime watermark) {
+        // Génération lue avant l'instantané : une modification concurrente provoquera une nouvelle écriture
+        long snapshotGeneration = generation.get();
+        try {
+            segmentStore.write(source.documents(), watermark);
+            persistedGeneration = snapshotGeneration;
+        } catch (IOException | RuntimeException e) {
+            // Sans segment, le prochain démarrage reconstruira l'index depuis la base
+            log.warn("Échec de l'écriture du segment d'index de recherche", e);
+        }
+    }
+
+    private void refresh(Long postId) {
+        Optional<Post> post = postRepository.findById(postId);
+        if (post.isPresent()) {
+            indexAll(index, List.of(post.get()));
+        } else {
+            index.remove(postId);
+        }
+        generation.incrementAndGet();
+    }
+
+    private void indexAll(InvertedIndex target, List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+
+        // Tags chargés en une requête par lot plutôt qu'en initialisant la collection de chaque article
+        Map<Long, Set<String>> tags = new HashMap<>();
+        postRepository.findTagNamesByPostIds(posts.stream().map(Post::getId).toList())
+                .forEach(row -> tags.computeIfAbsent((Long) row[0], id -> new HashSet<>())
+                        .add(TextAnalyzer.fold((String) row[1])));
+
+        for (Post post : posts) {
+            target.add(analyze(post, tags.getOrDefault(post.getId(), Set.of())));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.blog.api.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Requête analysée : tous les termes doivent être présents et chaque expression entre
+ * guillemets doit apparaître telle quelle, dans le même champ.
+ */
+record SearchQuery(Set<String> terms, List<List<TextAnalyzer.Token>> phrases) {
+    private static final Pattern PART = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+    static SearchQuery parse(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        List<List<TextAnalyzer.Token>> phrases = new ArrayList<>();
+        if (query == null) {
+            return new SearchQuery(terms, phrases);
+        }
+
+        Matcher matcher = PART.matcher(query);
+        while (matcher.find()) {
+            List<TextAnalyzer.Token> tokens = TextAnalyzer.analyze(
+                    matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+            tokens.forEach(token -> terms.add(token.term()));
+            if (matcher.group(1) != null && tokens.size() > 1) {
+                phrases.add(tokens);
+            }
+        }
+        return new SearchQuery(terms, phrases);
+    }
+
+    boolean isEmpty() {
+        return terms.isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.blog.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des pages de résultats de recherche : pour une requête normalisée (termes, filtres
+ * triés, page et tri), les identifiants des articles de la page et le nombre total de résultats.
+ *
+ * Toute modification d'article (publication, mise à jour, suppression, tags) fait avancer une
+ * génération qui fait partie de la clé : les entrées antérieures ne sont plus jamais servies,
+ * y compris celle qu'une recherche concurrente calculait pendant la modification.
+ */
+@Service
+public class SearchResultCache {
+    private final Cache<Key, CachedResults> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchResultCache(
+            @Value("${app.cache.search.max-entries:10000}") long maxEntries,
+            @Value("${app.cache.search.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public record Key(long generation, Object query) {
+    }
+
+    // facets et didYouMean sont null pour les recherches qui n'en calculent pas
+    public record CachedResults(List<Long> postIds, long total, Map<String, Map<String, Integer>> facets,
+            String didYouMean) {
+    }
+
+    /**
+     * Clé de la requête dans la génération courante, à obtenir avant de lancer la recherche.
+     */
+    public Key key(Object query) {
+        return new Key(generation.get(), query);
+    }
+
+    public Optional<CachedResults> get(Key key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(Key key, CachedResults results) {
+        // Un résultat calculé avant une modification ne pourrait plus être relu
+        if (key.generation() == generation.get()) {
+            cache.put(key, results);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,195 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Format binaire d'un segment de l'index de recherche : fichier immuable contenant les articles
+ * analysés et la marque d'eau (instant avant lequel toute modification d'article y figure).
+ *
+ * En-tête (magic, version, marque d'eau), dictionnaire des termes, puis les articles, chaque
+ * terme étant désigné par son rang dans le dictionnaire ; un CRC32 final permet d'écarter un
+ * fichier tronqué ou corrompu. La lecture passe par FileChannel.map : le fichier est parcouru
+ * dans le cache de pages du système, sans copie intermédiaire sur le tas.
+ */
+final class SearchSegment {
+    private static final int MAGIC = 0x42534547; // "BSEG"
+    private static final int VERSION = 1;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private SearchSegment() {
+    }
+
+    static void write(Path file, List<InvertedIndex.Document> documents, LocalDateTime watermark) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (InvertedIndex.Document document : documents) {
+            document.postings().keySet().forEach(term -> dictionary.putIfAbsent(term, dictionary.size()));
+        }
+
+        CRC32 crc = new CRC32();
+        try (OutputStream raw = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(raw, crc)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeDateTime(out, watermark);
+
+            out.writeInt(dictionary.size());
+            for (String term : dictionary.keySet()) {
+                writeString(out, term);
+            }
+
+            out.writeInt(documents.size());
+            for (InvertedIndex.Document document : documents) {
+                writeDocument(out, document, dictionary);
+            }
+            out.flush();
+            // Le CRC couvre tout ce qui précède et n'est pas lui-même inclus
+            new DataOutputStream(raw).writeLong(crc.getValue());
+        }
+    }
+
+    /**
+     * Passe chaque article du segment au consumer et retourne la marque d'eau. Le CRC est
+     * vérifié avant de lire le premier article : un fichier invalide ne produit aucun document.
+     */
+    static LocalDateTime read(Path file, Consumer<InvertedIndex.Document> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid segment size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Corrupted segment " + file);
+            }
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported segment " + file);
+            }
+            LocalDateTime watermark = readDateTime(buffer);
+
+            String[] dictionary = new String[buffer.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(buffer);
+            }
+
+            int documentCount = buffer.getInt();
+            for (int i = 0; i < documentCount; i++) {
+                consumer.accept(readDocument(buffer, dictionary));
+            }
+            return watermark;
+        }
+    }
+
+    private static void writeDocument(DataOutputStream out, InvertedIndex.Document document,
+            Map<String, Integer> dictionary) throws IOException {
+        IndexedPost post = document.post();
+        out.writeLong(post.id());
+        out.writeLong(post.themeId() != null ? post.themeId() : NO_VALUE);
+        out.writeLong(post.authorId() != null ? post.authorId() : NO_VALUE);
+        out.writeByte(post.status() != null ? post.status().ordinal() : -1);
+        writeDateTime(out, post.publishedAt());
+        writeDateTime(out, post.createdAt());
+        out.writeInt(post.tags().size());
+        for (String tag : post.tags()) {
+            writeString(out, tag);
+        }
+
+        out.writeFloat(document.length());
+        out.writeInt(document.postings().size());
+        for (Map.Entry<String, InvertedIndex.Posting> entry : document.postings().entrySet()) {
+            out.writeInt(dictionary.get(entry.getKey()));
+            out.writeBoolean(document.vocabulary().contains(entry.getKey()));
+            out.writeFloat(entry.getValue().frequency());
+            int[] positions = entry.getValue().positions();
+            out.writeInt(positions.length);
+            for (int position : positions) {
+                out.writeInt(position);
+            }
+        }
+    }
+
+    private static InvertedIndex.Document readDocument(ByteBuffer buffer, String[] dictionary) {
+        long id = buffer.getLong();
+        long themeId = buffer.getLong();
+        long authorId = buffer.getLong();
+        byte status = buffer.get();
+        LocalDateTime publishedAt = readDateTime(buffer);
+        LocalDateTime createdAt = readDateTime(buffer);
+        Set<String> tags = new HashSet<>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            tags.add(readString(buffer));
+        }
+        IndexedPost post = new IndexedPost(id,
+                themeId != NO_VALUE ? themeId : null,
+                authorId != NO_VALUE ? authorId : null,
+                status >= 0 ? Post.Status.values()[status] : null,
+                publishedAt, createdAt, tags);
+
+        float length = buffer.getFloat();
+        int termCount = buffer.getInt();
+        Map<String, InvertedIndex.Posting> postings = new HashMap<>(termCount * 2);
+        Set<String> vocabulary = new HashSet<>();
+        for (int i = 0; i < termCount; i++) {
+            // Chaîne du dictionnaire : partagée par tous les articles qui contiennent le terme
+            String term = dictionary[buffer.getInt()];
+            if (buffer.get() != 0) {
+                vocabulary.add(term);
+            }
+            float frequency = buffer.getFloat();
+            int[] positions = new int[buffer.getInt()];
+            buffer.asIntBuffer().get(positions);
+            buffer.position(buffer.position() + positions.length * Integer.BYTES);
+            postings.put(term, new InvertedIndex.Posting(frequency, positions));
+        }
+        return new InvertedIndex.Document(post, length, postings, vocabulary);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value != null ? value.toEpochSecond(ZoneOffset.UTC) : NO_VALUE);
+        out.writeInt(value != null ? value.getNano() : 0);
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds != NO_VALUE ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,93 @@
+package com.blog.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Répertoire des segments de l'index de recherche. Chaque écriture produit un nouveau fichier,
+ * renommé atomiquement une fois complet, et seuls les derniers segments sont conservés : un
+ * redémarrage lit le plus récent et se rabat sur le précédent s'il est illisible.
+ */
+@Slf4j
+@Service
+public class SearchSegmentStore {
+    static final int KEPT_SEGMENTS = 2;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+
+    record LoadedSegment(LocalDateTime watermark, List<InvertedIndex.Document> documents) {
+    }
+
+    public SearchSegmentStore(@Value("${app.search.segment-dir:search-index}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Segment valide le plus récent ; vide s'il n'y en a aucun.
+     */
+    Optional<LoadedSegment> loadLatest() {
+        for (Path segment : segments()) {
+            try {
+                List<InvertedIndex.Document> documents = new ArrayList<>();
+                LocalDateTime watermark = SearchSegment.read(segment, documents::add);
+                return Optional.of(new LoadedSegment(watermark, documents));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Segment d'index illisible, essai du précédent : {}", segment, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    void write(List<InvertedIndex.Document> documents, LocalDateTime watermark) throws IOException {
+        Files.createDirectories(directory);
+        // Nom ordonné par marque d'eau ; à marque d'eau égale, le plus récent remplace l'autre
+        String name = String.format("%s%020d%s", PREFIX, watermark.toInstant(ZoneOffset.UTC).toEpochMilli(), SUFFIX);
+        Path temporary = Files.createTempFile(directory, PREFIX, ".tmp");
+        try {
+            SearchSegment.write(temporary, documents, watermark);
+            Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        List<Path> segments = segments();
+        for (Path obsolete : segments.subList(Math.min(KEPT_SEGMENTS, segments.size()), segments.size())) {
+            Files.deleteIfExists(obsolete);
+        }
+    }
+
+    // Du plus récent au plus ancien
+    private List<Path> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Impossible de lister les segments d'index dans {}", directory, e);
+            return List.of();
+        }
+    }
+}
@@ -1,45 +1,141 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.post.PostCardResponse;
 import com.blog.api.dto.post.PostResponse;
 import com.blog.api.entity.Post;
 import com.blog.api.entity.Theme;
 import com.blog.api.entity.Tag;
 import com.blog.api.entity.User;
 import com.blog.api.repository.PostRepository;
-import com.blog.api.repository.ReactionRepository;
 import com.blog.api.repository.ThemeRepository;
 import com.blog.api.repository.TagRepository;
 import com.blog.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 50;
+    // Compteurs modifiés sans événement d'article : un tri sur ces champs n'est pas mis en cache
+    private static final Set<String> LIVE_SORT_PROPERTIES = Set.of("viewCount", "likeCount", "dislikeCount", "commentCount");
+
+    /**
+     * Requêtes normalisées servant de clés au cache de résultats. Le mot-clé est la requête
+     * analysée quand l'index répond (indexGeneration >= 0), le texte en minuscules sinon :
+     * la recherche SQL compare en LIKE, insensible à la casse mais pas aux espaces.
+     */
+    private record PostSearchKey(Object keyword, List<Long> themeIds, LocalDateTime startDate,
+            LocalDateTime endDate, List<String> tags, String authorUsername, Post.Status status,
+            long indexGeneration, int page, int size, String sort) {
+    }
+
+    private record CardSearchKey(Object query, boolean fuzzy, String author, String tag, LocalDate dateFrom,
+            LocalDate dateTo, String sortBy, long indexGeneration, int page, int size) {
+    }
 
     private final PostRepository postRepository;
     private final ThemeRepository themeRepository;
-    private final ReactionRepository reactionRepository;
     private final UserRepository userRepository;
     private final TagRepository tagRepository;
+    private final SearchIndexService searchIndexService;
+    private final TagSuggestService tagSuggestService;
+    private final SimilarPostsService similarPostsService;
+    private final SearchResultCache searchResultCache;
+    private final TrendingTagService trendingTagService;
 
     public Page<PostResponse> searchPosts(String keyword, List<Long> themeIds, 
             LocalDateTime startDate, LocalDateTime endDate, List<String> tags, 
             String authorUsername, Post.Status status, Pageable pageable) {
-        
-        // Construire la requête en fonction des critères
-        return postRepository.findBySearchCriteria(
+
+        if (tags != null) {
+            tags.forEach(trendingTagService::recordSearch);
+        }
+        boolean indexed = useIndex(keyword);
+        SearchResultCache.Key key = null;
+        if (pageable.isPaged() && pageable.getSort().stream().noneMatch(this::isLiveSort)) {
+            key = searchResultCache.key(new PostSearchKey(
+                    indexed ? SearchQuery.parse(keyword) : lowerCase(keyword),
+                    themeIds != null ? themeIds.stream().distinct().sorted().toList() : null,
+                    startDate, endDate, normalizeTags(tags), authorUsername, status,
+                    indexed ? searchIndexService.getGeneration() : -1,
+                    pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString()));
+            Optional<SearchResultCache.CachedResults> cached = searchResultCache.get(key);
+            if (cached.isPresent()) {
+                List<PostResponse> content = findAllInOrder(cached.get().postIds()).stream()
+                        .map(PostResponse::fromPost)
+                        .toList();
+                return new PageImpl<>(content, pageable, cached.get().total());
+            }
+        }
+
+        Page<PostResponse> results = findPosts(indexed, keyword, themeIds, startDate, endDate, tags,
+                authorUsername, status, pageable);
+        if (key != null) {
+            searchResultCache.put(key, new SearchResultCache.CachedResults(
+                    results.getContent().stream().map(PostResponse::getId).toList(),
+                    results.getTotalElements(), null, null));
+        }
+        return results;
+    }
+
+    /**
+     * L'index ne répond qu'à une requête qui garde au moins un terme une fois analysée : un
+     * mot-clé fait uniquement de mots vides (« le », « de la ») passe par la requête SQL,
+     * qui le compare tel quel et applique les autres filtres.
+     */
+    private boolean useIndex(String keyword) {
+        return StringUtils.hasText(keyword) && searchIndexService.isReady() && !SearchQuery.parse(keyword).isEmpty();
+    }
+
+    private Page<PostResponse> findPosts(boolean indexed, String keyword, List<Long> themeIds,
+            LocalDateTime startDate, LocalDateTime endDate, List<String> tags,
+            String authorUsername, Post.Status status, Pageable pageable) {
+        if (indexed) {
+            Long authorId = null;
+            if (authorUsername != null) {
+                Optional<User> author = userRepository.findByUsername(authorUsername);
+                if (author.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                authorId = author.get().getId();
+            }
+
+            List<SearchHit> hits = searchIndexService.search(keyword, SearchFilter.builder()
+                    .themeIds(themeIds)
+                    .authorId(authorId)
+                    .tags(tags)
+                    .status(status)
+                    .publishedFrom(startDate)
+                    .publishedTo(endDate)
+                    .build());
+            return toRankedResponses(postIds(hits), pageable);
+        }
+
+        // Index pas encore construit ou aucun terme à y chercher : requête SQL sur les critères
+        return toResponses(postRepository.findBySearchCriteria(
                 keyword,
                 themeIds,
                 startDate,
@@ -48,30 +144,38 @@ public class SearchService {
                 authorUsername,
                 status,
                 pageable
-            ).map(post -> PostResponse.fromPost(
-                post,
-                reactionRepository.countLikesByPost(post),
-                reactionRepository.countDislikesByPost(post)
             ));
     }
 
     public List<String> suggestTags(String prefix) {
-        return postRepository.findTagsByPrefix(prefix);
+        return suggestTags(prefix, DEFAULT_SUGGESTIONS);
+    }
+
+    public List<String> suggestTags(String prefix, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (!tagSuggestService.isReady()) {
+            // Dictionnaire en construction : même filtre (articles publiés) et même classement en SQL
+            if (!StringUtils.hasText(prefix)) {
+                return List.of();
+            }
+            return postRepository.findPublishedTagsByPrefix(prefix.trim(), PageRequest.of(0, boundedLimit));
+        }
+        return tagSuggestService.suggest(prefix, boundedLimit);
     }
 
     public Page<PostResponse> findSimilarPosts(Long postId, Pageable pageable) {
+        if (similarPostsService.isReady()) {
+            return toRankedResponses(similarRanking(postId, SimilarPostsService.MAX_RESULTS).postIds(), pageable);
+        }
+
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        return postRepository.findSimilarPosts(
+        return toResponses(postRepository.findSimilarPosts(
                 post.getId(),
                 post.getTags().stream().map(Tag::getName).collect(Collectors.toList()),
                 post.getTheme().getId(),
                 pageable
-            ).map(similarPost -> PostResponse.fromPost(
-                similarPost,
-                reactionRepository.countLikesByPost(similarPost),
-                reactionRepository.countDislikesByPost(similarPost)
             ));
     }
 
@@ -84,40 +188,109 @@ public class SearchService {
             String sortBy,
             int page,
             int size) {
+        return search(query, author, tag, dateFrom, dateTo, sortBy, page, size, false);
+    }
+
+    /**
+     * Avec fuzzy, les termes de la requête tolèrent une ou deux fautes de frappe ; ce mode
+     * repose sur l'index et n'a pas d'effet tant que celui-ci n'est pas construit.
+     */
+    public Map<String, Object> search(
+            String query,
+            String author,
+            String tag,
+            LocalDate dateFrom,
+            LocalDate dateTo,
+            String sortBy,
+            int page,
+            int size,
+            boolean fuzzy) {
 
+        if (tag != null) {
+            trendingTagService.recordSearch(tag);
+        }
         Pageable pageable = createPageable(sortBy, page, size);
+        boolean indexed = useIndex(query);
+        SearchResultCache.Key key = null;
+        if (!"views".equals(sortBy) && !"likes".equals(sortBy)) {
+            key = searchResultCache.key(new CardSearchKey(
+                    indexed ? SearchQuery.parse(query) : lowerCase(query), indexed && fuzzy,
+                    author, lowerCase(tag), dateFrom, dateTo, sortBy,
+                    indexed ? searchIndexService.getGeneration() : -1, page, size));
+            Optional<SearchResultCache.CachedResults> cached = searchResultCache.get(key);
+            if (cached.isPresent()) {
+                return toSearchResponse(new PageImpl<>(findCardsInOrder(cached.get().postIds()), pageable,
+                        cached.get().total()), cached.get().facets(), cached.get().didYouMean());
+            }
+        }
+
         User authorUser = null;
         if (author != null && !author.isEmpty()) {
             authorUser = userRepository.findByUsername(author)
                     .orElse(null);
         }
+        LocalDateTime createdFrom = dateFrom != null ? dateFrom.atStartOfDay() : null;
+        LocalDateTime createdBefore = dateTo != null ? dateTo.plusDays(1).atStartOfDay() : null;
 
-        Page<Post> posts = postRepository.findBySearchCriteria(
-                query,
-                authorUser,
-                tag,
-                dateFrom,
-                dateTo,
-                pageable);
+        Page<PostCardResponse> posts;
+        Map<String, Map<String, Integer>> facets = null;
+        String didYouMean = null;
+        if (indexed) {
+            SearchIndexService.FacetedHits result = searchIndexService.searchWithFacets(query, SearchFilter.builder()
+                    .authorId(authorUser != null ? authorUser.getId() : null)
+                    .tags(tag != null ? List.of(tag) : null)
+                    .status(Post.Status.PUBLISHED)
+                    .createdFrom(createdFrom)
+                    .createdBefore(createdBefore)
+                    .build(), fuzzy);
+            posts = toRankedCards(result.hits(), sortBy, pageable);
+            facets = result.facets();
+            didYouMean = result.didYouMean();
+        } else {
+            posts = postRepository.findCardsBySearchCriteria(
+                    query, authorUser, tag, createdFrom, createdBefore, pageable);
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("content", posts.getContent());
-        response.put("totalElements", posts.getTotalElements());
-        response.put("totalPages", posts.getTotalPages());
-        response.put("currentPage", posts.getNumber());
-        
-        return response;
+        if (key != null) {
+            searchResultCache.put(key, new SearchResultCache.CachedResults(
+                    posts.getContent().stream().map(PostCardResponse::getId).toList(),
+                    posts.getTotalElements(), facets, didYouMean));
+        }
+        return toSearchResponse(posts, facets, didYouMean);
     }
 
     public Map<String, Integer> getPopularTags(int limit) {
-        return tagRepository.findMostUsedTags(PageRequest.of(0, limit))
-                .stream()
-                .collect(Collectors.toMap(
-                    Tag::getName,
-                    Tag::getUsageCount));
+        Map<String, Integer> popular = new LinkedHashMap<>();
+        tagRepository.findMostUsedTags(PageRequest.of(0, limit))
+                .forEach(tag -> popular.put(tag.getName(), tag.getUsageCount()));
+        return popular;
+    }
+
+    /**
+     * Tags les plus utilisés sur la fenêtre (1h, 24h ou 7d) avec leur score estimé, du plus
+     * au moins utilisé.
+     */
+    public Map<String, Long> getTrendingTags(String window, int limit) {
+        Map<String, Long> trending = new LinkedHashMap<>();
+        trendingTagService.getTrending(TrendingTagService.Window.fromLabel(window), limit)
+                .forEach(tag -> trending.put(tag.name(), tag.score()));
+        return trending;
     }
 
+    /**
+     * Au plus limit articles similaires ; totalElements compte tous les articles similaires.
+     * Une fois l'index prêt, content est en outre limité aux SimilarPostsService.MAX_RESULTS
+     * plus proches.
+     */
     public Map<String, Object> getSimilarPosts(Long postId, int limit) {
+        if (similarPostsService.isReady()) {
+            SimilarPostsService.SimilarPosts ranking = similarRanking(postId, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", findAllInOrder(ranking.postIds()));
+            response.put("totalElements", ranking.total());
+            return response;
+        }
+
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
@@ -134,12 +307,131 @@ public class SearchService {
         return response;
     }
 
+    private Map<String, Object> toSearchResponse(Page<PostCardResponse> posts,
+            Map<String, Map<String, Integer>> facets, String didYouMean) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", posts.getContent());
+        response.put("totalElements", posts.getTotalElements());
+        response.put("totalPages", posts.getTotalPages());
+        response.put("currentPage", posts.getNumber());
+        if (facets != null) {
+            // Comptes par thème, tag, auteur et mois (aaaa-mm) sur l'ensemble des résultats
+            response.put("facets", facets);
+        }
+        if (didYouMean != null) {
+            response.put("didYouMean", didYouMean);
+        }
+        
+        return response;
+    }
+
+    private Page<PostResponse> toResponses(Page<Post> posts) {
+        return posts.map(PostResponse::fromPost);
+    }
+
+    /**
+     * Sans tri explicite, la page suit l'ordre de pertinence de l'index ; sinon le tri
+     * demandé est appliqué en base sur l'ensemble des articles trouvés.
+     */
+    private Page<PostResponse> toRankedResponses(List<Long> rankedIds, Pageable pageable) {
+        if (rankedIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (pageable.getSort().isSorted()) {
+            return toResponses(postRepository.findByIdIn(rankedIds, pageable));
+        }
+
+        List<PostResponse> content = findAllInOrder(slice(rankedIds, pageable)).stream()
+                .map(PostResponse::fromPost)
+                .toList();
+        return new PageImpl<>(content, pageable, rankedIds.size());
+    }
+
+    private List<Post> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Post> posts = postRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Un article publié sans voisin donne une liste vide ; un article inexistant reste une erreur
+    private SimilarPostsService.SimilarPosts similarRanking(Long postId, int limit) {
+        return similarPostsService.findRanking(postId, limit).orElseGet(() -> {
+            if (!postRepository.existsById(postId)) {
+                throw new RuntimeException("Post not found");
+            }
+            return new SimilarPostsService.SimilarPosts(List.of(), 0);
+        });
+    }
+
+    private Page<PostCardResponse> toRankedCards(List<SearchHit> hits, String sortBy, Pageable pageable) {
+        if (hits.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        switch (sortBy) {
+            case "views", "likes" -> {
+                // Compteurs vivants : le tri se fait en base sur les articles trouvés
+                return postRepository.findCardsByIdIn(postIds(hits), pageable);
+            }
+            case "date" -> hits = hits.stream()
+                    .sorted(Comparator.comparing(SearchHit::createdAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                    .toList();
+            default -> {
+                // Pertinence : ordre de l'index
+            }
+        }
+
+        return new PageImpl<>(findCardsInOrder(postIds(slice(hits, pageable))), pageable, hits.size());
+    }
+
+    private List<PostCardResponse> findCardsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostCardResponse> cards = postRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostCardResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private boolean isLiveSort(Sort.Order order) {
+        return LIVE_SORT_PROPERTIES.contains(order.getProperty());
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static List<String> normalizeTags(Collection<String> tags) {
+        return tags != null ? tags.stream().map(SearchService::lowerCase).distinct().sorted().toList() : null;
+    }
+
+    private static <T> List<T> slice(List<T> ranked, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return ranked;
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        return ranked.subList(from, Math.min(from + pageable.getPageSize(), ranked.size()));
+    }
+
+    private static List<Long> postIds(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::postId).toList();
+    }
+
     private Pageable createPageable(String sortBy, int page, int size) {
         Sort sort = switch (sortBy) {
-            case "date" -> Sort.by("createdAt").descending();
             case "views" -> Sort.by("viewCount").descending();
             case "likes" -> Sort.by("likeCount").descending();
-            default -> Sort.by("relevanceScore").descending();
+            // La pertinence n'a de sens qu'avec l'index ; sans requête, on retombe sur la date
+            default -> Sort.by("createdAt").descending();
         };
 
         return PageRequest.of(page, size, sort);
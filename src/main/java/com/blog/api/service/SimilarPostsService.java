@@ -0,0 +1,365 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Articles similaires précalculés. Chaque article publié est décrit par l'ensemble de ses
+ * tags et de son thème ; une signature MinHash de ses seuls tags est découpée en bandes (LSH)
+ * et deux articles partageant une bande deviennent candidats. Le thème, partagé par trop
+ * d'articles pour servir à la recherche de candidats, n'intervient que dans le score : les
+ * candidats sont classés par indice de Jaccard exact sur tags et thème, ce qui avantage ceux
+ * du même thème. Le classement de chaque article est gardé en cache jusqu'à ce qu'un article
+ * de ses bandes change ; un article sans tag n'a pas d'articles similaires.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimilarPostsService {
+    static final int CHUNK_SIZE = 1000;
+    // Taille du classement gardé par article : au-delà, seul le nombre de candidats est connu
+    static final int MAX_RESULTS = 20;
+
+    // 16 bandes de 2 lignes : deux articles à Jaccard 0,25 ont ~64 % de chances d'être candidats, 99 % à 0,5
+    private static final int BANDS = 16;
+    private static final int ROWS = 2;
+    private static final long[] SEEDS = seeds(BANDS * ROWS);
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, long[]> featuresByPost = new HashMap<>();
+    private final Map<Long, long[]> bandsByPost = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private final Map<Long, SimilarPosts> rankings = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+    private volatile boolean building;
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getIndexedCount() {
+        lock.readLock().lock();
+        try {
+            return featuresByPost.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getLargestBucketSize() {
+        lock.readLock().lock();
+        try {
+            return buckets.values().stream().mapToInt(Set::size).max().orElse(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Articles les plus proches, du plus similaire au moins similaire (au plus limit et
+     * MAX_RESULTS), et nombre total d'articles similaires.
+     */
+    public record SimilarPosts(List<Long> postIds, long total) {
+    }
+
+    /**
+     * Articles les plus proches, du plus similaire au moins similaire ; vide si l'article
+     * n'est pas indexé (inexistant, non publié, ni tag ni thème).
+     */
+    public Optional<SimilarPosts> findRanking(Long postId, int limit) {
+        lock.readLock().lock();
+        try {
+            SimilarPosts ranking = rankings.get(postId);
+            if (ranking == null) {
+                long[] features = featuresByPost.get(postId);
+                if (features == null) {
+                    return Optional.empty();
+                }
+                // Calcul et mise en cache sous le verrou de lecture : aucune écriture ne peut l'invalider entre-temps
+                ranking = rank(postId, features);
+                rankings.put(postId, ranking);
+            }
+            List<Long> postIds = ranking.postIds();
+            return Optional.of(new SimilarPosts(postIds.subList(0, Math.min(Math.max(limit, 0), postIds.size())),
+                    ranking.total()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        building = true;
+        try {
+            Long maxId = postRepository.findMaxId();
+            for (long afterId = 0; maxId != null && afterId < maxId; afterId += CHUNK_SIZE) {
+                Map<Long, Set<Long>> features = loadFeatures(afterId, afterId + CHUNK_SIZE);
+                lock.writeLock().lock();
+                try {
+                    features.forEach(this::putLocked);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            ready = true;
+        } finally {
+            building = false;
+        }
+
+        replayChanged();
+        log.info("Index des articles similaires construit : {} articles", getIndexedCount());
+    }
+
+    /**
+     * Caractéristiques des articles publiés de la tranche ]afterId, upToId], sans toucher à
+     * l'index : utilisable en parallèle par une reconstruction externe.
+     */
+    Map<Long, Set<Long>> loadFeatures(long afterId, long upToId) {
+        Map<Long, Set<Long>> features = new HashMap<>();
+        postRepository.findPublishedSimilarityRows(afterId, upToId).forEach(row -> addFeatures(features, row));
+        return features;
+    }
+
+    /**
+     * Début d'une reconstruction externe : les modifications reçues d'ici à replaceAll ou
+     * abortRebuild sont notées pour être rejouées sur le nouvel index.
+     */
+    void beginRebuild() {
+        building = true;
+    }
+
+    /**
+     * Remplace tout l'index par ces caractéristiques. Signatures et bandes sont calculées avant
+     * de prendre le verrou d'écriture, qui n'est tenu que le temps de l'échange.
+     */
+    void replaceAll(Map<Long, Set<Long>> features) {
+        record Prepared(long[] features, long[] bands) {
+        }
+        Map<Long, Prepared> prepared = new HashMap<>(features.size() * 2);
+        features.forEach((postId, feature) -> {
+            if (!feature.isEmpty()) {
+                long[] sorted = feature.stream().mapToLong(Long::longValue).sorted().toArray();
+                prepared.put(postId, new Prepared(sorted, bands(sorted)));
+            }
+        });
+
+        try {
+            lock.writeLock().lock();
+            try {
+                featuresByPost.clear();
+                bandsByPost.clear();
+                buckets.clear();
+                rankings.clear();
+                prepared.forEach((postId, entry) -> installLocked(postId, entry.features(), entry.bands()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+        } finally {
+            building = false;
+        }
+
+        replayChanged();
+        log.info("Index des articles similaires remplacé : {} articles", getIndexedCount());
+    }
+
+    void abortRebuild() {
+        building = false;
+        changedWhileBuilding.clear();
+    }
+
+    private void replayChanged() {
+        List<Long> changed = new ArrayList<>(changedWhileBuilding);
+        changedWhileBuilding.removeAll(changed);
+        changed.forEach(this::refresh);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (building) {
+            changedWhileBuilding.add(event.postId());
+        }
+        try {
+            refresh(event.postId());
+        } catch (RuntimeException e) {
+            log.warn("Échec de la mise à jour des articles similaires de l'article {}", event.postId(), e);
+        }
+    }
+
+    private void refresh(Long postId) {
+        Map<Long, Set<Long>> features = new HashMap<>();
+        postRepository.findSimilarityRowsByPostId(postId).stream()
+                .filter(row -> row[1] == Post.Status.PUBLISHED)
+                .forEach(row -> addFeatures(features, new Object[]{row[0], row[2], row[3]}));
+
+        lock.writeLock().lock();
+        try {
+            Set<Long> feature = features.get(postId);
+            if (feature != null) {
+                putLocked(postId, feature);
+            } else {
+                removeLocked(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ligne (postId, themeId, tagId) ; tags et thème partagent un espace d'identifiants distinct par parité
+    private static void addFeatures(Map<Long, Set<Long>> features, Object[] row) {
+        Set<Long> feature = features.computeIfAbsent((Long) row[0], id -> new HashSet<>());
+        if (row[1] != null) {
+            feature.add(((Long) row[1] << 1) | 1);
+        }
+        if (row[2] != null) {
+            feature.add((Long) row[2] << 1);
+        }
+    }
+
+    private void putLocked(Long postId, Set<Long> feature) {
+        removeLocked(postId);
+        if (feature.isEmpty()) {
+            return;
+        }
+
+        long[] features = feature.stream().mapToLong(Long::longValue).sorted().toArray();
+        installLocked(postId, features, bands(features));
+    }
+
+    private void installLocked(Long postId, long[] features, long[] bands) {
+        featuresByPost.put(postId, features);
+        bandsByPost.put(postId, bands);
+        for (long band : bands) {
+            Set<Long> bucket = buckets.computeIfAbsent(band, b -> new HashSet<>());
+            bucket.forEach(rankings::remove);
+            bucket.add(postId);
+        }
+    }
+
+    private void removeLocked(Long postId) {
+        rankings.remove(postId);
+        featuresByPost.remove(postId);
+        long[] bands = bandsByPost.remove(postId);
+        if (bands == null) {
+            return;
+        }
+        for (long band : bands) {
+            Set<Long> bucket = buckets.get(band);
+            bucket.remove(postId);
+            // Les classements des voisins pouvaient contenir cet article
+            bucket.forEach(rankings::remove);
+            if (bucket.isEmpty()) {
+                buckets.remove(band);
+            }
+        }
+    }
+
+    private SimilarPosts rank(Long postId, long[] features) {
+        Set<Long> candidates = new TreeSet<>();
+        for (long band : bandsByPost.get(postId)) {
+            candidates.addAll(buckets.get(band));
+        }
+        candidates.remove(postId);
+
+        record Scored(Long postId, double score) {
+        }
+        List<Long> top = candidates.stream()
+                .map(candidate -> new Scored(candidate, jaccard(features, featuresByPost.get(candidate))))
+                .sorted(Comparator.comparingDouble(Scored::score).reversed()
+                        .thenComparing(Scored::postId, Comparator.reverseOrder()))
+                .limit(MAX_RESULTS)
+                .map(Scored::postId)
+                .toList();
+        return new SimilarPosts(top, candidates.size());
+    }
+
+    static double jaccard(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    private static long[] signature(long[] features) {
+        long[] signature = new long[SEEDS.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long feature : features) {
+            for (int i = 0; i < SEEDS.length; i++) {
+                signature[i] = Math.min(signature[i], mix(feature ^ SEEDS[i]));
+            }
+        }
+        return signature;
+    }
+
+    // Bandes calculées sur les seuls tags (caractéristiques paires) : avec un ou deux tags par
+    // article, le thème serait le minimum MinHash d'une bande sur quatre et chaque seau d'un
+    // thème contiendrait tous ses articles
+    private static long[] bands(long[] features) {
+        long[] tags = Arrays.stream(features).filter(feature -> (feature & 1) == 0).toArray();
+        return tags.length == 0 ? new long[0] : bandsOf(signature(tags));
+    }
+
+    private static long[] bandsOf(long[] signature) {
+        long[] bands = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + signature[band * ROWS + row]);
+            }
+            bands[band] = key;
+        }
+        return bands;
+    }
+
+    // Finaliseur de SplitMix64 : bonne dispersion pour des identifiants consécutifs
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] seeds(int count) {
+        long[] seeds = new long[count];
+        long state = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < count; i++) {
+            state += 0x9e3779b97f4a7c15L;
+            seeds[i] = mix(state);
+        }
+        return seeds;
+    }
+}
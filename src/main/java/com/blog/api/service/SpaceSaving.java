@@ -0,0 +1,59 @@
+package com.blog.api.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Algorithme Space-Saving : suit au plus capacity clés. Une clé inconnue arrivant quand tous
+ * les compteurs sont pris remplace la clé au plus petit compteur et hérite de sa valeur ;
+ * toute clé de fréquence supérieure à total / capacity est donc forcément suivie.
+ * L'éviction cherche le minimum par parcours linéaire, suffisant pour quelques centaines
+ * de compteurs. Non synchronisé : le propriétaire sérialise les accès.
+ */
+final class SpaceSaving {
+    private final int capacity;
+    private final Map<String, long[]> counters = new HashMap<>();
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void offer(String key, long weight) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{weight});
+            return;
+        }
+
+        Map.Entry<String, long[]> minimum = counters.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue()[0]))
+                .orElseThrow();
+        counters.remove(minimum.getKey());
+        counters.put(key, new long[]{minimum.getValue()[0] + weight});
+    }
+
+    /**
+     * Clés suivies, de la plus fréquente à la moins fréquente (compteur majoré).
+     */
+    List<String> keys() {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    void clear() {
+        counters.clear();
+    }
+}
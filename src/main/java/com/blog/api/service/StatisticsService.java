@@ -4,7 +4,6 @@ import com.blog.api.entity.Post;
 import com.blog.api.entity.User;
 import com.blog.api.repository.CommentRepository;
 import com.blog.api.repository.PostRepository;
-import com.blog.api.repository.ReactionRepository;
 import com.blog.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,8 +19,8 @@ public class StatisticsService {
 
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
-    private final ReactionRepository reactionRepository;
     private final UserRepository userRepository;
+    private final ViewCounterService viewCounterService;
 
     public Map<String, Object> getGlobalStatistics() {
         Map<String, Object> stats = new HashMap<>();
@@ -51,8 +50,8 @@ public class StatisticsService {
         long totalLikes = 0;
         long totalDislikes = 0;
         for (Post post : postRepository.findByAuthor(user)) {
-            totalLikes += reactionRepository.countLikesByPost(post);
-            totalDislikes += reactionRepository.countDislikesByPost(post);
+            totalLikes += toLong(post.getLikeCount());
+            totalDislikes += toLong(post.getDislikeCount());
         }
         stats.put("totalLikes", totalLikes);
         stats.put("totalDislikes", totalDislikes);
@@ -66,18 +65,22 @@ public class StatisticsService {
 
         Map<String, Object> stats = new HashMap<>();
         
-        stats.put("viewCount", post.getViewCount());
-        stats.put("commentCount", commentRepository.countByPost(post));
-        stats.put("likes", reactionRepository.countLikesByPost(post));
-        stats.put("dislikes", reactionRepository.countDislikesByPost(post));
+        stats.put("viewCount", post.getViewCount() + viewCounterService.getPendingViews(postId));
+        stats.put("commentCount", toLong(post.getCommentCount()));
+        stats.put("likes", toLong(post.getLikeCount()));
+        stats.put("dislikes", toLong(post.getDislikeCount()));
         
         return stats;
     }
 
     public void incrementViewCount(Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        post.setViewCount(post.getViewCount() + 1);
-        postRepository.save(post);
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+        viewCounterService.recordView(postId);
+    }
+
+    private static long toLong(Integer counter) {
+        return counter != null ? counter : 0L;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Tag;
+import com.blog.api.repository.TagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Résolution des noms de tags en entités lors de l'écriture d'un article. Un cache
+ * nom → identifiant évite toute requête pour les tags déjà vus : l'article reçoit une
+ * référence vers le tag sans le charger. Les autres sont lus en une requête, et ceux qui
+ * n'existent pas encore sont créés en un seul INSERT multi-lignes.
+ *
+ * Deux écritures concurrentes peuvent créer le même tag : l'INSERT ignore les doublons
+ * (ON DUPLICATE KEY) et les tags sont relus avec une lecture verrouillante, qui voit aussi
+ * ceux commités par l'autre transaction après le début de la nôtre.
+ */
+@Service
+public class TagDictionary {
+    private final TagRepository tagRepository;
+    private final EntityManager entityManager;
+    private final Cache<String, Long> idsByName;
+
+    public TagDictionary(TagRepository tagRepository,
+                         EntityManager entityManager,
+                         @Value("${app.cache.tags.max-entries:10000}") long maxEntries) {
+        this.tagRepository = tagRepository;
+        this.entityManager = entityManager;
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Tags portant ces noms, sans doublon et dans l'ordre des noms, créés au besoin. À appeler
+     * dans la transaction qui les attache : les tags créés n'entrent dans le cache qu'après
+     * son commit.
+     */
+    @Transactional
+    public List<Tag> resolve(Collection<String> names) {
+        Map<String, String> requested = new LinkedHashMap<>();
+        names.forEach(name -> requested.putIfAbsent(key(name), name));
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Long> ids = new HashMap<>(idsByName.getAllPresent(requested.keySet()));
+        List<String> missing = missing(requested, ids);
+        if (!missing.isEmpty()) {
+            // Tags commités par d'autres transactions : mis en cache immédiatement
+            tagRepository.findByNameIn(missing).forEach(tag -> {
+                ids.put(key(tag.getName()), tag.getId());
+                idsByName.put(key(tag.getName()), tag.getId());
+            });
+            missing = missing(requested, ids);
+        }
+        if (!missing.isEmpty()) {
+            insert(missing);
+            Map<String, Long> created = new HashMap<>();
+            tagRepository.findByNameInForShare(missing).forEach(tag -> created.put(key(tag.getName()), tag.getId()));
+            ids.putAll(created);
+            cacheAfterCommit(created);
+            if (!missing(requested, ids).isEmpty()) {
+                throw new RuntimeException("Tag not found");
+            }
+        }
+
+        List<Tag> tags = new ArrayList<>(requested.size());
+        requested.keySet().forEach(key -> tags.add(entityManager.getReference(Tag.class, ids.get(key))));
+        return tags;
+    }
+
+    // Noms comparés sans casse, comme le fait la collation de la colonne sous MySQL
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> missing(Map<String, String> requested, Map<String, Long> ids) {
+        return requested.entrySet().stream()
+                .filter(entry -> !ids.containsKey(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .sorted() // Même ordre d'insertion pour tous : pas d'interblocage entre deux créations croisées
+                .toList();
+    }
+
+    private void insert(List<String> names) {
+        Query insert = entityManager.createNativeQuery(
+                "INSERT INTO tags (name, usage_count) VALUES "
+                        + String.join(", ", Collections.nCopies(names.size(), "(?, 0)"))
+                        + " ON DUPLICATE KEY UPDATE name = name");
+        for (int i = 0; i < names.size(); i++) {
+            insert.setParameter(i + 1, names.get(i));
+        }
+        insert.executeUpdate();
+    }
+
+    private void cacheAfterCommit(Map<String, Long> created) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idsByName.putAll(created);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idsByName.putAll(created);
+            }
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Autocomplétion des tags : dictionnaire trié des noms normalisés (minuscules, sans accents),
+ * chacun annoté du nombre d'articles qui l'utilisent. Une saisie devient une plage du
+ * dictionnaire dont on garde les k tags les plus utilisés, sans requête SQL. Seuls les
+ * articles publiés comptent : un tag de brouillon ou d'article programmé n'est pas proposé.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagSuggestService {
+    static final int CHUNK_SIZE = 1000;
+
+    // Du plus utilisé au moins utilisé, puis par ordre alphabétique
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::usage).reversed()
+            .thenComparing(Suggestion::name);
+
+    private final PostRepository postRepository;
+
+    private volatile Dictionary dictionary = new Dictionary();
+    private volatile boolean ready;
+    private volatile boolean building;
+    // Articles modifiés pendant la construction, relus une fois le nouveau dictionnaire en place
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+    private record Suggestion(String name, int usage) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = prefix != null ? normalize(prefix) : "";
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Tas borné aux k meilleurs : sa tête est la moins bonne suggestion retenue
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(RANKING.reversed());
+        for (Dictionary.Usage usage : dictionary.range(key)) {
+            top.offer(new Suggestion(usage.name, usage.count));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Suggestion> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked.stream().map(Suggestion::name).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        building = true;
+        Dictionary rebuilt = new Dictionary();
+        try {
+            Long maxId = postRepository.findMaxId();
+            for (long afterId = 0; maxId != null && afterId < maxId; afterId += CHUNK_SIZE) {
+                Map<Long, List<String>> tagsByPost = new HashMap<>();
+                postRepository.findPublishedTagNamesByPostIdRange(afterId, afterId + CHUNK_SIZE)
+                        .forEach(row -> tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]));
+                tagsByPost.forEach(rebuilt::replace);
+            }
+            dictionary = rebuilt;
+            ready = true;
+        } finally {
+            building = false;
+        }
+
+        List<Long> changed = new ArrayList<>(changedWhileBuilding);
+        changedWhileBuilding.removeAll(changed);
+        changed.forEach(this::refresh);
+        log.info("Dictionnaire des tags construit : {} tags", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (building) {
+            changedWhileBuilding.add(event.postId());
+        }
+        try {
+            refresh(event.postId());
+        } catch (RuntimeException e) {
+            log.warn("Échec de la mise à jour des tags de l'article {}", event.postId(), e);
+        }
+    }
+
+    private void refresh(Long postId) {
+        // Un article dépublié ou supprimé n'a plus de tags : ses usages sont retirés
+        dictionary.replace(postId, postRepository.findPublishedTagNamesByPostId(postId));
+    }
+
+    static String normalize(String name) {
+        return TextAnalyzer.fold(name.trim());
+    }
+
+    /**
+     * Les lectures parcourent la liste triée sans verrou ; les écritures, rares, sont
+     * sérialisées pour que le calcul de différence par article reste cohérent.
+     */
+    private static final class Dictionary {
+        private final ConcurrentSkipListMap<String, Usage> tags = new ConcurrentSkipListMap<>();
+        private final Map<Long, Set<String>> tagsByPost = new HashMap<>();
+
+        private static final class Usage {
+            private final String name;
+            private volatile int count;
+
+            private Usage(String name) {
+                this.name = name;
+            }
+        }
+
+        Collection<Usage> range(String prefix) {
+            return tags.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        }
+
+        int size() {
+            return tags.size();
+        }
+
+        /**
+         * Remplace les tags connus de l'article et ajuste les compteurs de la seule différence.
+         */
+        synchronized void replace(Long postId, Collection<String> names) {
+            Map<String, String> current = new HashMap<>();
+            names.forEach(name -> current.putIfAbsent(normalize(name), name));
+            Set<String> previous = tagsByPost.getOrDefault(postId, Set.of());
+
+            for (String key : previous) {
+                if (!current.containsKey(key)) {
+                    Usage usage = tags.get(key);
+                    if (--usage.count <= 0) {
+                        tags.remove(key);
+                    }
+                }
+            }
+            current.forEach((key, name) -> {
+                if (!previous.contains(key)) {
+                    tags.computeIfAbsent(key, k -> new Usage(name)).count++;
+                }
+            });
+
+            if (current.isEmpty()) {
+                tagsByPost.remove(postId);
+            } else {
+                tagsByPost.put(postId, new HashSet<>(current.keySet()));
+            }
+        }
+    }
+}
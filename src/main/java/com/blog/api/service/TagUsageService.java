@@ -0,0 +1,39 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tient à jour Tag.usageCount (nombre d'articles portant le tag) quand les tags d'un
+ * article changent : seule la différence entre l'ancien et le nouvel ensemble est
+ * appliquée, en au plus deux UPDATE relatifs. Les dérives éventuelles sont corrigées par
+ * CounterReconciliationService.
+ */
+@Service
+@RequiredArgsConstructor
+public class TagUsageService {
+    private final TagRepository tagRepository;
+
+    /**
+     * À appeler dans la transaction qui modifie l'article ; before et after sont les
+     * identifiants de ses tags avant et après (vide pour une création ou une suppression).
+     */
+    public void applyChange(Collection<Long> before, Collection<Long> after) {
+        Set<Long> added = new HashSet<>(after);
+        added.removeAll(before);
+        Set<Long> removed = new HashSet<>(before);
+        removed.removeAll(after);
+
+        if (!added.isEmpty()) {
+            tagRepository.adjustUsageCounts(1, added);
+        }
+        if (!removed.isEmpty()) {
+            tagRepository.adjustUsageCounts(-1, removed);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.blog.api.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Découpe un texte en termes indexables : minuscules, accents retirés (« été » et « ete »
+ * donnent le même terme) et mots vides français écartés. Les positions comptent aussi les
+ * mots vides, pour qu'une recherche d'expression respecte l'écart réel entre les mots.
+ */
+final class TextAnalyzer {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    // Au-delà, il s'agit presque toujours d'une URL ou d'une image encodée, pas d'un mot
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "au", "aux", "avec", "c", "ce", "ces", "cet", "cette", "d", "dans", "de", "des", "du",
+        "elle", "en", "est", "et", "il", "ils", "j", "l", "la", "le", "les", "leur", "lui", "m",
+        "ma", "mais", "me", "mes", "n", "ne", "nos", "notre", "nous", "ou", "par", "pas", "pour",
+        "qu", "que", "qui", "s", "sa", "se", "ses", "son", "sont", "sur", "t", "ta", "te", "tes",
+        "ton", "tu", "un", "une", "vos", "votre", "vous", "y");
+
+    private TextAnalyzer() {
+    }
+
+    record Token(String term, int position) {
+    }
+
+    static List<Token> analyze(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        Matcher matcher = WORD.matcher(fold(text));
+        int position = 0;
+        while (matcher.find()) {
+            String term = matcher.group();
+            if (!STOP_WORDS.contains(term) && term.length() <= MAX_TERM_LENGTH) {
+                tokens.add(new Token(term, position));
+            }
+            position++;
+        }
+        return tokens;
+    }
+
+    /**
+     * Forme normalisée utilisée aussi bien à l'indexation qu'à la requête.
+     */
+    static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -0,0 +1,95 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.ThemeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thèmes servis depuis un ThemeSnapshot en mémoire plutôt que relus en base à chaque
+ * requête. Le snapshot est reconstruit en entier (deux requêtes) puis remplacé d'un bloc :
+ * immédiatement après le commit d'une écriture de thème, à la lecture suivante quand un
+ * article change (nombre d'articles par thème), et au plus tard après maxAge pour suivre
+ * les écritures faites sur les autres nœuds.
+ */
+@Slf4j
+@Service
+public class ThemeCatalog {
+    private final ThemeRepository themeRepository;
+    private final long maxAgeMillis;
+
+    // Incrémentée à chaque invalidation : un snapshot d'une génération antérieure est périmé
+    private final AtomicLong generation = new AtomicLong();
+    private volatile ThemeSnapshot snapshot;
+    private volatile long builtAt;
+
+    public ThemeCatalog(ThemeRepository themeRepository,
+                        @Value("${app.cache.themes.max-age:60s}") Duration maxAge) {
+        this.themeRepository = themeRepository;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    public ThemeSnapshot current() {
+        ThemeSnapshot current = snapshot;
+        if (current == null || current.getGeneration() != generation.get()
+                || System.currentTimeMillis() - builtAt > maxAgeMillis) {
+            return rebuild();
+        }
+        return current;
+    }
+
+    /**
+     * À appeler dans la transaction qui écrit un thème : le snapshot est reconstruit après
+     * son commit, pour ne jamais publier une écriture annulée.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Invalide de nouveau : une lecture pendant la transaction a pu reconstruire l'état d'avant
+                generation.incrementAndGet();
+                refresh();
+            }
+        });
+    }
+
+    // fallbackExecution : les écritures faites hors transaction sont prises en compte immédiatement
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Le snapshot reste périmé : la prochaine lecture le reconstruira
+            log.warn("Échec de la reconstruction du snapshot des thèmes", e);
+        }
+    }
+
+    private synchronized ThemeSnapshot rebuild() {
+        long target = generation.get();
+        ThemeSnapshot current = snapshot;
+        // Un autre thread vient de reconstruire pendant que celui-ci attendait le verrou
+        if (current != null && current.getGeneration() == target
+                && System.currentTimeMillis() - builtAt <= maxAgeMillis) {
+            return current;
+        }
+        ThemeSnapshot rebuilt = new ThemeSnapshot(themeRepository.findAll(), themeRepository.findVersionRows(), target);
+        builtAt = System.currentTimeMillis();
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+}
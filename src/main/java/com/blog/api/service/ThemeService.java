@@ -1,5 +1,6 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.ResourceVersion;
 import com.blog.api.dto.theme.ThemeRequest;
 import com.blog.api.dto.theme.ThemeResponse;
 import com.blog.api.entity.Theme;
@@ -9,24 +10,45 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ThemeService {
     private final ThemeRepository themeRepository;
+    private final ThemeCatalog themeCatalog;
 
     public List<ThemeResponse> getAllThemes() {
-        return themeRepository.findAll().stream()
-                .map(ThemeResponse::fromTheme)
-                .collect(Collectors.toList());
+        return themeCatalog.current().getThemes().stream()
+                .map(ThemeService::toResponse)
+                .toList();
     }
 
     public ThemeResponse getThemeById(Long id) {
-        Theme theme = themeRepository.findById(id)
+        return themeCatalog.current().findById(id)
+                .map(ThemeService::toResponse)
                 .orElseThrow(() -> new RuntimeException("Theme not found"));
+    }
 
-        return ThemeResponse.fromTheme(theme);
+    public ThemeResponse getThemeBySlug(String slug) {
+        return themeCatalog.current().findBySlug(slug)
+                .map(ThemeService::toResponse)
+                .orElseThrow(() -> new RuntimeException("Theme not found"));
+    }
+
+    public ResourceVersion getThemesVersion() {
+        return themeCatalog.current().getVersion();
+    }
+
+    public ResourceVersion getThemeVersion(Long id) {
+        return themeCatalog.current().getVersion(id)
+                .orElseThrow(() -> new RuntimeException("Theme not found"));
+    }
+
+    public ResourceVersion getThemeVersionBySlug(String slug) {
+        ThemeSnapshot snapshot = themeCatalog.current();
+        return snapshot.findBySlug(slug)
+                .flatMap(theme -> snapshot.getVersion(theme.id()))
+                .orElseThrow(() -> new RuntimeException("Theme not found"));
     }
 
     @Transactional
@@ -43,6 +65,7 @@ public class ThemeService {
         theme.setActive(request.isActive());
 
         Theme savedTheme = themeRepository.save(theme);
+        themeCatalog.invalidate();
         return ThemeResponse.fromTheme(savedTheme);
     }
 
@@ -62,6 +85,7 @@ public class ThemeService {
         theme.setActive(request.isActive());
 
         Theme updatedTheme = themeRepository.save(theme);
+        themeCatalog.invalidate();
         return ThemeResponse.fromTheme(updatedTheme);
     }
 
@@ -75,5 +99,21 @@ public class ThemeService {
         }
 
         themeRepository.delete(theme);
+        themeCatalog.invalidate();
+    }
+
+    // Réponse neuve à chaque appel : les entrées du snapshot sont partagées
+    private static ThemeResponse toResponse(ThemeSnapshot.Entry theme) {
+        ThemeResponse response = new ThemeResponse();
+        response.setId(theme.id());
+        response.setName(theme.name());
+        response.setDescription(theme.description());
+        response.setSlug(theme.slug());
+        response.setThumbnail(theme.thumbnail());
+        response.setActive(theme.active());
+        response.setPostsCount(Math.toIntExact(theme.postsCount()));
+        response.setCreatedAt(theme.createdAt());
+        response.setUpdatedAt(theme.updatedAt());
+        return response;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.blog.api.service;
+
+import com.blog.api.dto.ResourceVersion;
+import com.blog.api.entity.Theme;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * État figé de tous les thèmes, partagé sans verrou entre les lectures : liste dans l'ordre
+ * des identifiants, index par identifiant et par slug, et validateurs HTTP de la liste et de
+ * chaque thème. Jamais modifié après construction, il est remplacé en bloc par ThemeCatalog.
+ */
+public final class ThemeSnapshot {
+
+    public record Entry(Long id, String name, String description, String slug, String thumbnail,
+                        boolean active, long postsCount, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    private final List<Entry> themes;
+    private final Map<Long, Entry> byId;
+    private final Map<String, Entry> bySlug;
+    private final ResourceVersion version;
+    private final Map<Long, ResourceVersion> versionsById;
+    private final long generation;
+
+    /**
+     * themes et versionRows (id, updatedAt, nombre d'articles) sont lus en base au même
+     * moment ; generation est la génération d'invalidation lue avant ces lectures.
+     */
+    ThemeSnapshot(List<Theme> themes, List<Object[]> versionRows, long generation) {
+        Map<Long, Long> postCounts = new HashMap<>();
+        Map<Long, ResourceVersion> versionsById = new HashMap<>();
+        for (Object[] row : versionRows) {
+            postCounts.put((Long) row[0], ((Number) row[2]).longValue());
+            versionsById.put((Long) row[0], ResourceVersion.fromRows(List.<Object[]>of(row)));
+        }
+
+        List<Entry> entries = new ArrayList<>(themes.size());
+        Map<Long, Entry> byId = new HashMap<>();
+        Map<String, Entry> bySlug = new HashMap<>();
+        themes.stream()
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .forEach(theme -> {
+                    Entry entry = new Entry(theme.getId(), theme.getName(), theme.getDescription(), theme.getSlug(),
+                            theme.getThumbnail(), theme.isActive(), postCounts.getOrDefault(theme.getId(), 0L),
+                            theme.getCreatedAt(), theme.getUpdatedAt());
+                    entries.add(entry);
+                    byId.put(entry.id(), entry);
+                    if (entry.slug() != null) {
+                        bySlug.put(entry.slug(), entry);
+                    }
+                });
+
+        this.themes = Collections.unmodifiableList(entries);
+        this.byId = Collections.unmodifiableMap(byId);
+        this.bySlug = Collections.unmodifiableMap(bySlug);
+        // Mêmes lignes que le calcul en base : l'ETag est identique sur tous les nœuds au même état
+        this.version = ResourceVersion.fromRows(versionRows);
+        this.versionsById = Collections.unmodifiableMap(versionsById);
+        this.generation = generation;
+    }
+
+    public List<Entry> getThemes() {
+        return themes;
+    }
+
+    public Optional<Entry> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<Entry> findBySlug(String slug) {
+        return Optional.ofNullable(bySlug.get(slug));
+    }
+
+    public ResourceVersion getVersion() {
+        return version;
+    }
+
+    public Optional<ResourceVersion> getVersion(Long id) {
+        return Optional.ofNullable(versionsById.get(id));
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+}
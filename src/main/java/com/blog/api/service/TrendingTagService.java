@@ -0,0 +1,213 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tags tendance sur des fenêtres glissantes d'une heure, d'un jour et d'une semaine,
+ * alimentés par les tags attachés aux articles (création ou modification), les vues des
+ * articles et les recherches filtrées par tag.
+ *
+ * Chaque fenêtre est un anneau de tranches de temps ; chaque tranche tient un Count-Min
+ * Sketch (fréquence estimée de n'importe quel tag) et un Space-Saving (tags les plus
+ * fréquents de la tranche). Les candidats d'une fenêtre sont les tags suivis par ses
+ * tranches, classés par la somme de leurs estimations : la mémoire reste fixe (environ
+ * 2 Mo) quel que soit le nombre de tags ou d'événements. Compteurs propres à ce nœud,
+ * perdus au redémarrage.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingTagService {
+    static final int SKETCH_DEPTH = 4;
+    static final int SKETCH_WIDTH = 1024;
+    static final int TRACKED_TAGS = 100;
+    static final int MAX_RESULTS = 50;
+
+    public enum Window {
+        HOUR("1h", Duration.ofMinutes(5), 12),
+        DAY("24h", Duration.ofHours(1), 24),
+        WEEK("7d", Duration.ofHours(6), 28);
+
+        private final String label;
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(String label, Duration bucket, int buckets) {
+            this.label = label;
+            this.bucketMillis = bucket.toMillis();
+            this.buckets = buckets;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Window fromLabel(String label) {
+            return Arrays.stream(values())
+                    .filter(window -> window.label.equalsIgnoreCase(label))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Invalid window"));
+        }
+    }
+
+    public record TrendingTag(String name, long score) {
+    }
+
+    private final PostRepository postRepository;
+
+    private final Map<Window, SlidingWindow> windows = createWindows();
+
+    /**
+     * Tags nouvellement attachés à un article. Appelé dans la transaction qui les attache,
+     * ne compte qu'après son commit : une écriture annulée ne fait monter aucun tag.
+     */
+    public void recordAttachments(Collection<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return;
+        }
+        List<String> attached = List.copyOf(tagNames);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordNow(attached);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordNow(attached);
+            }
+        });
+    }
+
+    private void recordNow(List<String> tagNames) {
+        long now = System.currentTimeMillis();
+        tagNames.forEach(tag -> record(tag, 1, now));
+    }
+
+    public void recordSearch(String tagName) {
+        record(tagName, 1, System.currentTimeMillis());
+    }
+
+    /**
+     * Vues écrites en base depuis le dernier appel, par article ; chaque vue compte pour
+     * chacun des tags de l'article.
+     */
+    public void recordViews(Map<Long, Long> viewsByPost) {
+        if (viewsByPost.isEmpty()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            postRepository.findTagNamesByPostIds(viewsByPost.keySet())
+                    .forEach(row -> record((String) row[1], viewsByPost.getOrDefault((Long) row[0], 0L), now));
+        } catch (RuntimeException e) {
+            // Les tendances sont indicatives : ces vues sont simplement ignorées
+            log.warn("Échec de la prise en compte de {} articles vus dans les tags tendance", viewsByPost.size(), e);
+        }
+    }
+
+    public List<TrendingTag> getTrending(Window window, int limit) {
+        return getTrending(window, limit, System.currentTimeMillis());
+    }
+
+    List<TrendingTag> getTrending(Window window, int limit, long now) {
+        return windows.get(window).top(Math.min(Math.max(limit, 0), MAX_RESULTS), now);
+    }
+
+    // Noms comparés sans casse : la recherche par tag n'en tient pas compte non plus
+    void record(String tagName, long weight, long now) {
+        if (!StringUtils.hasText(tagName) || weight <= 0) {
+            return;
+        }
+        String tag = tagName.trim().toLowerCase(Locale.ROOT);
+        windows.values().forEach(window -> window.add(tag, weight, now));
+    }
+
+    private static Map<Window, SlidingWindow> createWindows() {
+        Map<Window, SlidingWindow> windows = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            windows.put(window, new SlidingWindow(window));
+        }
+        return windows;
+    }
+
+    private static final class SlidingWindow {
+        private final long bucketMillis;
+        // Numéro de la tranche de temps occupant chaque case de l'anneau, -1 si vide
+        private final long[] slots;
+        private final CountMinSketch[] sketches;
+        private final SpaceSaving[] heavyHitters;
+
+        SlidingWindow(Window window) {
+            this.bucketMillis = window.bucketMillis;
+            this.slots = new long[window.buckets];
+            this.sketches = new CountMinSketch[window.buckets];
+            this.heavyHitters = new SpaceSaving[window.buckets];
+            Arrays.fill(slots, -1);
+            for (int i = 0; i < window.buckets; i++) {
+                sketches[i] = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+                heavyHitters[i] = new SpaceSaving(TRACKED_TAGS);
+            }
+        }
+
+        synchronized void add(String tag, long weight, long now) {
+            long slot = now / bucketMillis;
+            int bucket = (int) (slot % slots.length);
+            if (slots[bucket] != slot) {
+                // Case réutilisée : la tranche qu'elle contenait est sortie de la fenêtre
+                sketches[bucket].clear();
+                heavyHitters[bucket].clear();
+                slots[bucket] = slot;
+            }
+            sketches[bucket].add(tag, weight);
+            heavyHitters[bucket].offer(tag, weight);
+        }
+
+        synchronized List<TrendingTag> top(int limit, long now) {
+            long current = now / bucketMillis;
+            Set<String> candidates = new HashSet<>();
+            for (int bucket = 0; bucket < slots.length; bucket++) {
+                if (live(bucket, current)) {
+                    candidates.addAll(heavyHitters[bucket].keys());
+                }
+            }
+
+            Map<String, Long> scores = new HashMap<>();
+            for (String tag : candidates) {
+                long score = 0;
+                for (int bucket = 0; bucket < slots.length; bucket++) {
+                    if (live(bucket, current)) {
+                        score += sketches[bucket].estimate(tag);
+                    }
+                }
+                scores.put(tag, score);
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> new TrendingTag(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+
+        private boolean live(int bucket, long current) {
+            return slots[bucket] > current - slots.length && slots[bucket] <= current;
+        }
+    }
+}
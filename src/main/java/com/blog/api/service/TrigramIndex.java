@@ -0,0 +1,159 @@
+package com.blog.api.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vocabulaire (termes des titres et des tags) indexé par trigrammes de caractères, pour
+ * retrouver les termes proches d'un mot mal orthographié : les termes partageant assez de
+ * trigrammes avec le mot sont candidats, puis vérifiés par une distance de Levenshtein bornée.
+ * Non synchronisé : l'index qui le possède sérialise les écritures.
+ */
+final class TrigramIndex {
+    private static final int GRAM = 3;
+    private static final char PAD = '$';
+
+    record Correction(String term, int distance, int frequency) {
+    }
+
+    // Nombre d'articles dont le titre ou les tags contiennent le terme
+    private final Map<String, Integer> frequencies = new HashMap<>();
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    void add(String term) {
+        if (frequencies.merge(term, 1, Integer::sum) == 1) {
+            for (String gram : grams(term)) {
+                termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    void remove(String term) {
+        Integer frequency = frequencies.get(term);
+        if (frequency == null) {
+            return;
+        }
+        if (frequency > 1) {
+            frequencies.put(term, frequency - 1);
+            return;
+        }
+        frequencies.remove(term);
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+    }
+
+    int size() {
+        return frequencies.size();
+    }
+
+    /**
+     * Termes du vocabulaire à au plus maxDistance modifications du terme, hors le terme
+     * lui-même, du plus proche au plus éloigné puis du plus fréquent au moins fréquent.
+     */
+    List<Correction> corrections(String term, int maxDistance, int limit) {
+        if (maxDistance <= 0 || limit <= 0) {
+            return List.of();
+        }
+
+        Set<String> grams = grams(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            for (String candidate : termsByGram.getOrDefault(gram, Set.of())) {
+                if (Math.abs(candidate.length() - term.length()) <= maxDistance) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+
+        // Une modification fait disparaître au plus GRAM trigrammes distincts du terme
+        int minShared = grams.size() - maxDistance * GRAM;
+        List<Correction> corrections = new ArrayList<>();
+        shared.forEach((candidate, count) -> {
+            if (count < minShared || candidate.equals(term)) {
+                return;
+            }
+            int distance = boundedDistance(term, candidate, maxDistance);
+            if (distance <= maxDistance) {
+                corrections.add(new Correction(candidate, distance, frequencies.get(candidate)));
+            }
+        });
+
+        corrections.sort(Comparator.comparingInt(Correction::distance)
+                .thenComparing(Comparator.comparingInt(Correction::frequency).reversed())
+                .thenComparing(Correction::term));
+        return corrections.size() > limit ? corrections.subList(0, limit) : corrections;
+    }
+
+    /**
+     * Tolérance selon la longueur, comme le mode AUTO des moteurs de recherche courants :
+     * aucune faute sous 3 lettres, une jusqu'à 5, deux au-delà.
+     */
+    static int maxDistance(String term) {
+        if (term.length() < 3) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Distance de Levenshtein, ou maxDistance + 1 dès qu'elle dépasse la borne. Seule la bande
+     * de largeur 2 × maxDistance + 1 autour de la diagonale est calculée, et le calcul s'arrête
+     * dès qu'une ligne entière dépasse la borne.
+     */
+    static int boundedDistance(String a, String b, int maxDistance) {
+        int over = maxDistance + 1;
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return over;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(b.length(), i + maxDistance);
+            current[from - 1] = from == 1 ? Math.min(i, over) : over;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                int deletion = previous[j] + 1;
+                int insertion = current[j - 1] + 1;
+                current[j] = Math.min(over, Math.min(substitution, Math.min(deletion, insertion)));
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = over;
+            }
+            if (rowMin > maxDistance) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    // Trigrammes du terme encadré d'un marqueur, pour que début et fin de mot comptent
+    private static Set<String> grams(String term) {
+        String padded = PAD + term + PAD;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
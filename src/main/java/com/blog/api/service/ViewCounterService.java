@@ -0,0 +1,198 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.PostRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumule les vues des articles en mémoire et les écrit périodiquement en base
+ * avec des UPDATE relatifs (view_count = view_count + ?), sans verrouiller la
+ * ligne de l'article à chaque lecture.
+ *
+ * Seuls les articles vus récemment occupent de la mémoire : l'accumulateur d'un article
+ * sans vue pendant tout un cycle est retiré au flush, et le total des vues enregistrées
+ * expire après une période sans lecture.
+ */
+@Slf4j
+@Service
+public class ViewCounterService {
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final TrendingTagService trendingTagService;
+
+    private final ConcurrentHashMap<Long, StripedCounter> pending = new ConcurrentHashMap<>();
+    // Vues retirées de l'accumulateur mais pas encore confirmées en base
+    private final ConcurrentHashMap<Long, AtomicLong> inFlight = new ConcurrentHashMap<>();
+    // Total des vues enregistrées par article, jamais remis à zéro tant que l'entrée vit
+    private final Cache<Long, LongAdder> recorded;
+
+    /**
+     * recordedRetention doit dépasser la durée de vie des entrées de PostCacheService
+     * (app.cache.posts.expire-after-write), qui mémorisent ce total au chargement.
+     */
+    public ViewCounterService(PostRepository postRepository,
+                              TrendingTagService trendingTagService,
+                              @Value("${app.views.recorded-retention:30m}") Duration recordedRetention) {
+        this.postRepository = postRepository;
+        this.trendingTagService = trendingTagService;
+        this.recorded = Caffeine.newBuilder()
+                .expireAfterAccess(recordedRetention)
+                .build();
+    }
+
+    public void recordView(Long postId) {
+        StripedCounter counter = pending.computeIfAbsent(postId, id -> new StripedCounter());
+        counter.increment();
+        if (counter.retired) {
+            // Accumulateur retiré par le flush entre-temps : l'incrément est reporté sur le nouveau
+            requeue(postId, counter.drain());
+        }
+        recorded.get(postId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Compteur monotone des vues enregistrées sur ce nœud : la différence entre deux
+     * lectures donne le nombre de vues intervenues entre-temps, flush ou pas. Repart de
+     * zéro pour un article resté sans lecture plus longtemps que la rétention.
+     */
+    public long getRecordedViews(Long postId) {
+        LongAdder views = recorded.getIfPresent(postId);
+        return views != null ? views.sum() : 0;
+    }
+
+    // Nombre d'articles dont l'accumulateur est en mémoire
+    int getTrackedCount() {
+        return pending.size();
+    }
+
+    public long getPendingViews(Long postId) {
+        StripedCounter counter = pending.get(postId);
+        AtomicLong flushing = inFlight.get(postId);
+        return (counter != null ? counter.sum() : 0) + (flushing != null ? flushing.get() : 0);
+    }
+
+    // Sans bail (JobLeaseService) : chaque nœud écrit les vues accumulées dans sa propre mémoire
+    @Scheduled(fixedDelayString = "${app.views.flush-interval:5000}")
+    public void flush() {
+        Map<Long, Long> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Un UPDATE par valeur de delta distincte : la plupart des articles partagent les mêmes petits deltas
+        Map<Long, List<Long>> idsByDelta = new HashMap<>();
+        deltas.forEach((postId, delta) -> idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(postId));
+
+        Map<Long, Long> written = new HashMap<>();
+        idsByDelta.forEach((delta, postIds) -> {
+            for (int from = 0; from < postIds.size(); from += FLUSH_CHUNK_SIZE) {
+                List<Long> chunk = postIds.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, postIds.size()));
+                try {
+                    postRepository.incrementViewCounts(Math.toIntExact(delta), chunk);
+                    chunk.forEach(postId -> {
+                        settle(postId, delta);
+                        written.put(postId, delta);
+                    });
+                } catch (RuntimeException e) {
+                    log.warn("Échec de l'écriture de {} compteurs de vues, nouvelle tentative au prochain cycle", chunk.size(), e);
+                    chunk.forEach(postId -> {
+                        settle(postId, delta);
+                        requeue(postId, delta);
+                    });
+                }
+            }
+        });
+        // Seules les vues écrites comptent : celles remises en attente reviendront au prochain cycle
+        trendingTagService.recordViews(written);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((postId, counter) -> {
+            long delta = counter.drain();
+            if (delta == 0 && pending.remove(postId, counter)) {
+                // Aucune vue depuis le dernier flush : l'accumulateur est retiré, et les
+                // incréments arrivés juste avant son retrait sont récupérés ici
+                counter.retired = true;
+                delta = counter.drain();
+            }
+            if (delta > 0) {
+                inFlight.computeIfAbsent(postId, id -> new AtomicLong()).addAndGet(delta);
+                deltas.put(postId, delta);
+            }
+        });
+        return deltas;
+    }
+
+    private void requeue(Long postId, long delta) {
+        if (delta > 0) {
+            pending.computeIfAbsent(postId, id -> new StripedCounter()).add(delta);
+        }
+    }
+
+    private void settle(Long postId, long delta) {
+        inFlight.computeIfPresent(postId, (id, flushing) -> flushing.addAndGet(-delta) == 0 ? null : flushing);
+    }
+
+    /**
+     * Compteur réparti sur plusieurs cases (à la manière de LongAdder) pour éviter la
+     * contention sur les articles populaires. Contrairement à LongAdder.sumThenReset,
+     * drain() est atomique case par case et ne perd aucun incrément concurrent.
+     */
+    static final class StripedCounter {
+        // 8 longs par case pour que deux cases ne partagent pas la même ligne de cache
+        private static final int PADDING = 8;
+        private static final int STRIPES = Math.min(16, Integer.highestOneBit(
+                Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+
+        private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+        // Positionné avant le dernier drain() du flush : qui incrémente ensuite reprend lui-même sa vue
+        volatile boolean retired;
+
+        void increment() {
+            add(1);
+        }
+
+        void add(long delta) {
+            int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+            cells.addAndGet(stripe * PADDING, delta);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                sum += cells.get(stripe * PADDING);
+            }
+            return sum;
+        }
+
+        long drain() {
+            long sum = 0;
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                sum += cells.getAndSet(stripe * PADDING, 0);
+            }
+            return sum;
+        }
+    }
+}
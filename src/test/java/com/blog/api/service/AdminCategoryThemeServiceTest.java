@@ -14,6 +14,8 @@ import com.blog.api.repository.*;
 class AdminCategoryThemeServiceTest {
     @Mock private CategoryRepository categoryRepository;
     @Mock private ThemeRepository themeRepository;
+    @Mock private CategoryCatalog categoryCatalog;
+    @Mock private ThemeCatalog themeCatalog;
     @InjectMocks private AdminCategoryThemeService service;
 
     @BeforeEach
@@ -44,8 +46,11 @@ class AdminCategoryThemeServiceTest {
     @Test
     void createCategory_success() {
         Category cat = new Category();
+        cat.setPath("/1/");
         when(categoryRepository.save(cat)).thenReturn(cat);
         assertEquals(cat, service.createCategory(cat));
+        assertNull(cat.getPath());
+        verify(categoryCatalog).updatePath(cat);
     }
 
     @Test
@@ -63,6 +68,7 @@ class AdminCategoryThemeServiceTest {
         when(categoryRepository.save(any())).thenReturn(cat);
         Category result = service.updateCategory(1L, updated);
         assertEquals("new", result.getName());
+        verify(categoryCatalog).updatePath(cat);
     }
 
     @Test
@@ -76,6 +82,7 @@ class AdminCategoryThemeServiceTest {
         when(categoryRepository.existsById(1L)).thenReturn(true);
         doNothing().when(categoryRepository).deleteById(1L);
         assertDoesNotThrow(() -> service.deleteCategory(1L));
+        verify(categoryCatalog).invalidate();
     }
 
     // Thèmes
@@ -105,12 +112,14 @@ class AdminCategoryThemeServiceTest {
         Theme theme = new Theme();
         when(themeRepository.save(theme)).thenReturn(theme);
         assertEquals(theme, service.createTheme(theme));
+        verify(themeCatalog).invalidate();
     }
 
     @Test
     void updateTheme_notFound_throwsException() {
         when(themeRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> service.updateTheme(1L, new Theme()));
+        verify(themeCatalog, never()).invalidate();
     }
 
     @Test
@@ -122,6 +131,8 @@ class AdminCategoryThemeServiceTest {
         when(themeRepository.save(any())).thenReturn(theme);
         Theme result = service.updateTheme(1L, updated);
         assertEquals("new", result.getName());
+        verify(themeCatalog).invalidate();
+        verify(themeCatalog).invalidate();
     }
 
     @Test
@@ -135,5 +146,6 @@ class AdminCategoryThemeServiceTest {
         when(themeRepository.existsById(1L)).thenReturn(true);
         doNothing().when(themeRepository).deleteById(1L);
         assertDoesNotThrow(() -> service.deleteTheme(1L));
+        verify(themeCatalog).invalidate();
     }
 } 
\ No newline at end of file
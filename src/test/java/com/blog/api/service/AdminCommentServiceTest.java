@@ -17,6 +17,7 @@ import static org.mockito.Mockito.*;
 
 class AdminCommentServiceTest {
     @Mock private CommentRepository commentRepository;
+    @Mock private CommentService commentService;
     @InjectMocks private AdminCommentService adminCommentService;
 
     @BeforeEach
@@ -44,7 +45,7 @@ class AdminCommentServiceTest {
 
     @Test
     void deleteComment_notFound_throwsException() {
-        when(commentRepository.existsById(1L)).thenReturn(false);
+        when(commentRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> adminCommentService.deleteComment(1L));
     }
 
@@ -68,8 +69,9 @@ class AdminCommentServiceTest {
 
     @Test
     void deleteComment_success() {
-        when(commentRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(commentRepository).deleteById(1L);
+        Comment comment = new Comment();
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
         assertDoesNotThrow(() -> adminCommentService.deleteComment(1L));
+        verify(commentService).removeComment(comment);
     }
 } 
\ No newline at end of file
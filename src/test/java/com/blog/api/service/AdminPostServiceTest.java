@@ -7,10 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import java.util.List;
 import java.util.Optional;
 import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.*;
@@ -18,6 +20,10 @@ import static org.mockito.Mockito.*;
 
 class AdminPostServiceTest {
     @Mock private PostRepository postRepository;
+    @Mock private PostCacheService postCacheService;
+    @Mock private TagUsageService tagUsageService;
+    @Mock private CategoryPostCountService categoryPostCountService;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private AdminPostService adminPostService;
 
     @BeforeEach
@@ -55,6 +61,7 @@ class AdminPostServiceTest {
         when(postRepository.save(any())).thenReturn(post);
         Post result = adminPostService.updatePost(1L, updated);
         assertEquals("new", result.getTitle());
+        verify(eventPublisher).publishEvent(new PostChangedEvent(1L));
     }
 
     @Test
@@ -71,6 +78,22 @@ class AdminPostServiceTest {
         verify(postRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    void deletePost_releasesTagUsage() {
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findTagIdsByPostId(1L)).thenReturn(List.of(3L, 4L));
+        adminPostService.deletePost(1L);
+        verify(tagUsageService).applyChange(List.of(3L, 4L), List.of());
+    }
+
+    @Test
+    void deletePost_releasesCategoryCount() {
+        when(postRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findCategoryIdByPostId(1L)).thenReturn(Optional.of(7L));
+        adminPostService.deletePost(1L);
+        verify(categoryPostCountService).applyChange(7L, null);
+    }
+
     @Test
     void setFeatured_postNotFound_throwsException() {
         when(postRepository.findById(1L)).thenReturn(Optional.empty());
@@ -0,0 +1,124 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Category;
+import com.blog.api.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CategoryCatalogTest {
+    @Mock private CategoryRepository categoryRepository;
+    private CategoryCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        catalog = new CategoryCatalog(categoryRepository, Duration.ofMinutes(1));
+    }
+
+    private Category category(Long id, Category parent, String path) {
+        Category category = new Category();
+        category.setId(id);
+        category.setSlug("c" + id);
+        category.setParent(parent);
+        category.setPath(path);
+        return category;
+    }
+
+    @Test
+    void current_wholeTreeFromOneQuery() {
+        Category root = category(1L, null, "/1/");
+        Category child = category(2L, root, "/1/2/");
+        Category grandChild = category(3L, child, "/1/2/3/");
+        when(categoryRepository.findAll()).thenReturn(List.of(grandChild, child, root));
+
+        CategorySnapshot snapshot = catalog.current();
+
+        assertEquals(1, snapshot.getRoots().size());
+        assertEquals(3L, snapshot.getRoots().get(0).children().get(0).children().get(0).id());
+        assertSame(snapshot, catalog.current());
+        verify(categoryRepository, times(1)).findAll();
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void onPostChanged_rebuiltOnNextRead() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        CategorySnapshot first = catalog.current();
+        catalog.onPostChanged(new PostChangedEvent(1L));
+        assertNotSame(first, catalog.current());
+    }
+
+    @Test
+    void updatePath_newRoot() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        Category category = category(5L, null, null);
+        catalog.updatePath(category);
+        assertEquals("/5/", category.getPath());
+        verify(categoryRepository, never()).movePaths(any(), any());
+    }
+
+    @Test
+    void updatePath_newChild_usesStoredParentPath() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(categoryRepository.findPathById(2L)).thenReturn(Optional.of("/1/2/"));
+        Category category = category(5L, category(2L, null, null), null);
+        catalog.updatePath(category);
+        assertEquals("/1/2/5/", category.getPath());
+    }
+
+    @Test
+    void updatePath_moved_subtreeMoved() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(categoryRepository.findPathById(7L)).thenReturn(Optional.of("/7/"));
+        Category category = category(5L, category(7L, null, null), "/1/2/5/");
+        catalog.updatePath(category);
+        assertEquals("/7/5/", category.getPath());
+        verify(categoryRepository).movePaths("/1/2/5/", "/7/5/");
+    }
+
+    @Test
+    void updatePath_underOwnDescendant_throwsException() {
+        when(categoryRepository.findPathById(9L)).thenReturn(Optional.of("/1/5/9/"));
+        Category category = category(5L, category(9L, null, null), "/1/5/");
+        assertThrows(RuntimeException.class, () -> catalog.updatePath(category));
+        verify(categoryRepository, never()).movePaths(any(), any());
+    }
+
+    @Test
+    void isDescendantOf_prefixComparison() {
+        Category root = category(1L, null, "/1/");
+        Category child = category(12L, root, "/1/12/");
+        Category other = category(123L, null, "/123/");
+        assertTrue(child.isDescendantOf(root));
+        assertFalse(root.isDescendantOf(root));
+        assertFalse(other.isDescendantOf(root));
+        assertEquals(List.of(1L), child.getAncestorIds());
+    }
+
+    @Test
+    void reconcilePaths_fillsMissingAndSkipsCycles() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        when(categoryRepository.findPathRows()).thenReturn(Arrays.asList(
+            new Object[]{1L, null, "/1/"},
+            new Object[]{2L, 1L, null},
+            new Object[]{3L, 2L, "/wrong/"},
+            new Object[]{4L, 5L, null},
+            new Object[]{5L, 4L, null}));
+
+        catalog.reconcilePaths();
+
+        verify(categoryRepository).updatePath(2L, "/1/2/");
+        verify(categoryRepository).updatePath(3L, "/1/2/3/");
+        verify(categoryRepository, never()).updatePath(eq(1L), any());
+        verify(categoryRepository, never()).updatePath(eq(4L), any());
+        verify(categoryRepository, never()).updatePath(eq(5L), any());
+    }
+}
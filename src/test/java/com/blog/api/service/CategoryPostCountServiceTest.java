@@ -0,0 +1,45 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import static org.mockito.Mockito.*;
+
+class CategoryPostCountServiceTest {
+    @Mock private CategoryRepository categoryRepository;
+    @InjectMocks private CategoryPostCountService service;
+
+    @BeforeEach
+    void setUp() { MockitoAnnotations.openMocks(this); }
+
+    @Test
+    void applyChange_created_incrementsNewCategory() {
+        service.applyChange(null, 3L);
+        verify(categoryRepository).adjustPostCount(1, 3L);
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void applyChange_deleted_decrementsOldCategory() {
+        service.applyChange(3L, null);
+        verify(categoryRepository).adjustPostCount(-1, 3L);
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void applyChange_moved_adjustsBothCategories() {
+        service.applyChange(3L, 4L);
+        verify(categoryRepository).adjustPostCount(-1, 3L);
+        verify(categoryRepository).adjustPostCount(1, 4L);
+    }
+
+    @Test
+    void applyChange_sameCategory_noUpdate() {
+        service.applyChange(3L, 3L);
+        service.applyChange(null, null);
+        verifyNoInteractions(categoryRepository);
+    }
+}
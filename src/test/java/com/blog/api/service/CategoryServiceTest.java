@@ -1,5 +1,6 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.ResourceVersion;
 import com.blog.api.dto.category.CategoryRequest;
 import com.blog.api.dto.category.CategoryResponse;
 import com.blog.api.entity.Category;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,25 +19,66 @@ import java.util.List;
 
 class CategoryServiceTest {
     @Mock private CategoryRepository categoryRepository;
+    @Mock private CategoryCatalog categoryCatalog;
     @InjectMocks private CategoryService categoryService;
 
     @BeforeEach
     void setUp() { MockitoAnnotations.openMocks(this); }
 
+    private Category category(Long id, String slug, Category parent, int displayOrder) {
+        Category category = new Category();
+        category.setId(id);
+        category.setSlug(slug);
+        category.setParent(parent);
+        category.setDisplayOrder(displayOrder);
+        category.setPostCount(0);
+        category.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(id));
+        return category;
+    }
+
+    private void givenCategories(Category... categories) {
+        when(categoryCatalog.current()).thenReturn(new CategorySnapshot(List.of(categories), 0));
+    }
+
     @Test
     void getAllCategories_success() {
-        Category cat = new Category();
-        when(categoryRepository.findByParentIsNull()).thenReturn(Collections.singletonList(cat));
+        Category root = category(1L, "root", null, 0);
+        givenCategories(root, category(2L, "child", root, 0));
         List<CategoryResponse> result = categoryService.getAllCategories();
         assertEquals(1, result.size());
+        assertEquals("child", result.get(0).getChildren().get(0).getSlug());
+        assertEquals(1L, result.get(0).getChildren().get(0).getParentId());
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void getAllCategories_sortedByDisplayOrder() {
+        Category root = category(1L, "root", null, 0);
+        givenCategories(root, category(2L, "b", root, 2), category(3L, "a", root, 1), category(4L, "other", null, -1));
+        List<CategoryResponse> result = categoryService.getAllCategories();
+        assertEquals(List.of("other", "root"), result.stream().map(CategoryResponse::getSlug).toList());
+        assertEquals(List.of("a", "b"), result.get(1).getChildren().stream().map(CategoryResponse::getSlug).toList());
     }
 
     @Test
     void getCategoryBySlug_notFound_throwsException() {
-        when(categoryRepository.findBySlug("slug")).thenReturn(Optional.empty());
+        givenCategories();
         assertThrows(RuntimeException.class, () -> categoryService.getCategoryBySlug("slug"));
     }
 
+    @Test
+    void getCategoriesVersion_stableUntilHierarchyChanges() {
+        Category root = category(1L, "root", null, 0);
+        Category child = category(2L, "child", root, 0);
+        Category moved = category(2L, "child", null, 0);
+        CategorySnapshot before = new CategorySnapshot(List.of(root, child), 0);
+        when(categoryCatalog.current()).thenReturn(before, before, new CategorySnapshot(List.of(root, moved), 1));
+        ResourceVersion first = categoryService.getCategoriesVersion();
+        assertEquals(first.getETag(), categoryService.getCategoriesVersion().getETag());
+        assertNotEquals(first.getETag(), categoryService.getCategoriesVersion().getETag());
+        assertEquals(child.getUpdatedAt(), first.getLastModified());
+    }
+
     @Test
     void createCategory_success() {
         CategoryRequest req = new CategoryRequest();
@@ -43,23 +86,28 @@ class CategoryServiceTest {
         req.setSlug("slug");
         when(categoryRepository.save(any())).thenReturn(new Category());
         assertDoesNotThrow(() -> categoryService.createCategory(req));
+        verify(categoryCatalog).updatePath(any());
     }
 
     @Test
     void getTopLevelCategories_success() {
-        Category cat = new Category();
-        org.springframework.data.domain.Page<com.blog.api.entity.Category> page = new org.springframework.data.domain.PageImpl<>(Collections.singletonList(cat));
-        when(categoryRepository.findRootCategories(any())).thenReturn(page);
+        List<Category> roots = new java.util.ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            roots.add(category(id, "root" + id, null, (int) id));
+        }
+        givenCategories(roots.toArray(new Category[0]));
         List<CategoryResponse> result = categoryService.getTopLevelCategories();
-        assertEquals(1, result.size());
+        assertEquals(10, result.size());
+        assertEquals("root1", result.get(0).getSlug());
     }
 
     @Test
     void getCategoryBySlug_success() {
-        Category cat = new Category();
-        when(categoryRepository.findBySlug("slug")).thenReturn(Optional.of(cat));
+        Category root = category(1L, "root", null, 0);
+        givenCategories(root, category(2L, "slug", root, 0));
         CategoryResponse resp = categoryService.getCategoryBySlug("slug");
-        assertNotNull(resp);
+        assertEquals(2L, resp.getId());
+        assertNull(resp.getChildren());
     }
 
     @Test
@@ -113,6 +161,7 @@ class CategoryServiceTest {
         when(categoryRepository.existsBySlug(any())).thenReturn(false);
         CategoryResponse resp = categoryService.updateCategory(1L, req);
         assertNotNull(resp);
+        verify(categoryCatalog).updatePath(cat);
     }
 
     @Test
@@ -137,6 +186,7 @@ class CategoryServiceTest {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(cat));
         doNothing().when(categoryRepository).delete(cat);
         assertDoesNotThrow(() -> categoryService.deleteCategory(1L));
+        verify(categoryCatalog).invalidate();
     }
 
     @Test
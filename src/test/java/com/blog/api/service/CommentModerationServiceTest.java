@@ -17,6 +17,7 @@ class CommentModerationServiceTest {
     @Mock private com.blog.api.repository.CommentRepository commentRepository;
     @Mock private com.blog.api.repository.UserRepository userRepository;
     @Mock private NotificationService notificationService;
+    @Mock private CommentService commentService;
     @InjectMocks private CommentModerationService service;
 
     @BeforeEach
@@ -105,6 +106,7 @@ class CommentModerationServiceTest {
         when(commentRepository.save(any())).thenReturn(comment);
         doNothing().when(notificationService).createNotification(any(), any(), any(), any(), any());
         assertDoesNotThrow(() -> service.rejectComment(1L, "mod", "reason"));
+        verify(commentService).updatePostCommentCount(comment, true);
     }
 
     @Test
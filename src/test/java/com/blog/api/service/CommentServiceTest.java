@@ -28,6 +28,7 @@ class CommentServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private NotificationService notificationService;
     @Mock private GlobalStatisticsService globalStatisticsService;
+    @Mock private PostCacheService postCacheService;
     @InjectMocks private CommentService commentService;
 
     @BeforeEach
@@ -133,6 +134,7 @@ class CommentServiceTest {
         CommentResponse resp = commentService.createComment(1L, req, "user");
         assertNotNull(resp);
         verify(notificationService, times(1)).createNotification(eq(postAuthor), any(), any(), any(), any());
+        verify(postRepository).adjustCommentCount(1L, 1);
     }
 
     @Test
@@ -296,6 +298,9 @@ class CommentServiceTest {
         author.setUsername("author");
         author.setRoles(new String[]{"ROLE_USER"});
         comment.setAuthor(author);
+        Post post = new Post();
+        post.setId(5L);
+        comment.setPost(post);
         when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
         User admin = new User();
         admin.setId(2L);
@@ -304,6 +309,28 @@ class CommentServiceTest {
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
         doNothing().when(globalStatisticsService).decrementComments();
         assertDoesNotThrow(() -> commentService.deleteComment(1L, "admin"));
+        verify(postRepository).adjustCommentCount(5L, -1);
+        verify(postCacheService).invalidate(5L);
+    }
+
+    @Test
+    void updatePostCommentCount_rejected_decrements() {
+        Post post = new Post();
+        post.setId(5L);
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setStatus(Comment.ModerationStatus.REJECTED);
+        commentService.updatePostCommentCount(comment, true);
+        verify(postRepository).adjustCommentCount(5L, -1);
+        verify(postCacheService).invalidate(5L);
+    }
+
+    @Test
+    void updatePostCommentCount_stillCounted_noUpdate() {
+        Comment comment = new Comment();
+        comment.setStatus(Comment.ModerationStatus.APPROVED);
+        commentService.updatePostCommentCount(comment, true);
+        verify(postRepository, never()).adjustCommentCount(any(), anyInt());
     }
 
     @Test
@@ -0,0 +1,41 @@
+package com.blog.api.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate_neverUnderestimates_andStaysCloseOnSkewedStream() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 50_000; i++) {
+            // Loi approximativement de Zipf : quelques clés très fréquentes, beaucoup de rares
+            String key = "tag-" + (int) Math.floor(Math.pow(5000, random.nextDouble()));
+            sketch.add(key, 1);
+            exact.merge(key, 1L, Long::sum);
+            total++;
+        }
+
+        long bound = (long) (Math.E / 1024 * total);
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue());
+            assertTrue(estimate - entry.getValue() <= bound, entry.getKey());
+        }
+    }
+
+    @Test
+    void add_returnsNewEstimate_andClearResets() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        assertEquals(3, sketch.add("java", 3));
+        assertEquals(5, sketch.add("java", 2));
+        sketch.clear();
+        assertEquals(0, sketch.estimate("java"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.CategoryRepository;
+import com.blog.api.repository.PostRepository;
+import com.blog.api.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CounterReconciliationServiceTest {
+    @Mock private PostRepository postRepository;
+    @Mock private PostCacheService postCacheService;
+    @Mock private TagRepository tagRepository;
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private CategoryCatalog categoryCatalog;
+    @Mock private JobLeaseService jobLeaseService;
+    @InjectMocks private CounterReconciliationService service;
+
+    @BeforeEach
+    void setUp() { MockitoAnnotations.openMocks(this); }
+
+    @Test
+    void reconcile_leaseHeldElsewhere_nothingScanned() {
+        when(jobLeaseService.runExclusively(eq(CounterReconciliationService.RECONCILIATION_JOB), any(), any(), any())).thenReturn(false);
+        service.reconcile();
+        verify(postRepository, never()).findMaxId();
+        verify(tagRepository, never()).findMaxId();
+    }
+
+    @Test
+    void reconcile_leaseAcquired_allCountersScanned() {
+        when(jobLeaseService.runExclusively(eq(CounterReconciliationService.RECONCILIATION_JOB), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                invocation.<Runnable>getArgument(3).run();
+                return true;
+            });
+        service.reconcile();
+        verify(postRepository, times(2)).findMaxId();
+        verify(tagRepository).findMaxId();
+        verify(categoryRepository).findMaxId();
+    }
+
+    @Test
+    void reconcileCommentCounts_noPosts_noQuery() {
+        when(postRepository.findMaxId()).thenReturn(null);
+        assertEquals(0, service.reconcileCommentCounts());
+        verify(postRepository, never()).findCommentCountDrift(any(), any());
+    }
+
+    @Test
+    void reconcileCommentCounts_scansByChunk_andFixesDriftedOnly() {
+        long maxId = CounterReconciliationService.CHUNK_SIZE + 10;
+        when(postRepository.findMaxId()).thenReturn(maxId);
+        when(postRepository.findCommentCountDrift(0L, (long) CounterReconciliationService.CHUNK_SIZE))
+            .thenReturn(Collections.emptyList());
+        when(postRepository.findCommentCountDrift((long) CounterReconciliationService.CHUNK_SIZE, 2L * CounterReconciliationService.CHUNK_SIZE))
+            .thenReturn(List.of(1005L));
+
+        assertEquals(1, service.reconcileCommentCounts());
+
+        verify(postRepository, times(2)).findCommentCountDrift(any(), any());
+        verify(postRepository, times(1)).recountComments(any());
+        verify(postRepository).recountComments(List.of(1005L));
+        verify(postCacheService).invalidate(1005L);
+    }
+
+    @Test
+    void reconcileReactionCounts_fixesDriftedPosts() {
+        when(postRepository.findMaxId()).thenReturn(20L);
+        when(postRepository.findReactionCountDrift(0L, (long) CounterReconciliationService.CHUNK_SIZE))
+            .thenReturn(List.of(3L, 7L));
+
+        assertEquals(2, service.reconcileReactionCounts());
+
+        verify(postRepository).recountReactions(List.of(3L, 7L));
+        verify(postRepository, never()).recountComments(any());
+        verify(postCacheService).invalidate(3L);
+        verify(postCacheService).invalidate(7L);
+    }
+
+    @Test
+    void reconcileRange_fixesCommentAndReactionDriftOfRange() {
+        when(postRepository.findCommentCountDrift(2000L, 4000L)).thenReturn(List.of(2500L));
+        when(postRepository.findReactionCountDrift(2000L, 4000L)).thenReturn(List.of(2500L, 3100L));
+
+        assertEquals(3, service.reconcileRange(2000L, 4000L));
+
+        verify(postRepository, never()).findMaxId();
+        verify(postRepository).recountComments(List.of(2500L));
+        verify(postRepository).recountReactions(List.of(2500L, 3100L));
+        verify(postCacheService, times(2)).invalidate(2500L);
+        verify(postCacheService).invalidate(3100L);
+    }
+
+    @Test
+    void reconcileTagUsageCounts_scansTagIdsAndRecountsDrifted() {
+        when(tagRepository.findMaxId()).thenReturn(15L);
+        when(tagRepository.findUsageCountDrift(0L, (long) CounterReconciliationService.CHUNK_SIZE))
+            .thenReturn(List.of(4L));
+
+        assertEquals(1, service.reconcileTagUsageCounts());
+
+        verify(tagRepository).recountUsage(List.of(4L));
+        verify(postRepository, never()).findMaxId();
+        verifyNoInteractions(postCacheService);
+    }
+
+    @Test
+    void reconcileCategoryPostCounts_recountsDriftedAndRebuildsTreeOnce() {
+        when(categoryRepository.findMaxId()).thenReturn(8L);
+        when(categoryRepository.findPostCountDrift(0L, (long) CounterReconciliationService.CHUNK_SIZE))
+            .thenReturn(List.of(2L, 5L));
+
+        assertEquals(2, service.reconcileCategoryPostCounts());
+
+        verify(categoryRepository).recountPosts(List.of(2L, 5L));
+        verify(categoryCatalog, times(1)).invalidate();
+    }
+
+    @Test
+    void reconcileCategoryPostCounts_noDrift_treeKept() {
+        when(categoryRepository.findMaxId()).thenReturn(8L);
+        when(categoryRepository.findPostCountDrift(any(), any())).thenReturn(Collections.emptyList());
+
+        assertEquals(0, service.reconcileCategoryPostCounts());
+
+        verify(categoryRepository, never()).recountPosts(any());
+        verifyNoInteractions(categoryCatalog);
+    }
+
+    @Test
+    void initializeCategoryPostCounts_countsNullRowsOnly() {
+        when(categoryRepository.findMaxId()).thenReturn(8L);
+        when(categoryRepository.findUninitializedPostCounts(0L, (long) CounterReconciliationService.CHUNK_SIZE))
+            .thenReturn(List.of(3L));
+
+        service.initializeCategoryPostCounts();
+
+        verify(categoryRepository).recountPosts(List.of(3L));
+        verify(categoryRepository, never()).findPostCountDrift(any(), any());
+        verify(categoryCatalog).invalidate();
+    }
+
+    @Test
+    void initializeCategoryPostCounts_alreadyInitialized_treeKept() {
+        when(categoryRepository.findMaxId()).thenReturn(8L);
+        when(categoryRepository.findUninitializedPostCounts(any(), any())).thenReturn(Collections.emptyList());
+
+        service.initializeCategoryPostCounts();
+
+        verify(categoryRepository, never()).recountPosts(any());
+        verifyNoInteractions(categoryCatalog);
+    }
+}
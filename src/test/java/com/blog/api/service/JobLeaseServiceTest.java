@@ -0,0 +1,98 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.JobLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JobLeaseServiceTest {
+    @Mock private JobLeaseRepository jobLeaseRepository;
+    private JobLeaseService service;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new JobLeaseService(jobLeaseRepository, "node-a");
+    }
+
+    @Test
+    void runExclusively_expiredLease_runsAndShortensLease() {
+        when(jobLeaseRepository.acquireExpired(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertTrue(service.runExclusively("job", Duration.ofMinutes(10), Duration.ofMinutes(5), runs::incrementAndGet));
+
+        assertEquals(1, runs.get());
+        verify(jobLeaseRepository, never()).insertLease(any(), any(), any(), any());
+        ArgumentCaptor<LocalDateTime> lockedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobLeaseRepository).release(eq("job"), eq("node-a"), lockedAt.capture(), until.capture());
+        assertEquals(lockedAt.getValue().plusMinutes(5), until.getValue());
+    }
+
+    @Test
+    void runExclusively_firstRun_createsLease() {
+        when(jobLeaseRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.insertLease(eq("job"), eq("node-a"), any(), any())).thenReturn(1);
+
+        assertTrue(service.runExclusively("job", Duration.ofMinutes(10), Duration.ZERO, runs::incrementAndGet));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void runExclusively_leaseHeldElsewhere_skipped() {
+        // Ligne présente et bail valide : l'INSERT viole la clé primaire (traduit en DuplicateKeyException)
+        when(jobLeaseRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.insertLease(any(), any(), any(), any()))
+            .thenThrow(new DuplicateKeyException("Duplicate entry 'job' for key 'PRIMARY'"));
+
+        assertFalse(service.runExclusively("job", Duration.ofMinutes(10), Duration.ZERO, runs::incrementAndGet));
+        assertEquals(0, runs.get());
+        verify(jobLeaseRepository, never()).release(any(), any(), any(), any());
+    }
+
+    @Test
+    void runExclusively_concurrentCreation_skipped() {
+        when(jobLeaseRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.insertLease(any(), any(), any(), any()))
+            .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertFalse(service.runExclusively("job", Duration.ofMinutes(10), Duration.ZERO, runs::incrementAndGet));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void runExclusively_databaseUnavailable_propagates() {
+        when(jobLeaseRepository.acquireExpired(any(), any(), any(), any())).thenReturn(0);
+        when(jobLeaseRepository.insertLease(any(), any(), any(), any()))
+            .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+            () -> service.runExclusively("job", Duration.ofMinutes(10), Duration.ZERO, runs::incrementAndGet));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void runExclusively_taskFails_leaseReleased() {
+        when(jobLeaseRepository.acquireExpired(any(), any(), any(), any())).thenReturn(1);
+
+        assertThrows(RuntimeException.class, () -> service.runExclusively("job", Duration.ofMinutes(10), Duration.ZERO,
+            () -> { throw new RuntimeException("boom"); }));
+        verify(jobLeaseRepository).release(eq("job"), eq("node-a"), any(), any());
+    }
+
+    @Test
+    void constructor_noNodeId_defaultsToProcessName() {
+        assertFalse(new JobLeaseService(jobLeaseRepository, "").getNodeId().isBlank());
+    }
+}
@@ -0,0 +1,73 @@
+package com.blog.api.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.BitSet;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostBitmapTest {
+
+    private static PostBitmap bitmap(BitSet reference) {
+        PostBitmap bitmap = new PostBitmap();
+        reference.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static BitSet random(Random random, int bound, int count) {
+        BitSet set = new BitSet();
+        for (int i = 0; i < count; i++) {
+            set.set(random.nextInt(bound));
+        }
+        return set;
+    }
+
+    @Test
+    void addRemoveContains_acrossContainerConversions() {
+        PostBitmap bitmap = new PostBitmap();
+        // Dépasse le seuil du tableau pour forcer le passage en bitmap, puis redescend
+        for (int i = 0; i < 10_000; i += 2) {
+            bitmap.add(i);
+        }
+        bitmap.add(70_000);
+        assertEquals(5_001, bitmap.cardinality());
+        assertTrue(bitmap.contains(9_998));
+        assertFalse(bitmap.contains(9_999));
+        assertTrue(bitmap.contains(70_000));
+
+        for (int i = 0; i < 9_000; i += 2) {
+            bitmap.remove(i);
+        }
+        assertEquals(501, bitmap.cardinality());
+        assertFalse(bitmap.contains(0));
+        assertTrue(bitmap.contains(9_000));
+
+        bitmap.remove(70_000);
+        bitmap.add(9_000);
+        assertEquals(500, bitmap.cardinality());
+        assertFalse(bitmap.isEmpty());
+    }
+
+    @Test
+    void setOperations_matchBitSet() {
+        Random random = new Random(42);
+        for (int[] sizes : new int[][]{{100, 200}, {6_000, 50}, {20_000, 30_000}, {0, 10}}) {
+            BitSet left = random(random, 200_000, sizes[0]);
+            BitSet right = random(random, 200_000, sizes[1]);
+            PostBitmap a = bitmap(left);
+            PostBitmap b = bitmap(right);
+
+            BitSet and = (BitSet) left.clone();
+            and.and(right);
+            BitSet or = (BitSet) left.clone();
+            or.or(right);
+
+            assertEquals(and.cardinality(), a.andCardinality(b));
+            assertEquals(and.cardinality(), a.and(b).cardinality());
+            assertEquals(or.cardinality(), a.or(b).cardinality());
+            or.stream().limit(500).forEach(value -> assertTrue(a.or(b).contains(value)));
+            // Les opérations ne modifient pas leurs opérandes
+            assertEquals(left.cardinality(), a.cardinality());
+            assertEquals(right.cardinality(), b.cardinality());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.blog.api.service;
+
+import com.blog.api.dto.post.PostResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PostCacheServiceTest {
+    @Mock private ViewCounterService viewCounterService;
+    private PostCacheService postCacheService;
+    private AtomicInteger loads;
+    private Function<Long, PostResponse> loader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        postCacheService = new PostCacheService(viewCounterService, 1024 * 1024, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            PostResponse response = new PostResponse();
+            response.setId(id);
+            response.setTitle("title " + loads.get());
+            response.setViewCount(10);
+            return response;
+        };
+    }
+
+    @Test
+    void get_secondRead_servedFromCache() {
+        postCacheService.get(1L, loader);
+        PostResponse second = postCacheService.get(1L, loader);
+        assertEquals(1, loads.get());
+        assertEquals("title 1", second.getTitle());
+        assertEquals(1L, postCacheService.getStats().get("hitCount"));
+        assertEquals(1L, postCacheService.getStats().get("missCount"));
+    }
+
+    @Test
+    void get_returnsCopy() {
+        postCacheService.get(1L, loader).setTitle("modified");
+        assertEquals("title 1", postCacheService.get(1L, loader).getTitle());
+    }
+
+    @Test
+    void get_overlaysViewsRecordedSinceLoad() {
+        when(viewCounterService.getRecordedViews(1L)).thenReturn(5L);
+        postCacheService.get(1L, loader);
+        when(viewCounterService.getRecordedViews(1L)).thenReturn(8L);
+        assertEquals(13, postCacheService.get(1L, loader).getViewCount());
+    }
+
+    @Test
+    void get_recordedViewsExpired_neverBelowLoadedCount() {
+        when(viewCounterService.getRecordedViews(1L)).thenReturn(5L);
+        postCacheService.get(1L, loader);
+        when(viewCounterService.getRecordedViews(1L)).thenReturn(1L);
+        assertEquals(10, postCacheService.get(1L, loader).getViewCount());
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        postCacheService.get(1L, loader);
+        postCacheService.invalidate(1L);
+        PostResponse reloaded = postCacheService.get(1L, loader);
+        assertEquals(2, loads.get());
+        assertEquals("title 2", reloaded.getTitle());
+    }
+
+    @Test
+    void invalidate_insideTransaction_bumpsAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postCacheService.invalidate(1L);
+            // Lecture concurrente de l'état non commité
+            postCacheService.get(1L, loader);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        postCacheService.get(1L, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_loaderFailure_notCached() {
+        assertThrows(RuntimeException.class, () -> postCacheService.get(1L, id -> {
+            throw new RuntimeException("Post not found");
+        }));
+        postCacheService.get(1L, loader);
+        assertEquals(1, loads.get());
+    }
+}
@@ -1,13 +1,18 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.ResourceVersion;
+import com.blog.api.dto.post.CursorPage;
+import com.blog.api.dto.post.PostCardResponse;
 import com.blog.api.dto.post.PostCreateRequest;
+import com.blog.api.dto.post.PostCursor;
 import com.blog.api.dto.post.PostResponse;
+import com.blog.api.entity.Category;
 import com.blog.api.entity.Post;
+import com.blog.api.entity.Tag;
 import com.blog.api.entity.Theme;
 import com.blog.api.entity.User;
 import com.blog.api.repository.PostRepository;
 import com.blog.api.repository.ReactionRepository;
-import com.blog.api.repository.TagRepository;
 import com.blog.api.repository.ThemeRepository;
 import com.blog.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,13 +20,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import java.util.Arrays;
@@ -31,47 +42,115 @@ class PostServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private ThemeRepository themeRepository;
     @Mock private ReactionRepository reactionRepository;
-    @Mock private TagRepository tagRepository;
+    @Mock private TagDictionary tagDictionary;
     @Mock private GlobalStatisticsService globalStatisticsService;
+    @Mock private ViewCounterService viewCounterService;
+    @Mock private PostCacheService postCacheService;
+    @Mock private SearchService searchService;
+    @Mock private TrendingTagService trendingTagService;
+    @Mock private TagUsageService tagUsageService;
+    @Mock private CategoryPostCountService categoryPostCountService;
+    @Mock private ThemeCatalog themeCatalog;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private PostService postService;
 
     @BeforeEach
-    void setUp() { MockitoAnnotations.openMocks(this); }
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Cache transparent : chaque lecture appelle le chargeur
+        when(postCacheService.get(any(), any())).thenAnswer(invocation -> {
+            Function<Long, PostResponse> loader = invocation.getArgument(1);
+            return loader.apply(invocation.getArgument(0));
+        });
+    }
 
     @Test
     void getAllPosts_success() {
-        Post post = new Post();
-        User author = new User();
-        author.setId(1L);
-        post.setAuthor(author);
-        when(postRepository.findAllOrderByCreatedAtDesc(any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Collections.singletonList(post)));
-        when(reactionRepository.countLikesByPost(post)).thenReturn(1L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(0L);
-        Page<PostResponse> result = postService.getAllPosts(Pageable.unpaged());
+        PostCardResponse card = new PostCardResponse();
+        card.setId(1L);
+        card.setLikeCount(1);
+        when(postRepository.findCardsOrderByCreatedAtDesc(any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(card)));
+        Page<PostCardResponse> result = postService.getAllPosts(Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getContent().get(0).getLikeCount());
+        verifyNoInteractions(reactionRepository);
+    }
+
+    @Test
+    void getPostFeed_firstPage_returnsNextCursorWithoutCount() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 16, 10, 30);
+        List<PostCardResponse> cards = new java.util.ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            PostCardResponse card = new PostCardResponse();
+            card.setId(id);
+            card.setCreatedAt(createdAt);
+            cards.add(card);
+        }
+        when(postRepository.findCardsAfterCursor(isNull(), isNull(), eq(PageRequest.of(0, 3)))).thenReturn(cards);
+
+        CursorPage<PostCardResponse> feed = postService.getPostFeed("", 2);
+
+        assertEquals(2, feed.getContent().size());
+        assertTrue(feed.isHasNext());
+        PostCursor next = PostCursor.decode(feed.getNextCursor());
+        assertEquals(createdAt, next.getCreatedAt());
+        assertEquals(2L, next.getId());
+        verify(postRepository, never()).count();
+    }
+
+    @Test
+    void getPostFeed_withCursor_seeksAfterPosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 16, 10, 30);
+        String cursor = new PostCursor(createdAt, 42L).encode();
+        when(postRepository.findCardsAfterCursor(eq(createdAt), eq(42L), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(new PostCardResponse()));
+
+        CursorPage<PostCardResponse> feed = postService.getPostFeed(cursor, 20);
+
+        assertEquals(1, feed.getContent().size());
+        assertFalse(feed.isHasNext());
+        assertNull(feed.getNextCursor());
+    }
+
+    @Test
+    void getPostFeed_invalidCursor_throwsException() {
+        assertThrows(RuntimeException.class, () -> postService.getPostFeed("not-a-cursor", 20));
+    }
+
+    private void givenThemes(Long... ids) {
+        List<Theme> themes = new ArrayList<>();
+        for (Long id : ids) {
+            Theme theme = new Theme();
+            theme.setId(id);
+            themes.add(theme);
+        }
+        when(themeCatalog.current()).thenReturn(new ThemeSnapshot(themes, Collections.emptyList(), 0));
+    }
+
+    @Test
+    void getPostFeedByTheme_themeNotFound_throwsException() {
+        givenThemes(2L);
+        assertThrows(RuntimeException.class, () -> postService.getPostFeedByTheme(1L, "", 20));
+        verify(themeRepository, never()).existsById(any());
     }
 
     @Test
     void getPostsByTheme_themeNotFound_throwsException() {
-        when(themeRepository.findById(1L)).thenReturn(Optional.empty());
+        givenThemes();
         assertThrows(RuntimeException.class, () -> postService.getPostsByTheme(1L, Pageable.unpaged()));
     }
 
     @Test
     void getPostsByTheme_success() {
+        givenThemes(1L);
         Theme theme = new Theme();
-        when(themeRepository.findById(1L)).thenReturn(Optional.of(theme));
-        Post post = new Post();
-        User author = new User();
-        author.setId(1L);
-        post.setAuthor(author);
-        when(postRepository.findByTheme(eq(theme), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Collections.singletonList(post)));
-        when(reactionRepository.countLikesByPost(post)).thenReturn(1L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(0L);
-        Page<PostResponse> result = postService.getPostsByTheme(1L, Pageable.unpaged());
+        when(themeRepository.getReferenceById(1L)).thenReturn(theme);
+        when(postRepository.findCardsByTheme(eq(theme), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(new PostCardResponse())));
+        Page<PostCardResponse> result = postService.getPostsByTheme(1L, Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
+        verify(themeRepository, never()).findById(any());
     }
 
     @Test
@@ -85,13 +164,9 @@ class PostServiceTest {
         User author = new User();
         author.setId(1L);
         when(userRepository.findByUsername("user")).thenReturn(Optional.of(author));
-        Post post = new Post();
-        post.setAuthor(author);
-        when(postRepository.findByAuthor(eq(author), any(Pageable.class)))
-            .thenReturn(new PageImpl<>(Collections.singletonList(post)));
-        when(reactionRepository.countLikesByPost(post)).thenReturn(1L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(0L);
-        Page<PostResponse> result = postService.getPostsByAuthor("user", Pageable.unpaged());
+        when(postRepository.findCardsByAuthor(eq(author), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(new PostCardResponse())));
+        Page<PostCardResponse> result = postService.getPostsByAuthor("user", Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
     }
 
@@ -127,6 +202,83 @@ class PostServiceTest {
         assertThrows(RuntimeException.class, () -> postService.createPost(req, "author"));
     }
 
+    @Test
+    void createPost_withTags_recordsTrendingAttachments() {
+        PostCreateRequest req = new PostCreateRequest();
+        req.setThemeId(1L);
+        req.setTitle("title");
+        req.setContent("contenu");
+        req.setTags(List.of("java", "spring", "java"));
+        User author = new User();
+        author.setUsername("author");
+        when(userRepository.findByUsername("author")).thenReturn(Optional.of(author));
+        when(themeRepository.findById(1L)).thenReturn(Optional.of(new Theme()));
+        Tag java = new Tag();
+        java.setId(7L);
+        Tag spring = new Tag();
+        spring.setId(8L);
+        when(tagDictionary.resolve(List.of("java", "spring", "java"))).thenReturn(List.of(java, spring));
+        when(postRepository.save(any())).thenAnswer(invocation -> {
+            Post saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+
+        postService.createPost(req, "author");
+
+        verify(trendingTagService).recordAttachments(List.of("java", "spring"));
+        verify(tagUsageService).applyChange(List.of(), List.of(7L, 8L));
+    }
+
+    @Test
+    void updatePost_withTags_recordsOnlyNewlyAttachedTags() {
+        Post post = new Post();
+        post.setId(1L);
+        User author = new User();
+        author.setUsername("author");
+        post.setAuthor(author);
+        Tag java = new Tag();
+        java.setId(7L);
+        java.setName("java");
+        post.getTags().add(java);
+        Tag kotlin = new Tag();
+        kotlin.setId(9L);
+        PostCreateRequest req = new PostCreateRequest();
+        req.setThemeId(1L);
+        req.setTags(List.of("Java", "kotlin"));
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(userRepository.findByUsername("author")).thenReturn(Optional.of(author));
+        when(themeRepository.findById(1L)).thenReturn(Optional.of(new Theme()));
+        when(tagDictionary.resolve(List.of("Java", "kotlin"))).thenReturn(List.of(java, kotlin));
+        when(postRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        postService.updatePost(1L, req, "author");
+
+        verify(tagUsageService).applyChange(List.of(7L), List.of(7L, 9L));
+        verify(trendingTagService).recordAttachments(List.of("kotlin"));
+        // Changement limité à la table de jointure : la date de modification est repoussée
+        assertNotNull(post.getUpdatedAt());
+    }
+
+    @Test
+    void updatePost_withoutTags_keepsTags() {
+        Post post = new Post();
+        post.setId(1L);
+        User author = new User();
+        author.setUsername("author");
+        post.setAuthor(author);
+        PostCreateRequest req = new PostCreateRequest();
+        req.setThemeId(1L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(userRepository.findByUsername("author")).thenReturn(Optional.of(author));
+        when(themeRepository.findById(1L)).thenReturn(Optional.of(new Theme()));
+        when(postRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        postService.updatePost(1L, req, "author");
+
+        verifyNoInteractions(tagDictionary, tagUsageService, trendingTagService);
+    }
+
     @Test
     void updatePost_accessDenied_throwsException() {
         Post post = new Post();
@@ -198,6 +350,31 @@ class PostServiceTest {
         assertThrows(AccessDeniedException.class, () -> postService.deletePost(1L, "otheruser"));
     }
 
+    @Test
+    void deletePost_success_invalidatesCache() {
+        Post post = new Post();
+        post.setId(1L);
+        User author = new User();
+        author.setId(10L);
+        author.setUsername("testuser");
+        author.setRoles(new String[]{"ROLE_USER"});
+        post.setAuthor(author);
+        Tag tag = new Tag();
+        tag.setId(5L);
+        post.getTags().add(tag);
+        Category category = new Category();
+        category.setId(7L);
+        post.setCategory(category);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(author));
+        postService.deletePost(1L, "testuser");
+        verify(tagUsageService).applyChange(List.of(5L), List.of());
+        verify(categoryPostCountService).applyChange(7L, null);
+        verify(postRepository).delete(post);
+        verify(postCacheService).invalidate(1L);
+        verify(eventPublisher).publishEvent(new PostChangedEvent(1L));
+    }
+
     @Test
     void deletePost_postNotFound_throwsException() {
         when(postRepository.findById(99L)).thenReturn(Optional.empty());
@@ -239,28 +416,37 @@ class PostServiceTest {
     }
 
     @Test
-    void updatePostFromRequest_tagsNonNull_tagExists() throws Exception {
+    void updatePostFromRequest_tagsNonNull_replacesTags() throws Exception {
         Post post = new Post();
+        com.blog.api.entity.Tag old = new com.blog.api.entity.Tag();
+        old.setId(1L);
+        old.setName("tag1");
+        post.getTags().add(old);
         PostCreateRequest req = new PostCreateRequest();
-        req.setTags(java.util.Arrays.asList("tag1"));
-        com.blog.api.entity.Tag tag = new com.blog.api.entity.Tag();
-        tag.setName("tag1");
-        when(tagRepository.findByName("tag1")).thenReturn(Optional.of(tag));
+        req.setTags(java.util.Arrays.asList("tag1", "tag2"));
+        com.blog.api.entity.Tag tag1 = new com.blog.api.entity.Tag();
+        tag1.setId(1L);
+        com.blog.api.entity.Tag tag2 = new com.blog.api.entity.Tag();
+        tag2.setId(2L);
+        when(tagDictionary.resolve(req.getTags())).thenReturn(List.of(tag1, tag2));
         java.lang.reflect.Method m = PostService.class.getDeclaredMethod("updatePostFromRequest", Post.class, PostCreateRequest.class);
         m.setAccessible(true);
         m.invoke(postService, post, req);
+        assertEquals(List.of(tag1, tag2), post.getTags());
+        verify(tagUsageService).applyChange(List.of(1L), List.of(1L, 2L));
+        verify(trendingTagService).recordAttachments(List.of("tag2"));
     }
 
     @Test
-    void updatePostFromRequest_tagsNonNull_tagNotExists() throws Exception {
+    void updatePostFromRequest_tagsNull_keepsTags() throws Exception {
         Post post = new Post();
-        PostCreateRequest req = new PostCreateRequest();
-        req.setTags(java.util.Arrays.asList("tag2"));
-        when(tagRepository.findByName("tag2")).thenReturn(Optional.empty());
-        when(tagRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        com.blog.api.entity.Tag old = new com.blog.api.entity.Tag();
+        post.getTags().add(old);
         java.lang.reflect.Method m = PostService.class.getDeclaredMethod("updatePostFromRequest", Post.class, PostCreateRequest.class);
         m.setAccessible(true);
-        m.invoke(postService, post, req);
+        m.invoke(postService, post, new PostCreateRequest());
+        assertEquals(List.of(old), post.getTags());
+        verifyNoInteractions(tagDictionary, tagUsageService);
     }
 
     @Test
@@ -283,20 +469,79 @@ class PostServiceTest {
     }
 
     @Test
-    void getPostById_success_incrementsViewCount() {
+    void getPostById_success_recordsViewWithoutWrite() {
         Post post = new Post();
         post.setId(1L);
-        post.setViewCount(0);
+        post.setViewCount(10);
         User author = new User();
         author.setId(1L);
         post.setAuthor(author);
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(reactionRepository.countLikesByPost(post)).thenReturn(0L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(0L);
-        when(postRepository.save(any())).thenReturn(post);
+        when(viewCounterService.getPendingViews(1L)).thenReturn(3L);
+        PostResponse resp = postService.getPostById(1L);
+        verify(viewCounterService).recordView(1L);
+        verify(postRepository, never()).save(any());
+        assertEquals(10, post.getViewCount());
+        assertEquals(14, resp.getViewCount());
+    }
+
+    @Test
+    void getPostById_cacheHit_skipsRepository() {
+        PostResponse cached = new PostResponse();
+        cached.setId(1L);
+        cached.setViewCount(42);
+        doReturn(cached).when(postCacheService).get(eq(1L), any());
         PostResponse resp = postService.getPostById(1L);
-        assertEquals(1, post.getViewCount());
-        assertNotNull(resp);
+        verify(postRepository, never()).findById(any());
+        verify(viewCounterService).recordView(1L);
+        assertEquals(43, resp.getViewCount());
+    }
+
+    @Test
+    void getPostVersion_readsValidatorRowOnly() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(postRepository.findVersionRowById(1L))
+            .thenReturn(Collections.singletonList(new Object[]{updatedAt, null, null, 1L, 0L, 2L}));
+        ResourceVersion version = postService.getPostVersion(1L);
+        assertNotNull(version.getETag());
+        assertEquals(updatedAt, version.getLastModified());
+        verify(postRepository, never()).findById(any());
+        verify(postCacheService, never()).get(any(), any());
+    }
+
+    @Test
+    void getPostVersion_tagsChangedOnly_changesETag() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(postRepository.findVersionRowById(1L))
+            .thenReturn(Collections.singletonList(new Object[]{updatedAt, null, null, 1L, 0L, 2L}));
+        when(postRepository.findGalleryImagesById(1L)).thenReturn(List.of("a.png"));
+        when(postRepository.findVersionTagRowsById(1L)).thenReturn(List.<Object[]>of(new Object[]{7L, "java"}));
+        ResourceVersion before = postService.getPostVersion(1L);
+
+        when(postRepository.findVersionTagRowsById(1L))
+            .thenReturn(List.<Object[]>of(new Object[]{7L, "java"}, new Object[]{9L, "kotlin"}));
+        ResourceVersion after = postService.getPostVersion(1L);
+
+        assertNotEquals(before.getETag(), after.getETag());
+        assertEquals(before.getLastModified(), after.getLastModified());
+    }
+
+    @Test
+    void getPostVersion_galleryChangedOnly_changesETag() {
+        when(postRepository.findVersionRowById(1L))
+            .thenReturn(Collections.singletonList(new Object[]{LocalDateTime.of(2024, 1, 1, 12, 0), null, null, 1L, 0L, 2L}));
+        when(postRepository.findGalleryImagesById(1L)).thenReturn(List.of("a.png"));
+        ResourceVersion before = postService.getPostVersion(1L);
+
+        when(postRepository.findGalleryImagesById(1L)).thenReturn(List.of("a.png", "b.png"));
+
+        assertNotEquals(before.getETag(), postService.getPostVersion(1L).getETag());
+    }
+
+    @Test
+    void getPostVersion_notFound_throwsException() {
+        when(postRepository.findVersionRowById(99L)).thenReturn(Collections.emptyList());
+        assertThrows(RuntimeException.class, () -> postService.getPostVersion(99L));
     }
 
     @Test
@@ -306,21 +551,19 @@ class PostServiceTest {
     }
 
     @Test
-    void searchPosts_success() {
-        Post post = new Post();
-        User author = new User();
-        author.setId(1L);
-        post.setAuthor(author);
-        when(postRepository.searchByKeyword(eq("test"), any())).thenReturn(new PageImpl<>(Collections.singletonList(post)));
-        when(reactionRepository.countLikesByPost(post)).thenReturn(0L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(0L);
+    void searchPosts_delegatesToSearchService() {
+        PostResponse response = new PostResponse();
+        response.setLikeCount(1);
+        when(searchService.searchPosts(eq("test"), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), any()))
+            .thenReturn(new PageImpl<>(Collections.singletonList(response)));
         Page<PostResponse> result = postService.searchPosts("test", Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getContent().get(0).getLikeCount());
     }
 
     @Test
     void searchPosts_noResults() {
-        when(postRepository.searchByKeyword(eq("none"), any())).thenReturn(Page.empty());
+        when(searchService.searchPosts(eq("none"), any(), any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
         Page<PostResponse> result = postService.searchPosts("none", Pageable.unpaged());
         assertEquals(0, result.getTotalElements());
     }
@@ -332,8 +575,6 @@ class PostServiceTest {
         author.setId(1L);
         post.setAuthor(author);
         when(postRepository.findAllByOrderByCreatedAtDesc()).thenReturn(Collections.singletonList(post));
-        when(reactionRepository.countLikesByPost(post)).thenReturn(0L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(0L);
         List<PostResponse> result = postService.getAllPostsAsList();
         assertEquals(1, result.size());
     }
@@ -368,19 +609,6 @@ class PostServiceTest {
         assertTrue(ex.getCause().getMessage().contains("Theme not found"));
     }
 
-    @Test
-    void updatePostFromRequest_tagsNonNull_tagAlreadyExists() throws Exception {
-        Post post = new Post();
-        PostCreateRequest req = new PostCreateRequest();
-        req.setTags(Arrays.asList("tag1"));
-        com.blog.api.entity.Tag tag = new com.blog.api.entity.Tag();
-        tag.setName("tag1");
-        when(tagRepository.findByName("tag1")).thenReturn(Optional.of(tag));
-        java.lang.reflect.Method m = PostService.class.getDeclaredMethod("updatePostFromRequest", Post.class, PostCreateRequest.class);
-        m.setAccessible(true);
-        m.invoke(postService, post, req);
-    }
-
     @Test
     void updatePost_accessAdmin_success() {
         Post post = new Post();
@@ -0,0 +1,82 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.entity.User;
+import com.blog.api.repository.PostRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PostStreamingServiceTest {
+    @Mock private PostRepository postRepository;
+    @Mock private EntityManager entityManager;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private PostStreamingService postStreamingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        postStreamingService = new PostStreamingService(postRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    void streamAllPosts_writesOneJsonLinePerPost() throws Exception {
+        Post liked = post(1L);
+        liked.setLikeCount(4);
+        when(postRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.of(liked, post(2L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        postStreamingService.streamAllPosts(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals(4, first.get("likeCount").asLong());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("likeCount").asLong());
+    }
+
+    @Test
+    void streamAllPosts_flushesAndClearsContextPerChunk() throws Exception {
+        int total = PostStreamingService.CHUNK_SIZE * 2 + 1;
+        when(postRepository.streamAllByOrderByCreatedAtDesc())
+            .thenReturn(LongStream.rangeClosed(1, total).mapToObj(this::post));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        postStreamingService.streamAllPosts(out);
+
+        assertEquals(total, out.toString(StandardCharsets.UTF_8).split("\n").length);
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void streamAllPosts_emptyArchive_writesNothing() throws Exception {
+        when(postRepository.streamAllByOrderByCreatedAtDesc()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        postStreamingService.streamAllPosts(out);
+        assertEquals(0, out.size());
+        verifyNoInteractions(entityManager);
+    }
+
+    private Post post(long id) {
+        Post post = new Post();
+        post.setId(id);
+        User author = new User();
+        author.setId(1L);
+        post.setAuthor(author);
+        return post;
+    }
+}
@@ -1,6 +1,7 @@
 package com.blog.api.service;
 
 import com.blog.api.dto.reaction.ReactionRequest;
+import com.blog.api.dto.reaction.ReactionResponse;
 import com.blog.api.entity.Post;
 import com.blog.api.entity.Reaction;
 import com.blog.api.entity.User;
@@ -21,6 +22,7 @@ class ReactionServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private PostRepository postRepository;
     @Mock private GlobalStatisticsService globalStatisticsService;
+    @Mock private PostCacheService postCacheService;
     @InjectMocks private ReactionService reactionService;
 
     @BeforeEach
@@ -56,6 +58,7 @@ class ReactionServiceTest {
         reaction.setPost(post); // Ajouté
         when(reactionRepository.save(any())).thenReturn(reaction);
         assertDoesNotThrow(() -> reactionService.addReaction(1L, req, "user"));
+        verify(postRepository).adjustReactionCounts(1L, 1, 0);
     }
 
     @Test
@@ -82,8 +85,24 @@ class ReactionServiceTest {
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
         when(reactionRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(reaction));
         doNothing().when(globalStatisticsService).decrementLikes();
-        doNothing().when(reactionRepository).deleteByUserAndPost(user, post);
+        when(reactionRepository.removeById(any())).thenReturn(1);
         assertDoesNotThrow(() -> reactionService.deleteReaction(1L, "user"));
+        verify(postRepository).adjustReactionCounts(1L, -1, 0);
+    }
+
+    @Test
+    void deleteReaction_concurrentlyDeleted_noDecrement() {
+        User user = new User();
+        Post post = new Post();
+        Reaction reaction = new Reaction();
+        reaction.setType(Reaction.ReactionType.LIKE);
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(reactionRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(reaction));
+        when(reactionRepository.removeById(any())).thenReturn(0);
+        reactionService.deleteReaction(1L, "user");
+        verify(postRepository, never()).adjustReactionCounts(any(), anyInt(), anyInt());
+        verify(globalStatisticsService, never()).decrementLikes();
     }
 
     @Test
@@ -95,10 +114,12 @@ class ReactionServiceTest {
     @Test
     void getReactionStats_success() {
         Post post = new Post();
+        post.setLikeCount(2);
+        post.setDislikeCount(1);
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(reactionRepository.countByPostAndType(post, Reaction.ReactionType.LIKE)).thenReturn(2L);
-        when(reactionRepository.countByPostAndType(post, Reaction.ReactionType.DISLIKE)).thenReturn(1L);
-        assertDoesNotThrow(() -> reactionService.getReactionStats(1L));
+        var stats = reactionService.getReactionStats(1L);
+        assertEquals(2, stats.getLikesCount());
+        verify(reactionRepository, never()).countByPostAndType(any(), any());
     }
 
     @Test
@@ -163,15 +184,41 @@ class ReactionServiceTest {
         User user = new User();
         Post post = new Post();
         Reaction existing = new Reaction();
+        existing.setId(7L);
+        existing.setType(Reaction.ReactionType.DISLIKE);
         existing.setUser(user);
         existing.setPost(post);
         when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
         when(reactionRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(existing));
-        when(reactionRepository.save(any())).thenReturn(existing);
+        when(reactionRepository.switchType(eq(7L), eq(Reaction.ReactionType.DISLIKE), eq(Reaction.ReactionType.LIKE), any()))
+            .thenReturn(1);
         doNothing().when(globalStatisticsService).incrementLikes();
-        assertDoesNotThrow(() -> reactionService.addReaction(1L, req, "user"));
+        ReactionResponse response = reactionService.addReaction(1L, req, "user");
+        assertEquals(Reaction.ReactionType.LIKE, response.getType());
         verify(globalStatisticsService, times(1)).incrementLikes();
+        verify(globalStatisticsService, times(1)).decrementDislikes();
+        verify(postRepository).adjustReactionCounts(1L, 0, -1);
+        verify(postRepository).adjustReactionCounts(1L, 1, 0);
+        verify(reactionRepository, never()).save(any());
+    }
+
+    @Test
+    void addReaction_sameType_noCounterChange() {
+        ReactionRequest req = new ReactionRequest();
+        req.setType(Reaction.ReactionType.LIKE);
+        User user = new User();
+        Post post = new Post();
+        Reaction existing = new Reaction();
+        existing.setType(Reaction.ReactionType.LIKE);
+        existing.setUser(user);
+        existing.setPost(post);
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(reactionRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(existing));
+        reactionService.addReaction(1L, req, "user");
+        verify(postRepository, never()).adjustReactionCounts(any(), anyInt(), anyInt());
+        verify(globalStatisticsService, never()).incrementLikes();
     }
 
     @Test
@@ -184,7 +231,7 @@ class ReactionServiceTest {
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
         when(reactionRepository.findByUserAndPost(user, post)).thenReturn(Optional.of(reaction));
         doNothing().when(globalStatisticsService).decrementDislikes();
-        doNothing().when(reactionRepository).deleteByUserAndPost(user, post);
+        when(reactionRepository.removeById(any())).thenReturn(1);
         assertDoesNotThrow(() -> reactionService.deleteReaction(1L, "user"));
         verify(globalStatisticsService, times(1)).decrementDislikes();
     }
@@ -196,8 +243,8 @@ class ReactionServiceTest {
         when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
         when(reactionRepository.findByUserAndPost(user, post)).thenReturn(Optional.empty());
-        doNothing().when(reactionRepository).deleteByUserAndPost(user, post);
         assertDoesNotThrow(() -> reactionService.deleteReaction(1L, "user"));
+        verify(reactionRepository, never()).removeById(any());
         verify(globalStatisticsService, never()).decrementLikes();
         verify(globalStatisticsService, never()).decrementDislikes();
     }
@@ -206,8 +253,6 @@ class ReactionServiceTest {
     void getReactionStats_zeroRatio() {
         Post post = new Post();
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(reactionRepository.countByPostAndType(post, Reaction.ReactionType.LIKE)).thenReturn(0L);
-        when(reactionRepository.countByPostAndType(post, Reaction.ReactionType.DISLIKE)).thenReturn(0L);
         assertDoesNotThrow(() -> {
             var stats = reactionService.getReactionStats(1L);
             assertEquals(0.0, stats.getLikeRatio());
@@ -0,0 +1,127 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReindexServiceTest {
+    @Mock private PostRepository postRepository;
+    @Mock private SearchIndexService searchIndexService;
+    @Mock private SimilarPostsService similarPostsService;
+    @Mock private CounterReconciliationService counterReconciliationService;
+    @Mock private EntityManager entityManager;
+    @Mock private PlatformTransactionManager transactionManager;
+    private ReindexService reindexService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reindexService = new ReindexService(postRepository, searchIndexService, similarPostsService,
+                counterReconciliationService, entityManager, transactionManager, 2);
+    }
+
+    private Post post(Long id, String title) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setContent("contenu");
+        post.setStatus(Post.Status.PUBLISHED);
+        return post;
+    }
+
+    private Map<String, Object> awaitCompletion() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        Map<String, Object> status = reindexService.getStatus().orElseThrow();
+        while (status.get("state") == ReindexService.State.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = reindexService.getStatus().orElseThrow();
+        }
+        return status;
+    }
+
+    @Test
+    void getStatus_beforeFirstRun_isEmpty() {
+        assertTrue(reindexService.getStatus().isEmpty());
+    }
+
+    @Test
+    void start_reindexesEachPartitionAndInstallsMergedResults() throws InterruptedException {
+        long partition = ReindexService.PARTITION_SIZE;
+        when(postRepository.findMaxId()).thenReturn(partition + 1);
+        when(postRepository.findTagNamesByPostIdRange(0L, partition)).thenReturn(List.<Object[]>of(new Object[]{1L, "Java"}));
+        when(postRepository.streamByIdRange(0L, partition)).thenReturn(Stream.of(post(1L, "Premier article")));
+        when(postRepository.streamByIdRange(partition, 2 * partition)).thenReturn(Stream.of(post(partition + 1, "Second article")));
+        when(similarPostsService.loadFeatures(0L, partition)).thenReturn(Map.of(1L, Set.of(3L)));
+        when(similarPostsService.loadFeatures(partition, 2 * partition)).thenReturn(Map.of(partition + 1, Set.of(3L)));
+        when(counterReconciliationService.reconcileRange(0L, partition)).thenReturn(1);
+
+        reindexService.start();
+        Map<String, Object> status = awaitCompletion();
+
+        assertEquals(ReindexService.State.COMPLETED, status.get("state"));
+        assertEquals(2, status.get("partitions"));
+        assertEquals(2, status.get("completedPartitions"));
+        assertEquals(2L, status.get("postsProcessed"));
+        assertEquals(1, status.get("countersFixed"));
+        assertNotNull(status.get("finishedAt"));
+
+        ArgumentCaptor<InvertedIndex> index = ArgumentCaptor.forClass(InvertedIndex.class);
+        verify(searchIndexService).beginRebuild();
+        verify(searchIndexService).install(index.capture(), any(LocalDateTime.class));
+        assertEquals(Set.of(1L, partition + 1), index.getValue().ids());
+        verify(similarPostsService).replaceAll(Map.of(1L, Set.of(3L), partition + 1, Set.of(3L)));
+        verify(counterReconciliationService).reconcileRange(partition, 2 * partition);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void start_partitionFailure_keepsCurrentIndexes() throws InterruptedException {
+        when(postRepository.findMaxId()).thenReturn(10L);
+        when(postRepository.streamByIdRange(0L, (long) ReindexService.PARTITION_SIZE))
+                .thenThrow(new RuntimeException("connexion perdue"));
+
+        reindexService.start();
+        Map<String, Object> status = awaitCompletion();
+
+        assertEquals(ReindexService.State.FAILED, status.get("state"));
+        assertEquals("connexion perdue", status.get("error"));
+        verify(searchIndexService).abortRebuild();
+        verify(similarPostsService).abortRebuild();
+        verify(searchIndexService, never()).install(any(), any());
+        verify(similarPostsService, never()).replaceAll(any());
+    }
+
+    @Test
+    void start_whileRunning_returnsRunningJob() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(postRepository.findMaxId()).thenReturn(10L);
+        when(postRepository.streamByIdRange(anyLong(), anyLong())).thenReturn(Stream.empty());
+        when(counterReconciliationService.reconcileRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+
+        reindexService.start();
+        Map<String, Object> second = reindexService.start();
+        release.countDown();
+
+        assertEquals(ReindexService.State.RUNNING, second.get("state"));
+        verify(postRepository, times(1)).findMaxId();
+        assertEquals(ReindexService.State.COMPLETED, awaitCompletion().get("state"));
+    }
+}
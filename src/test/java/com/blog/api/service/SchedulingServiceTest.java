@@ -2,41 +2,157 @@ package com.blog.api.service;
 
 import com.blog.api.entity.Post;
 import com.blog.api.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.*;
 
 class SchedulingServiceTest {
     @Mock PostRepository postRepository;
+    @Mock PostCacheService postCacheService;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock JobLeaseService jobLeaseService;
     @InjectMocks SchedulingService schedulingService;
     @BeforeEach
-    void setUp() { MockitoAnnotations.openMocks(this); }
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jobLeaseService.runExclusively(any(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return true;
+        });
+    }
+
+    @AfterEach
+    void tearDown() { schedulingService.stop(); }
 
     @Test
-    void publishScheduledPosts_postsToPublish_success() {
-        Post post = new Post();
-        post.setId(1L);
-        post.setTitle("Titre");
-        post.setStatus(Post.Status.SCHEDULED);
-        post.setPublishedAt(LocalDateTime.now().minusMinutes(5));
-        when(postRepository.findByStatusAndPublishedAtBefore(eq(Post.Status.SCHEDULED), any())).thenReturn(List.of(post));
-        when(postRepository.save(any())).thenReturn(post);
+    void publishScheduledPosts_duePosts_publishedInOneUpdate() {
+        when(postRepository.findDueScheduledIds(eq(Post.Status.SCHEDULED), any())).thenReturn(List.of(1L, 2L));
+        when(postRepository.publishScheduled(eq(List.of(1L, 2L)), any(), eq(Post.Status.SCHEDULED), eq(Post.Status.PUBLISHED))).thenReturn(2);
         schedulingService.publishScheduledPosts();
-        assertEquals(Post.Status.PUBLISHED, post.getStatus());
-        verify(postRepository, times(1)).save(post);
+        verify(postRepository, times(1)).publishScheduled(any(), any(), any(), any());
+        verify(postCacheService).invalidate(1L);
+        verify(postCacheService).invalidate(2L);
+        verify(eventPublisher).publishEvent(new PostChangedEvent(1L));
+        verify(eventPublisher).publishEvent(new PostChangedEvent(2L));
     }
 
     @Test
     void publishScheduledPosts_noPosts_nothingHappens() {
-        when(postRepository.findByStatusAndPublishedAtBefore(eq(Post.Status.SCHEDULED), any())).thenReturn(Collections.emptyList());
+        when(postRepository.findDueScheduledIds(eq(Post.Status.SCHEDULED), any())).thenReturn(Collections.emptyList());
         schedulingService.publishScheduledPosts();
-        verify(postRepository, never()).save(any());
+        verify(postRepository, never()).publishScheduled(any(), any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void publishScheduledPosts_leaseHeldElsewhere_nothingPublished() {
+        doReturn(false).when(jobLeaseService).runExclusively(eq(SchedulingService.SWEEP_JOB), any(), any(), any());
+        schedulingService.publishScheduledPosts();
+        verify(postRepository, never()).findDueScheduledIds(any(), any());
+        verify(postRepository, never()).publishScheduled(any(), any(), any(), any());
+    }
+
+    @Test
+    void onPostChanged_scheduledPost_tracked() {
+        when(postRepository.findScheduleById(1L))
+                .thenReturn(List.<Object[]>of(new Object[]{Post.Status.SCHEDULED, LocalDateTime.now().plusDays(1)}));
+        schedulingService.onPostChanged(new PostChangedEvent(1L));
+        assertEquals(1, schedulingService.getPendingCount());
+    }
+
+    @Test
+    void onPostChanged_noLongerScheduled_cancelled() {
+        schedulingService.schedule(1L, LocalDateTime.now().plusDays(1));
+        when(postRepository.findScheduleById(1L))
+                .thenReturn(List.<Object[]>of(new Object[]{Post.Status.DRAFT, null}));
+        schedulingService.onPostChanged(new PostChangedEvent(1L));
+        assertEquals(0, schedulingService.getPendingCount());
+    }
+
+    @Test
+    void onPostChanged_deletedPost_cancelled() {
+        schedulingService.schedule(1L, LocalDateTime.now().plusDays(1));
+        when(postRepository.findScheduleById(1L)).thenReturn(Collections.emptyList());
+        schedulingService.onPostChanged(new PostChangedEvent(1L));
+        assertEquals(0, schedulingService.getPendingCount());
+    }
+
+    @Test
+    void onPostChanged_repositoryFails_ignored() {
+        when(postRepository.findScheduleById(1L)).thenThrow(new RuntimeException("DB down"));
+        schedulingService.onPostChanged(new PostChangedEvent(1L));
+        assertEquals(0, schedulingService.getPendingCount());
+    }
+
+    @Test
+    void start_dueSchedule_publishedByPublisherThread() {
+        when(postRepository.findSchedules(Post.Status.SCHEDULED))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LocalDateTime.now().plusNanos(50_000_000)}));
+        when(postRepository.publishScheduled(any(), any(), any(), any())).thenReturn(1);
+        schedulingService.start();
+        verify(postRepository, timeout(2000)).publishScheduled(eq(List.of(1L)), any(), eq(Post.Status.SCHEDULED), eq(Post.Status.PUBLISHED));
+        verify(eventPublisher, timeout(2000)).publishEvent(new PostChangedEvent(1L));
+        assertEquals(0, schedulingService.getPendingCount());
+    }
+
+    @Test
+    void dueAt_subMillisecondSchedule_roundedUp() {
+        LocalDateTime exact = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 5_000_000);
+        long exactMillis = exact.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(exactMillis, SchedulingService.dueAt(exact));
+        assertEquals(exactMillis + 1, SchedulingService.dueAt(exact.plusNanos(1)));
+        assertEquals(exactMillis + 1, SchedulingService.dueAt(exact.plusNanos(999_999)));
+    }
+
+    @Test
+    void start_subMillisecondSchedule_publishedNotBeforeScheduledAt() {
+        // Dernière nanoseconde de sa milliseconde : déclenchée en début de milliseconde, la publication serait trop tôt
+        LocalDateTime scheduledAt = LocalDateTime.now().plusNanos(50_000_000).truncatedTo(ChronoUnit.MILLIS).plusNanos(999_999);
+        when(postRepository.findSchedules(Post.Status.SCHEDULED))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, scheduledAt}));
+        when(postRepository.publishScheduled(any(), any(), any(), any())).thenReturn(1);
+        schedulingService.start();
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(postRepository, timeout(2000)).publishScheduled(eq(List.of(1L)), now.capture(), any(), any());
+        assertFalse(now.getValue().isBefore(scheduledAt));
+    }
+
+    @Test
+    void start_rescheduledPost_publishedOnlyOnce() {
+        when(postRepository.findSchedules(Post.Status.SCHEDULED))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LocalDateTime.now().plusNanos(50_000_000)}));
+        when(postRepository.publishScheduled(any(), any(), any(), any())).thenReturn(1);
+        schedulingService.start();
+        schedulingService.schedule(1L, LocalDateTime.now().plusNanos(100_000_000));
+        verify(postRepository, timeout(2000)).publishScheduled(eq(List.of(1L)), any(), any(), any());
+        verify(postRepository, after(300).times(1)).publishScheduled(any(), any(), any(), any());
+    }
+
+    @Test
+    void start_publicationLeaseHeldElsewhere_retriedLater() {
+        doReturn(false)
+                .doAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(3).run();
+                    return true;
+                })
+                .when(jobLeaseService).runExclusively(eq(SchedulingService.PUBLICATION_JOB), any(), any(), any());
+        when(postRepository.findSchedules(Post.Status.SCHEDULED))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LocalDateTime.now().plusNanos(50_000_000)}));
+        schedulingService.start();
+        verify(jobLeaseService, timeout(3000).times(2)).runExclusively(eq(SchedulingService.PUBLICATION_JOB), any(), any(), any());
+        verify(postRepository, timeout(3000)).publishScheduled(eq(List.of(1L)), any(), any(), any());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,306 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.entity.Theme;
+import com.blog.api.entity.User;
+import com.blog.api.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SearchIndexServiceTest {
+    @Mock private PostRepository postRepository;
+    @Mock private SearchSegmentStore segmentStore;
+    @InjectMocks private SearchIndexService searchIndexService;
+
+    private final List<Object[]> tagRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(postRepository.findTagNamesByPostIds(any())).thenReturn(tagRows);
+    }
+
+    private Post post(Long id, String title, String content) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setContent(content);
+        post.setStatus(Post.Status.PUBLISHED);
+        post.setCreatedAt(LocalDateTime.of(2024, 1, id.intValue(), 10, 0));
+        User author = new User();
+        author.setId(1L);
+        post.setAuthor(author);
+        Theme theme = new Theme();
+        theme.setId(10L);
+        post.setTheme(theme);
+        return post;
+    }
+
+    private void build(Post... posts) {
+        when(postRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(posts));
+        searchIndexService.rebuild();
+    }
+
+    private List<Long> ids(String query, SearchFilter filter) {
+        return searchIndexService.search(query, filter).stream().map(SearchHit::postId).toList();
+    }
+
+    private List<Long> ids(String query) {
+        return ids(query, SearchFilter.builder().build());
+    }
+
+    @Test
+    void isReady_onlyAfterRebuild() {
+        assertFalse(searchIndexService.isReady());
+        build(post(1L, "Titre", "contenu"));
+        assertTrue(searchIndexService.isReady());
+        assertEquals(1, searchIndexService.getIndexedCount());
+    }
+
+    @Test
+    void search_foldsAccentsAndIgnoresStopWords() {
+        build(post(1L, "Les éléphants d'Afrique", "Un été au Kenya"),
+              post(2L, "Autre sujet", "rien à voir"));
+
+        assertEquals(List.of(1L), ids("ELEPHANTS de l'afrique"));
+        assertEquals(List.of(1L), ids("ete"));
+        assertTrue(ids("le la les").isEmpty());
+    }
+
+    @Test
+    void search_requiresAllTerms() {
+        build(post(1L, "Spring Boot", "Configuration"),
+              post(2L, "Spring Data", "Requêtes"));
+
+        assertEquals(List.of(1L), ids("spring boot"));
+        assertTrue(ids("spring inconnu").isEmpty());
+    }
+
+    @Test
+    void search_ranksTitleAndFrequentMatchesFirst() {
+        build(post(1L, "Autre chose", "Un long texte qui mentionne java une seule fois parmi beaucoup d'autres mots sans rapport"),
+              post(2L, "Java moderne", "Les records de java et les threads virtuels de java"),
+              post(3L, "Cuisine", "Recette de tarte"));
+
+        List<SearchHit> hits = searchIndexService.search("java", SearchFilter.builder().build());
+
+        assertEquals(List.of(2L, 1L), hits.stream().map(SearchHit::postId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_phraseMustBeContiguous() {
+        build(post(1L, "Titre", "Démarrer avec spring boot rapidement"),
+              post(2L, "Titre", "Le boot du serveur puis spring"),
+              post(3L, "Le chat de la maison", "contenu"));
+
+        assertEquals(List.of(1L), ids("\"spring boot\""));
+        // Les mots vides gardent leur place dans l'expression
+        assertEquals(List.of(3L), ids("\"chat de la maison\""));
+        assertTrue(ids("\"chat maison\"").isEmpty());
+    }
+
+    @Test
+    void search_phraseDoesNotSpanFields() {
+        build(post(1L, "Guide spring", "boot du projet"));
+
+        assertEquals(List.of(1L), ids("spring boot"));
+        assertTrue(ids("\"spring boot\"").isEmpty());
+    }
+
+    @Test
+    void search_appliesFilters() {
+        Post draft = post(2L, "Kotlin en brouillon", "contenu");
+        draft.setStatus(Post.Status.DRAFT);
+        Post otherTheme = post(3L, "Kotlin ailleurs", "contenu");
+        otherTheme.getTheme().setId(20L);
+        tagRows.add(new Object[]{1L, "Développement"});
+        build(post(1L, "Kotlin publié", "contenu"), draft, otherTheme);
+
+        assertEquals(List.of(3L, 1L), ids("kotlin", SearchFilter.builder().status(Post.Status.PUBLISHED).build()));
+        assertEquals(List.of(2L, 1L), ids("kotlin", SearchFilter.builder().themeIds(List.of(10L)).build()));
+        assertEquals(List.of(1L), ids("kotlin", SearchFilter.builder().tags(List.of("developpement")).build()));
+        assertTrue(ids("kotlin", SearchFilter.builder().authorId(2L).build()).isEmpty());
+        assertEquals(List.of(3L), ids("kotlin", SearchFilter.builder()
+            .createdFrom(LocalDateTime.of(2024, 1, 3, 0, 0)).build()));
+    }
+
+    @Test
+    void search_matchesTags() {
+        tagRows.add(new Object[]{1L, "Sécurité"});
+        build(post(1L, "Titre", "contenu"));
+
+        assertEquals(List.of(1L), ids("securite"));
+    }
+
+    @Test
+    void onPostChanged_reindexesUpdatedPost() {
+        Post post = post(1L, "Ancien titre", "contenu");
+        build(post);
+
+        Post updated = post(1L, "Nouveau titre", "contenu");
+        when(postRepository.findById(1L)).thenReturn(Optional.of(updated));
+        searchIndexService.onPostChanged(new PostChangedEvent(1L));
+
+        assertTrue(ids("ancien").isEmpty());
+        assertEquals(List.of(1L), ids("nouveau"));
+        assertEquals(1, searchIndexService.getIndexedCount());
+    }
+
+    @Test
+    void onPostChanged_removesDeletedPost() {
+        build(post(1L, "Titre", "contenu"));
+
+        when(postRepository.findById(1L)).thenReturn(Optional.empty());
+        searchIndexService.onPostChanged(new PostChangedEvent(1L));
+
+        assertTrue(ids("titre").isEmpty());
+        assertEquals(0, searchIndexService.getIndexedCount());
+    }
+
+    @Test
+    void onPostChanged_failureIsSwallowed() {
+        build(post(1L, "Titre", "contenu"));
+
+        when(postRepository.findById(1L)).thenThrow(new RuntimeException("db down"));
+
+        assertDoesNotThrow(() -> searchIndexService.onPostChanged(new PostChangedEvent(1L)));
+        assertEquals(List.of(1L), ids("titre"));
+    }
+
+    @Test
+    void searchWithFacets_countsMatchingPostsPerValue() {
+        Post otherTheme = post(3L, "Kotlin ailleurs", "contenu");
+        otherTheme.getTheme().setId(20L);
+        Post otherAuthor = post(4L, "Kotlin encore", "contenu");
+        otherAuthor.getAuthor().setId(2L);
+        Post unrelated = post(5L, "Cuisine", "contenu");
+        tagRows.add(new Object[]{1L, "JVM"});
+        tagRows.add(new Object[]{3L, "JVM"});
+        tagRows.add(new Object[]{5L, "JVM"});
+        build(post(1L, "Kotlin publié", "contenu"), post(2L, "Kotlin bis", "contenu"), otherTheme, otherAuthor, unrelated);
+
+        SearchIndexService.FacetedHits result = searchIndexService.searchWithFacets("kotlin", SearchFilter.builder().build(), false);
+
+        assertEquals(4, result.hits().size());
+        assertEquals(Map.of("10", 3, "20", 1), result.facets().get("theme"));
+        assertEquals(Map.of("1", 3, "2", 1), result.facets().get("author"));
+        assertEquals(Map.of("jvm", 2), result.facets().get("tag"));
+        assertEquals(Map.of("2024-01", 4), result.facets().get("month"));
+        assertFalse(result.facets().containsKey("status"));
+        // Le thème le plus représenté vient en premier
+        assertEquals("10", result.facets().get("theme").keySet().iterator().next());
+    }
+
+    @Test
+    void searchWithFacets_countsReflectFilters() {
+        Post otherTheme = post(3L, "Kotlin ailleurs", "contenu");
+        otherTheme.getTheme().setId(20L);
+        tagRows.add(new Object[]{3L, "JVM"});
+        build(post(1L, "Kotlin publié", "contenu"), otherTheme);
+
+        SearchIndexService.FacetedHits result = searchIndexService.searchWithFacets("kotlin",
+            SearchFilter.builder().themeIds(List.of(20L, 30L)).build(), false);
+
+        assertEquals(List.of(3L), result.hits().stream().map(SearchHit::postId).toList());
+        assertEquals(Map.of("20", 1), result.facets().get("theme"));
+        assertEquals(Map.of("jvm", 1), result.facets().get("tag"));
+    }
+
+    @Test
+    void searchWithFacets_misspelledTerm_suggestsClosestTitleTerm() {
+        build(post(1L, "Guide du développement Java", "contenu"), post(2L, "Recette de cuisine", "contenu"));
+
+        SearchIndexService.FacetedHits exact = searchIndexService.searchWithFacets("developement java", SearchFilter.builder().build(), false);
+        assertTrue(exact.hits().isEmpty());
+        assertEquals("developpement java", exact.didYouMean());
+
+        SearchIndexService.FacetedHits fuzzy = searchIndexService.searchWithFacets("developement java", SearchFilter.builder().build(), true);
+        assertEquals(List.of(1L), fuzzy.hits().stream().map(SearchHit::postId).toList());
+
+        assertNull(searchIndexService.searchWithFacets("recette", SearchFilter.builder().build(), false).didYouMean());
+    }
+
+    @Test
+    void searchWithFacets_fuzzy_ranksExactMatchesFirst() {
+        build(post(1L, "Recettes faciles", "contenu"), post(2L, "Recette du jour", "contenu"), post(3L, "Autre", "contenu"));
+
+        SearchIndexService.FacetedHits exact = searchIndexService.searchWithFacets("recette", SearchFilter.builder().build(), false);
+        SearchIndexService.FacetedHits fuzzy = searchIndexService.searchWithFacets("recette", SearchFilter.builder().build(), true);
+
+        assertEquals(List.of(2L), exact.hits().stream().map(SearchHit::postId).toList());
+        assertEquals(List.of(2L, 1L), fuzzy.hits().stream().map(SearchHit::postId).toList());
+    }
+
+    @Test
+    void searchWithFacets_updatedTitle_dropsOldVocabulary() {
+        build(post(1L, "Kubernetes en production", "contenu"));
+        Post renamed = post(1L, "Docker en production", "contenu");
+        when(postRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        searchIndexService.onPostChanged(new PostChangedEvent(1L));
+
+        assertNull(searchIndexService.searchWithFacets("kubernete", SearchFilter.builder().build(), false).didYouMean());
+        assertEquals("docker", searchIndexService.searchWithFacets("dockr", SearchFilter.builder().build(), false).didYouMean());
+    }
+
+    private InvertedIndex.Document analyzed(Post post) {
+        return InvertedIndex.analyze(new IndexedPost(post.getId(), post.getTheme().getId(), post.getAuthor().getId(),
+            post.getStatus(), post.getPublishedAt(), post.getCreatedAt(), Set.of()), post.getTitle(), null, post.getContent());
+    }
+
+    @Test
+    void bootstrap_restoresSegmentAndCatchesUpChanges() {
+        LocalDateTime watermark = LocalDateTime.of(2024, 3, 1, 12, 0);
+        when(segmentStore.loadLatest()).thenReturn(Optional.of(new SearchSegmentStore.LoadedSegment(watermark, List.of(
+            analyzed(post(1L, "Kotlin ancien", "contenu")), analyzed(post(2L, "Kotlin supprimé", "contenu"))))));
+        when(postRepository.findAllIds()).thenReturn(List.of(1L, 3L));
+        when(postRepository.findByUpdatedAtAfterAndIdGreaterThanOrderByIdAsc(any(), eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(post(1L, "Kotlin nouveau", "contenu"), post(3L, "Kotlin récent", "contenu")));
+
+        searchIndexService.bootstrap();
+
+        assertTrue(searchIndexService.isReady());
+        assertEquals(2, searchIndexService.getIndexedCount());
+        assertEquals(List.of(1L, 3L), ids("kotlin").stream().sorted().toList());
+        assertTrue(ids("ancien").isEmpty());
+        assertTrue(ids("supprime").isEmpty());
+        verify(postRepository).findByUpdatedAtAfterAndIdGreaterThanOrderByIdAsc(
+            eq(watermark.minus(SearchIndexService.CATCH_UP_OVERLAP)), eq(0L), any(Pageable.class));
+        verify(postRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void bootstrap_withoutSegment_rebuildsAndPersists() throws Exception {
+        when(postRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(post(1L, "Kotlin", "contenu")));
+
+        searchIndexService.bootstrap();
+
+        assertEquals(List.of(1L), ids("kotlin"));
+        verify(segmentStore).write(argThat(documents -> documents.size() == 1), any());
+    }
+
+    @Test
+    void persistSegment_onlyWhenIndexChanged() throws Exception {
+        build(post(1L, "Kotlin", "contenu"));
+        searchIndexService.persistSegment();
+        verify(segmentStore, times(1)).write(any(), any());
+
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post(1L, "Kotlin modifié", "contenu")));
+        searchIndexService.onPostChanged(new PostChangedEvent(1L));
+        searchIndexService.persistSegment();
+        verify(segmentStore, times(2)).write(any(), any());
+    }
+}
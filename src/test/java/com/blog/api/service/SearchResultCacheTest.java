@@ -0,0 +1,41 @@
+package com.blog.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+    private SearchResultCache searchResultCache;
+    private SearchResultCache.CachedResults results;
+
+    @BeforeEach
+    void setUp() {
+        searchResultCache = new SearchResultCache(100, Duration.ofMinutes(10));
+        results = new SearchResultCache.CachedResults(List.of(2L, 1L), 2, null, null);
+    }
+
+    @Test
+    void get_sameQuery_returnsStoredResults() {
+        searchResultCache.put(searchResultCache.key(List.of("java", 0)), results);
+        assertEquals(results, searchResultCache.get(searchResultCache.key(List.of("java", 0))).orElseThrow());
+        assertTrue(searchResultCache.get(searchResultCache.key(List.of("java", 1))).isEmpty());
+    }
+
+    @Test
+    void onPostChanged_invalidatesAllQueries() {
+        searchResultCache.put(searchResultCache.key("java"), results);
+        searchResultCache.onPostChanged(new PostChangedEvent(1L));
+        assertTrue(searchResultCache.get(searchResultCache.key("java")).isEmpty());
+    }
+
+    @Test
+    void put_resultComputedBeforeChange_isDropped() {
+        SearchResultCache.Key key = searchResultCache.key("java");
+        searchResultCache.invalidateAll();
+        searchResultCache.put(key, results);
+        assertTrue(searchResultCache.get(key).isEmpty());
+        assertTrue(searchResultCache.get(searchResultCache.key("java")).isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchSegmentStoreTest {
+    @TempDir Path directory;
+    private SearchSegmentStore segmentStore;
+    private final LocalDateTime watermark = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_789);
+
+    @BeforeEach
+    void setUp() {
+        segmentStore = new SearchSegmentStore(directory.toString());
+    }
+
+    private List<InvertedIndex.Document> documents() {
+        return List.of(
+            InvertedIndex.analyze(new IndexedPost(1L, 10L, 1L, Post.Status.PUBLISHED,
+                    LocalDateTime.of(2024, 1, 2, 8, 0), LocalDateTime.of(2024, 1, 1, 8, 0), Set.of("jvm", "spring boot")),
+                "Développement Java", "Un guide", "Le développement \"pas à pas\" avec Java et Spring"),
+            InvertedIndex.analyze(new IndexedPost(2L, null, null, Post.Status.DRAFT, null,
+                    LocalDateTime.of(2024, 2, 1, 8, 0), Set.of()),
+                "Brouillon", null, "Recette du jour"));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted(Comparator.reverseOrder()).toList();
+        }
+    }
+
+    @Test
+    void loadLatest_roundTripsDocuments() throws IOException {
+        InvertedIndex original = new InvertedIndex();
+        documents().forEach(original::add);
+        segmentStore.write(original.documents(), watermark);
+
+        SearchSegmentStore.LoadedSegment loaded = segmentStore.loadLatest().orElseThrow();
+        InvertedIndex restored = new InvertedIndex();
+        loaded.documents().forEach(restored::add);
+
+        assertEquals(watermark, loaded.watermark());
+        assertEquals(Set.of(1L, 2L), restored.ids());
+        InvertedIndex.Document draft = loaded.documents().stream().filter(document -> document.post().id() == 2L).findFirst().orElseThrow();
+        assertEquals(documents().get(1).post(), draft.post());
+        for (String query : List.of("java", "\"pas a pas\"", "recette", "spring boot")) {
+            assertEquals(original.search(SearchQuery.parse(query), SearchFilter.builder().build(), true, false),
+                restored.search(SearchQuery.parse(query), SearchFilter.builder().build(), true, false), query);
+        }
+        assertEquals(Set.of("developpement"), restored.search(SearchQuery.parse("developement"),
+            SearchFilter.builder().build(), false, false).corrections().values().stream().collect(java.util.stream.Collectors.toSet()));
+    }
+
+    @Test
+    void loadLatest_corruptedNewest_fallsBackToPrevious() throws IOException {
+        segmentStore.write(documents(), watermark);
+        segmentStore.write(documents().subList(0, 1), watermark.plusMinutes(10));
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 40);
+        }
+
+        SearchSegmentStore.LoadedSegment loaded = segmentStore.loadLatest().orElseThrow();
+
+        assertEquals(watermark, loaded.watermark());
+        assertEquals(2, loaded.documents().size());
+    }
+
+    @Test
+    void write_keepsOnlyLatestSegments() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            segmentStore.write(documents(), watermark.plusMinutes(i));
+        }
+
+        assertEquals(SearchSegmentStore.KEPT_SEGMENTS, segments().size());
+        assertEquals(watermark.plusMinutes(3), segmentStore.loadLatest().orElseThrow().watermark());
+    }
+
+    @Test
+    void loadLatest_noSegment_returnsEmpty() {
+        assertTrue(segmentStore.loadLatest().isEmpty());
+        assertTrue(new SearchSegmentStore(directory.resolve("missing").toString()).loadLatest().isEmpty());
+    }
+}
@@ -2,9 +2,9 @@ package com.blog.api.service;
 
 import com.blog.api.repository.PostRepository;
 import com.blog.api.repository.ThemeRepository;
-import com.blog.api.repository.ReactionRepository;
 import com.blog.api.repository.UserRepository;
 import com.blog.api.repository.TagRepository;
+import com.blog.api.dto.post.PostCardResponse;
 import com.blog.api.dto.post.PostResponse;
 import com.blog.api.entity.Post;
 import com.blog.api.entity.User;
@@ -13,19 +13,31 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class SearchServiceTest {
     @Mock private PostRepository postRepository;
     @Mock private ThemeRepository themeRepository;
-    @Mock private ReactionRepository reactionRepository;
     @Mock private UserRepository userRepository;
     @Mock private TagRepository tagRepository;
+    @Mock private SearchIndexService searchIndexService;
+    @Mock private TagSuggestService tagSuggestService;
+    @Mock private SimilarPostsService similarPostsService;
+    @Mock private TrendingTagService trendingTagService;
+    @Spy private SearchResultCache searchResultCache = new SearchResultCache(100, Duration.ofMinutes(10));
     @InjectMocks private SearchService searchService;
     @BeforeEach void setUp() { MockitoAnnotations.openMocks(this); }
 
@@ -38,8 +50,6 @@ class SearchServiceTest {
         post.setAuthor(author);
         Page<Post> page = new PageImpl<>(Collections.singletonList(post));
         when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), eq(pageable))).thenReturn(page);
-        when(reactionRepository.countLikesByPost(any())).thenReturn(1L);
-        when(reactionRepository.countDislikesByPost(any())).thenReturn(0L);
         Page<PostResponse> result = searchService.searchPosts("test", null, null, null, null, null, null, pageable);
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -56,10 +66,24 @@ class SearchServiceTest {
 
     @Test
     void suggestTags_success() {
-        when(postRepository.findTagsByPrefix("ja")).thenReturn(Collections.singletonList("java"));
+        when(postRepository.findPublishedTagsByPrefix("ja", PageRequest.of(0, 10))).thenReturn(Collections.singletonList("java"));
         assertFalse(searchService.suggestTags("ja").isEmpty());
     }
 
+    @Test
+    void suggestTags_dictionaryNotReady_blankPrefix_noQuery() {
+        assertTrue(searchService.suggestTags("  ", 5).isEmpty());
+        verify(postRepository, never()).findPublishedTagsByPrefix(any(), any());
+    }
+
+    @Test
+    void suggestTags_dictionaryReady_boundsLimit() {
+        when(tagSuggestService.isReady()).thenReturn(true);
+        when(tagSuggestService.suggest("ja", 50)).thenReturn(List.of("java", "javascript"));
+        assertEquals(List.of("java", "javascript"), searchService.suggestTags("ja", 500));
+        verify(postRepository, never()).findPublishedTagsByPrefix(any(), any());
+    }
+
     @Test
     void findSimilarPosts_success() {
         Post post = new Post();
@@ -72,8 +96,6 @@ class SearchServiceTest {
         when(postRepository.findById(1L)).thenReturn(java.util.Optional.of(post));
         Page<Post> page = new PageImpl<>(Collections.singletonList(post));
         when(postRepository.findSimilarPosts(eq(1L), anyList(), any(), any(Pageable.class))).thenReturn(page);
-        when(reactionRepository.countLikesByPost(any())).thenReturn(0L);
-        when(reactionRepository.countDislikesByPost(any())).thenReturn(0L);
         Page<PostResponse> result = searchService.findSimilarPosts(1L, Pageable.unpaged());
         assertEquals(1, result.getTotalElements());
     }
@@ -86,8 +108,8 @@ class SearchServiceTest {
 
     @Test
     void search_success() {
-        Page<Post> page = new PageImpl<>(Collections.emptyList());
-        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
+        Page<PostCardResponse> page = new PageImpl<>(Collections.emptyList());
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
         java.util.Map<String, Object> result = searchService.search("q", "author", "tag", null, null, "date", 0, 10);
         assertNotNull(result);
         assertTrue(result.containsKey("content"));
@@ -95,9 +117,9 @@ class SearchServiceTest {
 
     @Test
     void search_authorNotFound_success() {
-        Page<Post> page = new PageImpl<>(Collections.emptyList());
+        Page<PostCardResponse> page = new PageImpl<>(Collections.emptyList());
         when(userRepository.findByUsername("unknown")).thenReturn(java.util.Optional.empty());
-        when(postRepository.findBySearchCriteria(any(), isNull(), any(), any(), any(), any())).thenReturn(page);
+        when(postRepository.findCardsBySearchCriteria(any(), isNull(), any(), any(), any(), any())).thenReturn(page);
         java.util.Map<String, Object> result = searchService.search("q", "unknown", "tag", null, null, "date", 0, 10);
         assertNotNull(result);
         assertTrue(result.containsKey("content"));
@@ -105,8 +127,8 @@ class SearchServiceTest {
 
     @Test
     void search_sortByViews_success() {
-        Page<Post> page = new PageImpl<>(Collections.emptyList());
-        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
+        Page<PostCardResponse> page = new PageImpl<>(Collections.emptyList());
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
         java.util.Map<String, Object> result = searchService.search("q", null, "tag", null, null, "views", 0, 10);
         assertNotNull(result);
         assertTrue(result.containsKey("content"));
@@ -114,8 +136,8 @@ class SearchServiceTest {
 
     @Test
     void search_sortByLikes_success() {
-        Page<Post> page = new PageImpl<>(Collections.emptyList());
-        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
+        Page<PostCardResponse> page = new PageImpl<>(Collections.emptyList());
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
         java.util.Map<String, Object> result = searchService.search("q", null, "tag", null, null, "likes", 0, 10);
         assertNotNull(result);
         assertTrue(result.containsKey("content"));
@@ -123,8 +145,8 @@ class SearchServiceTest {
 
     @Test
     void search_sortByDefault_success() {
-        Page<Post> page = new PageImpl<>(Collections.emptyList());
-        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
+        Page<PostCardResponse> page = new PageImpl<>(Collections.emptyList());
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(page);
         // Utilise une valeur inconnue pour tester le default du switch
         java.util.Map<String, Object> result = searchService.search("q", null, "tag", null, null, "unknown", 0, 10);
         assertNotNull(result);
@@ -142,6 +164,28 @@ class SearchServiceTest {
         assertTrue(result.containsKey("java"));
     }
 
+    @Test
+    void getTrendingTags_keepsRankingOrder() {
+        when(trendingTagService.getTrending(TrendingTagService.Window.HOUR, 5)).thenReturn(List.of(
+                new TrendingTagService.TrendingTag("spring", 12), new TrendingTagService.TrendingTag("java", 7)));
+        Map<String, Long> result = searchService.getTrendingTags("1h", 5);
+        assertEquals(List.of("spring", "java"), List.copyOf(result.keySet()));
+        assertEquals(12L, result.get("spring"));
+    }
+
+    @Test
+    void getTrendingTags_unknownWindow_throwsException() {
+        assertThrows(RuntimeException.class, () -> searchService.getTrendingTags("2h", 5));
+    }
+
+    @Test
+    void search_withTag_recordsTrendingSearch() {
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+        searchService.search(null, null, "spring", null, null, "date", 0, 10);
+        searchService.search(null, null, null, null, null, "date", 0, 10);
+        verify(trendingTagService, times(1)).recordSearch("spring");
+    }
+
     @Test
     void getSimilarPosts_success() {
         Post post = new Post();
@@ -160,4 +204,276 @@ class SearchServiceTest {
         when(postRepository.findById(1L)).thenReturn(java.util.Optional.empty());
         assertThrows(RuntimeException.class, () -> searchService.getSimilarPosts(1L, 5));
     }
-} 
\ No newline at end of file
+
+    private SearchIndexService.FacetedHits faceted(SearchHit... hits) {
+        return new SearchIndexService.FacetedHits(List.of(hits), Map.of("tag", Map.of("java", hits.length)), null);
+    }
+
+    private PostCardResponse card(Long id) {
+        PostCardResponse card = new PostCardResponse();
+        card.setId(id);
+        return card;
+    }
+
+    private Post indexedPost(Long id) {
+        Post post = new Post();
+        post.setId(id);
+        User author = new User();
+        author.setId(1L);
+        post.setAuthor(author);
+        return post;
+    }
+
+    @Test
+    void search_withoutQuery_hasNoFacets() {
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+        when(searchIndexService.isReady()).thenReturn(true);
+        Map<String, Object> result = searchService.search(null, null, null, null, null, "date", 0, 10);
+        assertFalse(result.containsKey("facets"));
+        verify(searchIndexService, never()).searchWithFacets(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void search_sortByDefault_withoutQuery_sortsByDate() {
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+        searchService.search(null, null, null, null, null, "relevance", 0, 10);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(postRepository).findCardsBySearchCriteria(isNull(), isNull(), isNull(), isNull(), isNull(), pageable.capture());
+        assertEquals(Sort.by("createdAt").descending(), pageable.getValue().getSort());
+    }
+
+    @Test
+    void search_indexReady_keepsRelevanceOrder() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(eq("java"), any(), anyBoolean())).thenReturn(faceted(
+            new SearchHit(3L, 2.5, null), new SearchHit(1L, 1.2, null), new SearchHit(2L, 0.4, null)));
+        when(postRepository.findCardsByIdIn(List.of(3L, 1L))).thenReturn(List.of(card(1L), card(3L)));
+
+        Map<String, Object> result = searchService.search("java", null, null, null, null, "relevance", 0, 2);
+
+        List<?> content = (List<?>) result.get("content");
+        assertEquals(3L, ((PostCardResponse) content.get(0)).getId());
+        assertEquals(1L, ((PostCardResponse) content.get(1)).getId());
+        assertEquals(3L, result.get("totalElements"));
+        assertEquals(2, result.get("totalPages"));
+        assertEquals(Map.of("tag", Map.of("java", 3)), result.get("facets"));
+        verify(postRepository, never()).findCardsBySearchCriteria(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void search_indexReady_sortByDate_usesIndexedDates() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(eq("java"), any(), anyBoolean())).thenReturn(faceted(
+            new SearchHit(1L, 2.5, LocalDateTime.of(2024, 1, 1, 0, 0)),
+            new SearchHit(2L, 1.2, LocalDateTime.of(2024, 6, 1, 0, 0))));
+        when(postRepository.findCardsByIdIn(List.of(2L, 1L))).thenReturn(List.of(card(1L), card(2L)));
+
+        Map<String, Object> result = searchService.search("java", null, null, null, null, "date", 0, 10);
+
+        assertEquals(2L, ((PostCardResponse) ((List<?>) result.get("content")).get(0)).getId());
+    }
+
+    @Test
+    void search_indexReady_sortByViews_sortsMatchesInDatabase() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(eq("java"), any(), anyBoolean())).thenReturn(faceted(
+            new SearchHit(1L, 2.5, null), new SearchHit(2L, 1.2, null)));
+        when(postRepository.findCardsByIdIn(eq(List.of(1L, 2L)), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(card(2L), card(1L))));
+
+        Map<String, Object> result = searchService.search("java", null, null, null, null, "views", 0, 10);
+
+        assertEquals(2L, result.get("totalElements"));
+        verify(postRepository).findCardsByIdIn(List.of(1L, 2L), PageRequest.of(0, 10, Sort.by("viewCount").descending()));
+    }
+
+    @Test
+    void search_indexReady_filtersPublishedPosts() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(any(), any(), anyBoolean())).thenReturn(faceted());
+
+        searchService.search("java", null, "spring", null, null, "relevance", 0, 10);
+
+        ArgumentCaptor<SearchFilter> filter = ArgumentCaptor.forClass(SearchFilter.class);
+        verify(searchIndexService).searchWithFacets(eq("java"), filter.capture(), eq(false));
+        assertEquals(Post.Status.PUBLISHED, filter.getValue().getStatus());
+        assertEquals(List.of("spring"), filter.getValue().getTags());
+        verify(postRepository, never()).findCardsByIdIn(any());
+    }
+
+    @Test
+    void searchPosts_indexReady_returnsPostsInRelevanceOrder() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.search(eq("java"), any())).thenReturn(List.of(
+            new SearchHit(2L, 2.5, null), new SearchHit(1L, 1.2, null)));
+        when(postRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(indexedPost(1L), indexedPost(2L)));
+
+        Page<PostResponse> result = searchService.searchPosts("java", null, null, null, null, null, null, Pageable.unpaged());
+
+        assertEquals(List.of(2L, 1L), result.getContent().stream().map(PostResponse::getId).toList());
+        verify(postRepository, never()).findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchPosts_indexReady_stopWordsOnly_usesCriteriaQuery() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        searchService.searchPosts("de la", List.of(4L), null, null, List.of("java"), null, null, Pageable.unpaged());
+
+        verify(postRepository).findBySearchCriteria(eq("de la"), eq(List.of(4L)), isNull(), isNull(),
+            eq(List.of("java")), isNull(), isNull(), any());
+        verify(searchIndexService, never()).search(any(), any());
+    }
+
+    @Test
+    void search_indexReady_stopWordsOnly_usesCriteriaQuery() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        searchService.search("le", null, "spring", null, null, "relevance", 0, 10);
+
+        verify(postRepository).findCardsBySearchCriteria(eq("le"), isNull(), eq("spring"), isNull(), isNull(), any());
+        verify(searchIndexService, never()).searchWithFacets(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void searchPosts_indexReady_unknownAuthor_returnsEmpty() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(userRepository.findByUsername("ghost")).thenReturn(java.util.Optional.empty());
+
+        Page<PostResponse> result = searchService.searchPosts("java", null, null, null, null, "ghost", null, Pageable.unpaged());
+
+        assertTrue(result.isEmpty());
+        verify(searchIndexService, never()).search(any(), any());
+    }
+
+    @Test
+    void getSimilarPosts_indexReady_keepsRankingWithoutLoadingSource() {
+        when(similarPostsService.isReady()).thenReturn(true);
+        when(similarPostsService.findRanking(1L, 2))
+            .thenReturn(java.util.Optional.of(new SimilarPostsService.SimilarPosts(List.of(3L, 2L), 7)));
+        when(postRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(indexedPost(2L), indexedPost(3L)));
+
+        Map<String, Object> result = searchService.getSimilarPosts(1L, 2);
+
+        List<?> content = (List<?>) result.get("content");
+        assertEquals(3L, ((Post) content.get(0)).getId());
+        assertEquals(7L, result.get("totalElements"));
+        verify(postRepository, never()).findById(any());
+        verify(postRepository, never()).findSimilarPosts(any(), anyList(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void getSimilarPosts_indexReady_unknownPost_throwsException() {
+        when(similarPostsService.isReady()).thenReturn(true);
+        when(similarPostsService.findRanking(1L, 5)).thenReturn(java.util.Optional.empty());
+        when(postRepository.existsById(1L)).thenReturn(false);
+        assertThrows(RuntimeException.class, () -> searchService.getSimilarPosts(1L, 5));
+    }
+
+    @Test
+    void findSimilarPosts_indexReady_unindexedPost_returnsEmpty() {
+        when(similarPostsService.isReady()).thenReturn(true);
+        when(similarPostsService.findRanking(1L, SimilarPostsService.MAX_RESULTS)).thenReturn(java.util.Optional.empty());
+        when(postRepository.existsById(1L)).thenReturn(true);
+        assertTrue(searchService.findSimilarPosts(1L, Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void search_sameNormalizedQuery_servedFromCache() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(any(), any(), anyBoolean())).thenReturn(faceted(
+            new SearchHit(2L, 2.5, null), new SearchHit(1L, 1.2, null)));
+        when(postRepository.findCardsByIdIn(List.of(2L, 1L))).thenReturn(List.of(card(1L), card(2L)));
+
+        searchService.search("Java  Spring", null, "Tag", null, null, "relevance", 0, 10);
+        Map<String, Object> cached = searchService.search("spring java", null, "tag", null, null, "relevance", 0, 10);
+
+        verify(searchIndexService, times(1)).searchWithFacets(any(), any(), anyBoolean());
+        assertEquals(2L, ((PostCardResponse) ((List<?>) cached.get("content")).get(0)).getId());
+        assertEquals(2L, cached.get("totalElements"));
+        assertEquals(Map.of("tag", Map.of("java", 2)), cached.get("facets"));
+    }
+
+    @Test
+    void search_postChanged_recomputesResults() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(any(), any(), anyBoolean())).thenReturn(faceted(new SearchHit(1L, 1.0, null)));
+        when(postRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(1L)));
+
+        searchService.search("java", null, null, null, null, "relevance", 0, 10);
+        searchResultCache.onPostChanged(new PostChangedEvent(1L));
+        searchService.search("java", null, null, null, null, "relevance", 0, 10);
+
+        verify(searchIndexService, times(2)).searchWithFacets(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void search_indexUpdated_recomputesResults() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(any(), any(), anyBoolean())).thenReturn(faceted(new SearchHit(1L, 1.0, null)));
+        when(postRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(1L)));
+
+        searchService.search("java", null, null, null, null, "relevance", 0, 10);
+        // L'index a été rafraîchi après l'invalidation du cache
+        when(searchIndexService.getGeneration()).thenReturn(1L);
+        searchService.search("java", null, null, null, null, "relevance", 0, 10);
+
+        verify(searchIndexService, times(2)).searchWithFacets(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void search_sortByViews_notCached() {
+        when(postRepository.findCardsBySearchCriteria(any(), any(), any(), any(), any(), any())).thenReturn(Page.empty());
+
+        searchService.search("java", null, null, null, null, "views", 0, 10);
+        searchService.search("java", null, null, null, null, "views", 0, 10);
+
+        verify(postRepository, times(2)).findCardsBySearchCriteria(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchPosts_sqlFallback_cachesPageIds() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(indexedPost(2L), indexedPost(1L)), pageable, 12));
+        when(postRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(indexedPost(1L), indexedPost(2L)));
+
+        searchService.searchPosts("Java", List.of(3L, 1L), null, null, List.of("Spring", "jpa"), null, null, pageable);
+        Page<PostResponse> cached = searchService.searchPosts("java", List.of(1L, 3L), null, null,
+            List.of("jpa", "spring"), null, null, pageable);
+
+        verify(postRepository, times(1)).findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(List.of(2L, 1L), cached.getContent().stream().map(PostResponse::getId).toList());
+        assertEquals(12, cached.getTotalElements());
+    }
+
+    @Test
+    void searchPosts_sortByViewCount_notCached() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("viewCount").descending());
+        when(postRepository.findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), eq(pageable)))
+            .thenReturn(Page.empty(pageable));
+
+        searchService.searchPosts("java", null, null, null, null, null, null, pageable);
+        searchService.searchPosts("java", null, null, null, null, null, null, pageable);
+
+        verify(postRepository, times(2)).findBySearchCriteria(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void search_fuzzy_passesModeAndReturnsSuggestion() {
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchWithFacets(eq("developement"), any(), eq(true))).thenReturn(
+            new SearchIndexService.FacetedHits(List.of(new SearchHit(1L, 1.0, null)), Map.of(), "developpement"));
+        when(postRepository.findCardsByIdIn(List.of(1L))).thenReturn(List.of(card(1L)));
+
+        Map<String, Object> result = searchService.search("developement", null, null, null, null, "relevance", 0, 10, true);
+        Map<String, Object> cached = searchService.search("developement", null, null, null, null, "relevance", 0, 10, true);
+
+        assertEquals(1L, result.get("totalElements"));
+        assertEquals("developpement", result.get("didYouMean"));
+        assertEquals("developpement", cached.get("didYouMean"));
+        verify(searchIndexService, times(1)).searchWithFacets(any(), any(), anyBoolean());
+    }
+}
@@ -0,0 +1,181 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Post;
+import com.blog.api.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SimilarPostsServiceTest {
+    @Mock private PostRepository postRepository;
+    @InjectMocks private SimilarPostsService similarPostsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(postRepository.findMaxId()).thenReturn(10L);
+        List<Object[]> rows = new ArrayList<>();
+        // Articles 1 et 2 identiques, 3 proche de 1, 4 sans rien en commun
+        for (long tag : new long[]{10, 11, 12}) {
+            rows.add(new Object[]{1L, 1L, tag});
+            rows.add(new Object[]{2L, 1L, tag});
+        }
+        rows.add(new Object[]{3L, 1L, 10L});
+        rows.add(new Object[]{3L, 1L, 11L});
+        rows.add(new Object[]{4L, 2L, 99L});
+        when(postRepository.findPublishedSimilarityRows(0L, (long) SimilarPostsService.CHUNK_SIZE)).thenReturn(rows);
+        similarPostsService.bootstrap();
+    }
+
+    private void change(Long postId, Post.Status status, Long themeId, Long... tagIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long tagId : tagIds) {
+            rows.add(new Object[]{postId, status, themeId, tagId});
+        }
+        when(postRepository.findSimilarityRowsByPostId(postId)).thenReturn(rows);
+        similarPostsService.onPostChanged(new PostChangedEvent(postId));
+    }
+
+    private Optional<List<Long>> findSimilar(Long postId, int limit) {
+        return similarPostsService.findRanking(postId, limit).map(SimilarPostsService.SimilarPosts::postIds);
+    }
+
+    @Test
+    void findSimilar_ranksByJaccard() {
+        assertTrue(similarPostsService.isReady());
+        assertEquals(4, similarPostsService.getIndexedCount());
+        assertEquals(Optional.of(List.of(2L, 3L)), findSimilar(1L, 5));
+        assertEquals(Optional.of(List.of(2L)), findSimilar(1L, 1));
+        assertEquals(Optional.of(List.of()), findSimilar(4L, 5));
+    }
+
+    @Test
+    void findRanking_totalCountsAllSimilarPostsBeyondLimit() {
+        assertEquals(Optional.of(new SimilarPostsService.SimilarPosts(List.of(2L), 2)), similarPostsService.findRanking(1L, 1));
+    }
+
+    @Test
+    void findSimilar_unknownPost_isEmpty() {
+        assertTrue(findSimilar(42L, 5).isEmpty());
+    }
+
+    @Test
+    void onPostChanged_invalidatesNeighbourRankings() {
+        assertEquals(Optional.of(List.of(2L, 3L)), findSimilar(1L, 5));
+
+        change(3L, Post.Status.PUBLISHED, 2L, 99L);
+
+        assertEquals(Optional.of(List.of(2L)), findSimilar(1L, 5));
+        assertEquals(Optional.of(List.of(4L)), findSimilar(3L, 5));
+    }
+
+    @Test
+    void onPostChanged_newNeighbourAppearsInCachedRanking() {
+        assertEquals(Optional.of(List.of()), findSimilar(4L, 5));
+
+        change(5L, Post.Status.PUBLISHED, 2L, 99L);
+
+        assertEquals(Optional.of(List.of(5L)), findSimilar(4L, 5));
+    }
+
+    @Test
+    void onPostChanged_unpublishedOrDeletedPostIsRemoved() {
+        change(2L, Post.Status.DRAFT, 1L, 10L, 11L, 12L);
+        when(postRepository.findSimilarityRowsByPostId(3L)).thenReturn(List.of());
+        similarPostsService.onPostChanged(new PostChangedEvent(3L));
+
+        assertTrue(findSimilar(2L, 5).isEmpty());
+        assertEquals(Optional.of(List.of()), findSimilar(1L, 5));
+        assertEquals(2, similarPostsService.getIndexedCount());
+    }
+
+    @Test
+    void findRanking_sameThemeWithoutSharedTag_notSimilar() {
+        change(5L, Post.Status.PUBLISHED, 1L, 42L);
+
+        assertEquals(Optional.of(List.of()), findSimilar(5L, 5));
+        assertEquals(Optional.of(List.of(2L, 3L)), findSimilar(1L, 5));
+    }
+
+    @Test
+    void findRanking_sameThemeRanksFirstAmongEqualTags() {
+        change(5L, Post.Status.PUBLISHED, 2L, 10L, 11L);
+
+        assertEquals(Optional.of(List.of(2L, 3L, 5L)), findSimilar(1L, 5));
+    }
+
+    @Test
+    void replaceAll_largeSingleThemeCorpus_bucketsBoundedByTagFrequency() {
+        // 2000 articles d'un même thème, un ou deux tags chacun parmi 500
+        Map<Long, Set<Long>> features = new HashMap<>();
+        Map<Long, Integer> tagFrequency = new HashMap<>();
+        for (long postId = 1; postId <= 2000; postId++) {
+            Set<Long> tags = new HashSet<>();
+            tags.add(postId % 500);
+            if (postId % 2 == 1) {
+                tags.add((postId * 7 + 3) % 500);
+            }
+            Set<Long> feature = new HashSet<>();
+            feature.add((1L << 1) | 1);
+            tags.forEach(tag -> {
+                feature.add(tag << 1);
+                tagFrequency.merge(tag, 1, Integer::sum);
+            });
+            features.put(postId, feature);
+        }
+
+        similarPostsService.beginRebuild();
+        similarPostsService.replaceAll(features);
+
+        // Les articles d'un seau partagent au moins un tag : le thème ne les regroupe plus
+        int maxTagFrequency = tagFrequency.values().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        assertEquals(2000, similarPostsService.getIndexedCount());
+        assertTrue(similarPostsService.getLargestBucketSize() <= maxTagFrequency);
+        assertTrue(similarPostsService.findRanking(1L, 5).orElseThrow().total() < 2 * maxTagFrequency);
+    }
+
+    @Test
+    void jaccard_countsSharedFeatures() {
+        assertEquals(1.0, SimilarPostsService.jaccard(new long[]{1, 2}, new long[]{1, 2}));
+        assertEquals(0.5, SimilarPostsService.jaccard(new long[]{1, 2, 3}, new long[]{2, 3, 4}));
+        assertEquals(0.0, SimilarPostsService.jaccard(new long[]{1}, new long[]{2}));
+    }
+
+    @Test
+    void replaceAll_dropsPreviousEntriesAndInstallsNewOnes() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{7L, 3L, 50L});
+        rows.add(new Object[]{8L, 3L, 50L});
+        when(postRepository.findPublishedSimilarityRows(0L, 2000L)).thenReturn(rows);
+        Map<Long, Set<Long>> features = similarPostsService.loadFeatures(0L, 2000L);
+
+        similarPostsService.beginRebuild();
+        similarPostsService.replaceAll(features);
+
+        assertEquals(2, similarPostsService.getIndexedCount());
+        assertTrue(findSimilar(1L, 5).isEmpty());
+        assertEquals(Optional.of(List.of(8L)), findSimilar(7L, 5));
+    }
+
+    @Test
+    void replaceAll_replaysChangesReceivedDuringRebuild() {
+        similarPostsService.beginRebuild();
+        change(5L, Post.Status.PUBLISHED, 2L, 99L);
+
+        similarPostsService.replaceAll(Map.of(4L, Set.of(5L, 198L)));
+
+        assertEquals(2, similarPostsService.getIndexedCount());
+        assertEquals(Optional.of(List.of(5L)), findSimilar(4L, 5));
+    }
+}
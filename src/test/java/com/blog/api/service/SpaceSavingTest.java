@@ -0,0 +1,33 @@
+package com.blog.api.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+    @Test
+    void offer_full_replacesSmallestCounter() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.offer("java", 5);
+        summary.offer("spring", 2);
+        summary.offer("kotlin", 1);
+
+        // kotlin hérite du compteur de spring (2) : 3
+        assertEquals(List.of("java", "kotlin"), summary.keys());
+        assertEquals(2, summary.size());
+    }
+
+    @Test
+    void offer_frequentKeyAlwaysTracked() {
+        SpaceSaving summary = new SpaceSaving(10);
+        for (int i = 0; i < 1000; i++) {
+            summary.offer("rare-" + i, 1);
+            if (i % 5 == 0) {
+                summary.offer("java", 1);
+            }
+        }
+        // Fréquence 200 > total (1200) / capacité (10)
+        assertEquals("java", summary.keys().get(0));
+    }
+}
@@ -18,6 +18,7 @@ class StatisticsServiceTest {
     @Mock private CommentRepository commentRepository;
     @Mock private ReactionRepository reactionRepository;
     @Mock private UserRepository userRepository;
+    @Mock private ViewCounterService viewCounterService;
     @InjectMocks private StatisticsService statisticsService;
 
     @BeforeEach
@@ -51,10 +52,10 @@ class StatisticsServiceTest {
         when(postRepository.countByAuthor(user)).thenReturn(3L);
         when(commentRepository.countByAuthor(user)).thenReturn(4L);
         Post post = new Post();
+        post.setLikeCount(2);
+        post.setDislikeCount(1);
         List<Post> posts = Collections.singletonList(post);
         when(postRepository.findByAuthor(user)).thenReturn(posts);
-        when(reactionRepository.countLikesByPost(post)).thenReturn(2L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(1L);
         Map<String, Object> stats = statisticsService.getUserStatistics("user");
         assertEquals(3L, stats.get("totalPosts"));
         assertEquals(4L, stats.get("totalComments"));
@@ -72,12 +73,12 @@ class StatisticsServiceTest {
     void getPostStatistics_success() {
         Post post = new Post();
         post.setViewCount(5);
+        post.setCommentCount(3);
+        post.setLikeCount(2);
+        post.setDislikeCount(1);
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(commentRepository.countByPost(post)).thenReturn(3L);
-        when(reactionRepository.countLikesByPost(post)).thenReturn(2L);
-        when(reactionRepository.countDislikesByPost(post)).thenReturn(1L);
         Map<String, Object> stats = statisticsService.getPostStatistics(1L);
-        assertEquals(5, stats.get("viewCount"));
+        assertEquals(5L, stats.get("viewCount"));
         assertEquals(3L, stats.get("commentCount"));
         assertEquals(2L, stats.get("likes"));
         assertEquals(1L, stats.get("dislikes"));
@@ -85,17 +86,16 @@ class StatisticsServiceTest {
 
     @Test
     void incrementViewCount_postNotFound_throwsException() {
-        when(postRepository.findById(1L)).thenReturn(Optional.empty());
+        when(postRepository.existsById(1L)).thenReturn(false);
         assertThrows(RuntimeException.class, () -> statisticsService.incrementViewCount(1L));
+        verify(viewCounterService, never()).recordView(any());
     }
 
     @Test
     void incrementViewCount_success() {
-        Post post = new Post();
-        post.setViewCount(1);
-        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(postRepository.save(post)).thenReturn(post);
+        when(postRepository.existsById(1L)).thenReturn(true);
         statisticsService.incrementViewCount(1L);
-        assertEquals(2, post.getViewCount());
+        verify(viewCounterService).recordView(1L);
+        verify(postRepository, never()).save(any());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Tag;
+import com.blog.api.repository.TagRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TagDictionaryTest {
+    @Mock private TagRepository tagRepository;
+    @Mock private EntityManager entityManager;
+    @Mock private Query insert;
+    private TagDictionary tagDictionary;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tagDictionary = new TagDictionary(tagRepository, entityManager, 100);
+        when(entityManager.getReference(eq(Tag.class), any())).thenAnswer(invocation -> tag(invocation.getArgument(1), null));
+        when(entityManager.createNativeQuery(anyString())).thenReturn(insert);
+    }
+
+    private static Tag tag(Long id, String name) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName(name);
+        return tag;
+    }
+
+    private static List<Long> ids(List<Tag> tags) {
+        return tags.stream().map(Tag::getId).toList();
+    }
+
+    @Test
+    void resolve_existingTags_oneQueryThenCached() {
+        when(tagRepository.findByNameIn(List.of("java", "spring"))).thenReturn(List.of(tag(1L, "java"), tag(2L, "spring")));
+
+        assertEquals(List.of(2L, 1L), ids(tagDictionary.resolve(List.of("spring", "java", "spring"))));
+        assertEquals(List.of(1L, 2L), ids(tagDictionary.resolve(List.of("Java", "spring"))));
+
+        verify(tagRepository, times(1)).findByNameIn(any());
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    void resolve_missingTags_insertedInOneStatement() {
+        when(tagRepository.findByNameIn(List.of("java", "kotlin", "spring"))).thenReturn(List.of(tag(1L, "java")));
+        when(tagRepository.findByNameInForShare(List.of("kotlin", "spring"))).thenReturn(List.of(tag(5L, "kotlin"), tag(6L, "spring")));
+
+        assertEquals(List.of(6L, 1L, 5L), ids(tagDictionary.resolve(List.of("spring", "java", "kotlin"))));
+
+        verify(entityManager).createNativeQuery(
+                "INSERT INTO tags (name, usage_count) VALUES (?, 0), (?, 0) ON DUPLICATE KEY UPDATE name = name");
+        verify(insert).setParameter(1, "kotlin");
+        verify(insert).setParameter(2, "spring");
+        verify(insert).executeUpdate();
+
+        // Hors transaction, les tags créés sont mis en cache immédiatement
+        assertEquals(List.of(5L, 6L), ids(tagDictionary.resolve(List.of("kotlin", "spring"))));
+        verify(tagRepository, times(1)).findByNameIn(any());
+    }
+
+    @Test
+    void resolve_tagStillMissingAfterInsert_throwsException() {
+        when(tagRepository.findByNameIn(any())).thenReturn(List.of());
+        when(tagRepository.findByNameInForShare(any())).thenReturn(List.of());
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> tagDictionary.resolve(List.of("java")));
+        assertEquals("Tag not found", ex.getMessage());
+    }
+
+    @Test
+    void resolve_noNames_noQuery() {
+        assertTrue(tagDictionary.resolve(List.of()).isEmpty());
+        verifyNoInteractions(tagRepository);
+    }
+}
@@ -0,0 +1,81 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TagSuggestServiceTest {
+    @Mock private PostRepository postRepository;
+    @InjectMocks private TagSuggestService tagSuggestService;
+
+    @BeforeEach
+    void setUp() { MockitoAnnotations.openMocks(this); }
+
+    private void bootstrap(Object[]... rows) {
+        when(postRepository.findMaxId()).thenReturn(10L);
+        when(postRepository.findPublishedTagNamesByPostIdRange(0L, (long) TagSuggestService.CHUNK_SIZE))
+            .thenReturn(new ArrayList<>(List.of(rows)));
+        tagSuggestService.bootstrap();
+    }
+
+    @Test
+    void suggest_ranksByUsageThenName() {
+        bootstrap(
+            new Object[]{1L, "Java"}, new Object[]{2L, "Java"}, new Object[]{3L, "Java"},
+            new Object[]{1L, "JavaScript"}, new Object[]{2L, "JavaScript"},
+            new Object[]{4L, "Jakarta"}, new Object[]{5L, "Jackson"},
+            new Object[]{1L, "Spring"});
+
+        assertTrue(tagSuggestService.isReady());
+        assertEquals(List.of("Java", "JavaScript", "Jackson", "Jakarta"), tagSuggestService.suggest("ja", 10));
+        assertEquals(List.of("Java", "JavaScript"), tagSuggestService.suggest("JA", 2));
+        assertEquals(List.of("Spring"), tagSuggestService.suggest("spr", 10));
+        assertTrue(tagSuggestService.suggest("x", 10).isEmpty());
+        assertTrue(tagSuggestService.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_foldsAccents() {
+        bootstrap(new Object[]{1L, "Sécurité"});
+
+        assertEquals(List.of("Sécurité"), tagSuggestService.suggest("secu", 5));
+        assertEquals(List.of("Sécurité"), tagSuggestService.suggest("SÉC", 5));
+    }
+
+    @Test
+    void onPostChanged_appliesTagDifference() {
+        bootstrap(new Object[]{1L, "Java"}, new Object[]{1L, "Docker"}, new Object[]{2L, "Docker"});
+
+        when(postRepository.findPublishedTagNamesByPostId(1L)).thenReturn(List.of("Docker", "Kubernetes"));
+        tagSuggestService.onPostChanged(new PostChangedEvent(1L));
+
+        assertTrue(tagSuggestService.suggest("ja", 5).isEmpty());
+        assertEquals(List.of("Kubernetes"), tagSuggestService.suggest("k", 5));
+        // Docker reste à 2 : l'article 1 l'avait déjà
+        when(postRepository.findPublishedTagNamesByPostId(2L)).thenReturn(List.of());
+        tagSuggestService.onPostChanged(new PostChangedEvent(2L));
+        assertEquals(List.of("Docker"), tagSuggestService.suggest("do", 5));
+
+        // Article 1 dépublié : la requête ne renvoie plus ses tags
+        when(postRepository.findPublishedTagNamesByPostId(1L)).thenReturn(List.of());
+        tagSuggestService.onPostChanged(new PostChangedEvent(1L));
+        assertTrue(tagSuggestService.suggest("do", 5).isEmpty());
+    }
+
+    @Test
+    void onPostChanged_beforeBootstrap_isCountedOnce() {
+        when(postRepository.findPublishedTagNamesByPostId(1L)).thenReturn(List.of("Java"));
+        tagSuggestService.onPostChanged(new PostChangedEvent(1L));
+
+        bootstrap(new Object[]{1L, "Java"}, new Object[]{2L, "Jakarta"}, new Object[]{3L, "Jakarta"});
+
+        assertEquals(List.of("Jakarta", "Java"), tagSuggestService.suggest("ja", 5));
+    }
+}
@@ -0,0 +1,40 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import java.util.Set;
+import static org.mockito.Mockito.*;
+
+class TagUsageServiceTest {
+    @Mock private TagRepository tagRepository;
+    @InjectMocks private TagUsageService tagUsageService;
+
+    @BeforeEach
+    void setUp() { MockitoAnnotations.openMocks(this); }
+
+    @Test
+    void applyChange_adjustsOnlyTheDifference() {
+        tagUsageService.applyChange(List.of(1L, 2L, 3L), List.of(2L, 3L, 4L, 5L));
+
+        verify(tagRepository).adjustUsageCounts(1, Set.of(4L, 5L));
+        verify(tagRepository).adjustUsageCounts(-1, Set.of(1L));
+    }
+
+    @Test
+    void applyChange_sameTags_noUpdate() {
+        tagUsageService.applyChange(List.of(1L, 2L), List.of(2L, 1L));
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    void applyChange_newPost_incrementsAllTagsInOneStatement() {
+        tagUsageService.applyChange(List.of(), List.of(1L, 2L));
+        verify(tagRepository, times(1)).adjustUsageCounts(anyInt(), any());
+        verify(tagRepository).adjustUsageCounts(1, Set.of(1L, 2L));
+    }
+}
@@ -0,0 +1,118 @@
+package com.blog.api.service;
+
+import com.blog.api.entity.Theme;
+import com.blog.api.repository.ThemeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ThemeCatalogTest {
+    @Mock private ThemeRepository themeRepository;
+    private ThemeCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        catalog = new ThemeCatalog(themeRepository, Duration.ofMinutes(1));
+        when(themeRepository.findAll()).thenReturn(List.of(theme(1L, "tech")));
+        when(themeRepository.findVersionRows()).thenReturn(List.<Object[]>of(new Object[]{1L, LocalDateTime.of(2024, 1, 1, 12, 0), 4L}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Theme theme(Long id, String slug) {
+        Theme theme = new Theme();
+        theme.setId(id);
+        theme.setSlug(slug);
+        return theme;
+    }
+
+    @Test
+    void current_builtOnceThenShared() {
+        ThemeSnapshot first = catalog.current();
+        ThemeSnapshot second = catalog.current();
+        assertSame(first, second);
+        assertEquals(4L, first.findBySlug("tech").orElseThrow().postsCount());
+        verify(themeRepository, times(1)).findAll();
+        verify(themeRepository, times(1)).findVersionRows();
+    }
+
+    @Test
+    void current_snapshotIsImmutable() {
+        ThemeSnapshot snapshot = catalog.current();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getThemes().clear());
+    }
+
+    @Test
+    void invalidate_outsideTransaction_rebuildsImmediately() {
+        ThemeSnapshot first = catalog.current();
+        when(themeRepository.findAll()).thenReturn(List.of(theme(1L, "tech"), theme(2L, "voyage")));
+        catalog.invalidate();
+        verify(themeRepository, times(2)).findAll();
+        ThemeSnapshot second = catalog.current();
+        assertNotSame(first, second);
+        assertEquals(2, second.getThemes().size());
+        verify(themeRepository, times(2)).findAll();
+    }
+
+    @Test
+    void invalidate_insideTransaction_rebuildsAfterCommit() {
+        catalog.current();
+        TransactionSynchronizationManager.initSynchronization();
+        catalog.invalidate();
+        verify(themeRepository, times(1)).findAll();
+
+        when(themeRepository.findAll()).thenReturn(Collections.emptyList());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(themeRepository, times(2)).findAll();
+        assertTrue(catalog.current().getThemes().isEmpty());
+    }
+
+    @Test
+    void invalidate_rebuildFails_nextReadRetries() {
+        catalog.current();
+        when(themeRepository.findAll()).thenThrow(new RuntimeException("DB down")).thenReturn(Collections.emptyList());
+        assertDoesNotThrow(() -> catalog.invalidate());
+        assertTrue(catalog.current().getThemes().isEmpty());
+    }
+
+    @Test
+    void onPostChanged_rebuiltOnNextRead() {
+        ThemeSnapshot first = catalog.current();
+        catalog.onPostChanged(new PostChangedEvent(1L));
+        verify(themeRepository, times(1)).findAll();
+        assertNotSame(first, catalog.current());
+        verify(themeRepository, times(2)).findAll();
+    }
+
+    @Test
+    void current_expiredSnapshot_rebuilt() {
+        catalog = new ThemeCatalog(themeRepository, Duration.ZERO);
+        ThemeSnapshot first = catalog.current();
+        await();
+        assertNotSame(first, catalog.current());
+    }
+
+    private static void await() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
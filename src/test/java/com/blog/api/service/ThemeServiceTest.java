@@ -1,5 +1,6 @@
 package com.blog.api.service;
 
+import com.blog.api.dto.ResourceVersion;
 import com.blog.api.dto.theme.ThemeRequest;
 import com.blog.api.dto.theme.ThemeResponse;
 import com.blog.api.entity.Theme;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,32 +19,91 @@ import java.util.List;
 
 class ThemeServiceTest {
     @Mock private ThemeRepository themeRepository;
+    @Mock private ThemeCatalog themeCatalog;
     @InjectMocks private ThemeService themeService;
 
     @BeforeEach
     void setUp() { MockitoAnnotations.openMocks(this); }
 
-    @Test
-    void getAllThemes_success() {
+    private ThemeSnapshot snapshot(List<Object[]> versionRows, Theme... themes) {
+        return new ThemeSnapshot(List.of(themes), versionRows, 0);
+    }
+
+    private Theme theme(Long id, String slug) {
         Theme theme = new Theme();
-        when(themeRepository.findAll()).thenReturn(Collections.singletonList(theme));
+        theme.setId(id);
+        theme.setName("Theme " + id);
+        theme.setSlug(slug);
+        theme.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return theme;
+    }
+
+    @Test
+    void getAllThemes_servedFromSnapshot() {
+        Theme theme = theme(1L, "tech");
+        when(themeCatalog.current()).thenReturn(snapshot(List.<Object[]>of(new Object[]{1L, theme.getUpdatedAt(), 3L}), theme));
         List<ThemeResponse> result = themeService.getAllThemes();
         assertEquals(1, result.size());
+        assertEquals("tech", result.get(0).getSlug());
+        assertEquals(3, result.get(0).getPostsCount());
+        verifyNoInteractions(themeRepository);
+    }
+
+    @Test
+    void getAllThemes_returnsFreshResponses() {
+        when(themeCatalog.current()).thenReturn(snapshot(Collections.emptyList(), theme(1L, "tech")));
+        themeService.getAllThemes().get(0).setName("modifié");
+        assertEquals("Theme 1", themeService.getAllThemes().get(0).getName());
     }
 
     @Test
     void getThemeById_notFound_throwsException() {
-        when(themeRepository.findById(1L)).thenReturn(Optional.empty());
+        when(themeCatalog.current()).thenReturn(snapshot(Collections.emptyList()));
         assertThrows(RuntimeException.class, () -> themeService.getThemeById(1L));
     }
 
     @Test
     void getThemeById_success() {
-        Theme theme = new Theme();
-        theme.setId(1L);
-        when(themeRepository.findById(1L)).thenReturn(Optional.of(theme));
+        when(themeCatalog.current()).thenReturn(snapshot(Collections.emptyList(), theme(1L, "tech")));
         ThemeResponse resp = themeService.getThemeById(1L);
-        assertNotNull(resp);
+        assertEquals(1L, resp.getId());
+        assertEquals(0, resp.getPostsCount());
+    }
+
+    @Test
+    void getThemeBySlug_success() {
+        when(themeCatalog.current()).thenReturn(snapshot(Collections.emptyList(), theme(1L, "tech"), theme(2L, "voyage")));
+        assertEquals(2L, themeService.getThemeBySlug("voyage").getId());
+        assertThrows(RuntimeException.class, () -> themeService.getThemeBySlug("inconnu"));
+    }
+
+    @Test
+    void getThemeVersion_changesWithPostCount() {
+        Theme theme = theme(1L, "tech");
+        LocalDateTime updatedAt = theme.getUpdatedAt();
+        when(themeCatalog.current())
+                .thenReturn(snapshot(List.<Object[]>of(new Object[]{1L, updatedAt, 2L}), theme))
+                .thenReturn(snapshot(List.<Object[]>of(new Object[]{1L, updatedAt, 3L}), theme));
+        ResourceVersion first = themeService.getThemeVersion(1L);
+        ResourceVersion second = themeService.getThemeVersion(1L);
+        assertTrue(first.getETag().startsWith("W/\""));
+        assertNotEquals(first.getETag(), second.getETag());
+        assertEquals(updatedAt, first.getLastModified());
+        verifyNoInteractions(themeRepository);
+    }
+
+    @Test
+    void getThemesVersion_sameAsComputedFromRows() {
+        Theme theme = theme(1L, "tech");
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1L, theme.getUpdatedAt(), 2L});
+        when(themeCatalog.current()).thenReturn(snapshot(rows, theme));
+        assertEquals(ResourceVersion.fromRows(rows).getETag(), themeService.getThemesVersion().getETag());
+    }
+
+    @Test
+    void getThemeVersion_notFound_throwsException() {
+        when(themeCatalog.current()).thenReturn(snapshot(Collections.emptyList()));
+        assertThrows(RuntimeException.class, () -> themeService.getThemeVersion(1L));
     }
 
     @Test
@@ -62,6 +123,7 @@ class ThemeServiceTest {
         when(themeRepository.save(any())).thenReturn(theme);
         ThemeResponse resp = themeService.createTheme(req);
         assertNotNull(resp);
+        verify(themeCatalog).invalidate();
     }
 
     @Test
@@ -80,6 +142,7 @@ class ThemeServiceTest {
         when(themeRepository.findById(1L)).thenReturn(Optional.of(theme));
         when(themeRepository.existsBySlug("new")).thenReturn(true);
         assertThrows(RuntimeException.class, () -> themeService.updateTheme(1L, req));
+        verify(themeCatalog, never()).invalidate();
     }
 
     @Test
@@ -92,6 +155,7 @@ class ThemeServiceTest {
         when(themeRepository.save(any())).thenReturn(theme);
         ThemeResponse resp = themeService.updateTheme(1L, req);
         assertNotNull(resp);
+        verify(themeCatalog).invalidate();
     }
 
     @Test
@@ -116,5 +180,6 @@ class ThemeServiceTest {
         when(themeRepository.findById(1L)).thenReturn(Optional.of(theme));
         doNothing().when(themeRepository).delete(theme);
         assertDoesNotThrow(() -> themeService.deleteTheme(1L));
+        verify(themeCatalog).invalidate();
     }
 } 
\ No newline at end of file
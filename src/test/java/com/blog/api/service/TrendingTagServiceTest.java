@@ -0,0 +1,136 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrendingTagServiceTest {
+    private static final long NOW = Duration.ofDays(1000).toMillis();
+
+    @Mock private PostRepository postRepository;
+    @InjectMocks private TrendingTagService trendingTagService;
+
+    @BeforeEach
+    void setUp() { MockitoAnnotations.openMocks(this); }
+
+    private List<String> names(TrendingTagService.Window window, long now) {
+        return trendingTagService.getTrending(window, 10, now).stream().map(TrendingTagService.TrendingTag::name).toList();
+    }
+
+    @Test
+    void recordAttachments_inTransaction_countedAfterCommitOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            trendingTagService.recordAttachments(List.of("java"));
+            assertTrue(trendingTagService.getTrending(TrendingTagService.Window.HOUR, 10).isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of("java"), names(TrendingTagService.Window.HOUR, System.currentTimeMillis()));
+    }
+
+    @Test
+    void recordAttachments_rolledBack_notCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            trendingTagService.recordAttachments(List.of("java"));
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(trendingTagService.getTrending(TrendingTagService.Window.HOUR, 10).isEmpty());
+    }
+
+    @Test
+    void recordAttachments_withoutTransaction_countedImmediately() {
+        trendingTagService.recordAttachments(List.of("java", "spring"));
+        assertEquals(2, trendingTagService.getTrending(TrendingTagService.Window.HOUR, 10).size());
+    }
+
+    @Test
+    void getTrending_ranksByScoreIgnoringCase() {
+        trendingTagService.record("Java", 3, NOW);
+        trendingTagService.record("spring", 5, NOW);
+        trendingTagService.record("java", 4, NOW);
+        trendingTagService.record(" ", 10, NOW);
+
+        List<TrendingTagService.TrendingTag> trending = trendingTagService.getTrending(TrendingTagService.Window.HOUR, 10, NOW);
+
+        assertEquals(List.of(new TrendingTagService.TrendingTag("java", 7), new TrendingTagService.TrendingTag("spring", 5)), trending);
+        assertEquals(1, trendingTagService.getTrending(TrendingTagService.Window.HOUR, 1, NOW).size());
+    }
+
+    @Test
+    void getTrending_olderEventsLeaveShortWindowsFirst() {
+        trendingTagService.record("java", 1, NOW - Duration.ofHours(2).toMillis());
+        trendingTagService.record("spring", 1, NOW - Duration.ofDays(2).toMillis());
+        trendingTagService.record("kotlin", 1, NOW);
+
+        assertEquals(List.of("kotlin"), names(TrendingTagService.Window.HOUR, NOW));
+        assertEquals(List.of("java", "kotlin"), names(TrendingTagService.Window.DAY, NOW));
+        assertEquals(List.of("java", "kotlin", "spring"), names(TrendingTagService.Window.WEEK, NOW));
+        assertEquals(List.of(), names(TrendingTagService.Window.WEEK, NOW + Duration.ofDays(8).toMillis()));
+    }
+
+    @Test
+    void getTrending_sumsAcrossBuckets() {
+        for (int minutes = 0; minutes < 50; minutes += 10) {
+            trendingTagService.record("java", 2, NOW - Duration.ofMinutes(minutes).toMillis());
+        }
+        assertEquals(10, trendingTagService.getTrending(TrendingTagService.Window.HOUR, 1, NOW).get(0).score());
+    }
+
+    @Test
+    void getTrending_manyDistinctTags_keepsHeavyHitters() {
+        for (int i = 0; i < 5000; i++) {
+            trendingTagService.record("rare-" + i, 1, NOW);
+            if (i % 10 == 0) {
+                trendingTagService.record("java", 1, NOW);
+            }
+            if (i % 25 == 0) {
+                trendingTagService.record("spring", 1, NOW);
+            }
+        }
+
+        List<TrendingTagService.TrendingTag> trending = trendingTagService.getTrending(TrendingTagService.Window.DAY, 2, NOW);
+        assertEquals(List.of("java", "spring"), trending.stream().map(TrendingTagService.TrendingTag::name).toList());
+        // Le sketch peut surestimer, jamais sous-estimer
+        assertTrue(trending.get(0).score() >= 500);
+    }
+
+    @Test
+    void recordViews_weightsEachTagOfViewedPosts() {
+        when(postRepository.findTagNamesByPostIds(any())).thenReturn(List.of(
+                new Object[]{1L, "java"}, new Object[]{1L, "spring"}, new Object[]{2L, "java"}));
+
+        trendingTagService.recordViews(Map.of(1L, 3L, 2L, 4L));
+
+        List<TrendingTagService.TrendingTag> trending = trendingTagService.getTrending(TrendingTagService.Window.HOUR, 10);
+        assertEquals(List.of(new TrendingTagService.TrendingTag("java", 7), new TrendingTagService.TrendingTag("spring", 3)), trending);
+    }
+
+    @Test
+    void recordViews_repositoryFailure_isIgnored() {
+        when(postRepository.findTagNamesByPostIds(any())).thenThrow(new RuntimeException("DB down"));
+        assertDoesNotThrow(() -> trendingTagService.recordViews(Map.of(1L, 1L)));
+        assertTrue(trendingTagService.getTrending(TrendingTagService.Window.HOUR, 10).isEmpty());
+    }
+
+    @Test
+    void window_fromLabel() {
+        assertEquals(TrendingTagService.Window.WEEK, TrendingTagService.Window.fromLabel("7D"));
+        assertThrows(RuntimeException.class, () -> TrendingTagService.Window.fromLabel("1y"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.blog.api.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static int levenshtein(String a, String b) {
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    distances[i][j] = Math.min(distances[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                        Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+        return distances[a.length()][b.length()];
+    }
+
+    private static String random(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 1 + random.nextInt(9);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    void boundedDistance_matchesFullComputationWithinBound() {
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            String a = random(random);
+            String b = random(random);
+            int maxDistance = random.nextInt(4);
+            int expected = levenshtein(a, b);
+            assertEquals(Math.min(expected, maxDistance + 1), TrigramIndex.boundedDistance(a, b, maxDistance), a + " / " + b);
+        }
+    }
+
+    @Test
+    void corrections_orderedByDistanceThenFrequency() {
+        TrigramIndex index = new TrigramIndex();
+        index.add("developpement");
+        index.add("developpements");
+        index.add("developpements");
+        index.add("deploiement");
+
+        List<TrigramIndex.Correction> corrections = index.corrections("developement", 2, 5);
+
+        assertEquals(List.of("developpement", "developpements"),
+            corrections.stream().map(TrigramIndex.Correction::term).toList());
+        assertEquals(1, corrections.get(0).distance());
+        assertEquals(2, corrections.get(1).frequency());
+    }
+
+    @Test
+    void corrections_excludeTermItselfAndRemovedTerms() {
+        TrigramIndex index = new TrigramIndex();
+        index.add("recette");
+        index.add("recettes");
+        index.add("recettes");
+
+        assertEquals(List.of("recettes"), index.corrections("recette", 1, 5).stream()
+            .map(TrigramIndex.Correction::term).toList());
+
+        index.remove("recettes");
+        assertEquals(2, index.size());
+        index.remove("recettes");
+        assertEquals(1, index.size());
+        assertTrue(index.corrections("recette", 1, 5).isEmpty());
+    }
+
+    @Test
+    void maxDistance_growsWithTermLength() {
+        assertEquals(0, TrigramIndex.maxDistance("js"));
+        assertEquals(1, TrigramIndex.maxDistance("java"));
+        assertEquals(2, TrigramIndex.maxDistance("recette"));
+    }
+}
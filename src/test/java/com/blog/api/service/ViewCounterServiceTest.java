@@ -0,0 +1,155 @@
+package com.blog.api.service;
+
+import com.blog.api.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ViewCounterServiceTest {
+    @Mock private PostRepository postRepository;
+    @Mock private TrendingTagService trendingTagService;
+    private ViewCounterService viewCounterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        viewCounterService = new ViewCounterService(postRepository, trendingTagService, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void recordView_accumulatesPendingViews() {
+        viewCounterService.recordView(1L);
+        viewCounterService.recordView(1L);
+        viewCounterService.recordView(2L);
+        assertEquals(2, viewCounterService.getPendingViews(1L));
+        assertEquals(1, viewCounterService.getPendingViews(2L));
+        assertEquals(0, viewCounterService.getPendingViews(3L));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void flush_groupsPostsByDelta() {
+        viewCounterService.recordView(1L);
+        viewCounterService.recordView(2L);
+        viewCounterService.recordView(3L);
+        viewCounterService.recordView(3L);
+
+        viewCounterService.flush();
+
+        verify(postRepository).incrementViewCounts(eq(1), argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2));
+        verify(postRepository).incrementViewCounts(2, List.of(3L));
+        assertEquals(0, viewCounterService.getPendingViews(1L));
+        assertEquals(0, viewCounterService.getPendingViews(3L));
+    }
+
+    @Test
+    void getRecordedViews_survivesFlush() {
+        viewCounterService.recordView(1L);
+        viewCounterService.recordView(1L);
+        viewCounterService.flush();
+        viewCounterService.recordView(1L);
+        assertEquals(3, viewCounterService.getRecordedViews(1L));
+        assertEquals(1, viewCounterService.getPendingViews(1L));
+        assertEquals(0, viewCounterService.getRecordedViews(2L));
+    }
+
+    @Test
+    void flush_idlePost_counterEvicted() {
+        viewCounterService.recordView(1L);
+        viewCounterService.flush();
+        assertEquals(1, viewCounterService.getTrackedCount());
+
+        viewCounterService.flush();
+        assertEquals(0, viewCounterService.getTrackedCount());
+        verify(postRepository, times(1)).incrementViewCounts(anyInt(), any());
+        assertEquals(1, viewCounterService.getRecordedViews(1L));
+    }
+
+    @Test
+    void recordView_afterEviction_countedAgain() {
+        viewCounterService.recordView(1L);
+        viewCounterService.flush();
+        viewCounterService.flush();
+        viewCounterService.recordView(1L);
+        assertEquals(1, viewCounterService.getPendingViews(1L));
+
+        viewCounterService.flush();
+        verify(postRepository, times(2)).incrementViewCounts(1, List.of(1L));
+    }
+
+    @Test
+    void recordView_concurrentWithFlushes_noneLost() throws InterruptedException {
+        AtomicLong written = new AtomicLong();
+        when(postRepository.incrementViewCounts(anyInt(), any())).thenAnswer(invocation -> {
+            written.addAndGet((long) invocation.<Integer>getArgument(0) * invocation.<List<Long>>getArgument(1).size());
+            return 0;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 20000; i++) {
+            long postId = i % 50;
+            executor.submit(() -> viewCounterService.recordView(postId));
+            if (i % 500 == 0) {
+                executor.submit(viewCounterService::flush);
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        viewCounterService.flush();
+        viewCounterService.flush();
+        assertEquals(20000, written.get());
+    }
+
+    @Test
+    void flush_nothingPending_noUpdate() {
+        viewCounterService.flush();
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void flush_failure_keepsDeltaForNextCycle() {
+        viewCounterService.recordView(1L);
+        when(postRepository.incrementViewCounts(anyInt(), any())).thenThrow(new RuntimeException("DB down"));
+
+        viewCounterService.flush();
+        assertEquals(1, viewCounterService.getPendingViews(1L));
+
+        reset(postRepository);
+        viewCounterService.flush();
+        verify(postRepository).incrementViewCounts(1, List.of(1L));
+        assertEquals(0, viewCounterService.getPendingViews(1L));
+    }
+
+    @Test
+    void flush_reportsWrittenViewsToTrendingTags() {
+        viewCounterService.recordView(1L);
+        viewCounterService.recordView(2L);
+        viewCounterService.recordView(2L);
+        when(postRepository.incrementViewCounts(eq(1), any())).thenThrow(new RuntimeException("DB down"));
+
+        viewCounterService.flush();
+
+        // Les vues de l'article 1 restent en attente et seront signalées une fois écrites
+        verify(trendingTagService).recordViews(Map.of(2L, 2L));
+    }
+
+    @Test
+    void recordView_concurrentIncrements_noneLost() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8000; i++) {
+            executor.submit(() -> viewCounterService.recordView(1L));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(8000, viewCounterService.getPendingViews(1L));
+    }
+}